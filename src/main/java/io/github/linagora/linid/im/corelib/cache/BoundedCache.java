@@ -0,0 +1,627 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe in-memory cache bounded by number of entries, total weight and time to live.
+ *
+ * <p>New entries are always admitted into a small least-recently-used window, about one percent of the cache. Entries
+ * leaving the window compete with the least recently used entry of the main segment: the one with the higher estimated
+ * access frequency, tracked by a {@link FrequencySketch}, is kept (W-TinyLFU admission). Fresh entries thus get time to
+ * prove their popularity in the window, while one-off lookups, such as directory scans, do not flush popular entries.
+ *
+ * <p>Lookups do not take the cache lock: values are read from a concurrent map, and accesses are recorded in a buffer
+ * that is replayed into the access order and the sketch by the next thread holding the lock. Under heavy contention,
+ * accesses may be dropped from the buffer, which only makes the eviction order approximate.
+ *
+ * <p>Values are loaded outside of the cache lock, so that slow loaders do not block concurrent lookups. A load that
+ * was started before its key was invalidated or written does not cache its result, so that stale values never
+ * overwrite newer state. {@code null} values are never cached.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public final class BoundedCache<K, V> {
+
+  /**
+   * Maximum number of accesses waiting in the read buffer; further accesses are dropped until it is drained.
+   */
+  private static final int READ_BUFFER_SIZE = 1024;
+
+  /**
+   * Number of buffered accesses from which a lookup tries to drain the read buffer.
+   */
+  private static final int DRAIN_THRESHOLD = 64;
+
+  /**
+   * Percentage of the maximum number of entries given to the admission window.
+   */
+  private static final int WINDOW_PERCENT = 1;
+
+  /**
+   * Maximum number of entries.
+   */
+  private final long maxEntries;
+
+  /**
+   * Maximum number of entries of the admission window.
+   */
+  private final long maxWindowEntries;
+
+  /**
+   * Time to live of entries in nanoseconds, {@code 0} if entries do not expire.
+   */
+  private final long ttlNanos;
+
+  /**
+   * Maximum total weight of entries, {@code 0} if the weight is not bounded.
+   */
+  private final long maxWeight;
+
+  /**
+   * Function computing the weight of a value.
+   */
+  private final ToLongFunction<? super V> weigher;
+
+  /**
+   * Source of the current time in nanoseconds.
+   */
+  private final LongSupplier ticker;
+
+  /**
+   * Entries of both segments, read without the lock and written with the lock held.
+   */
+  private final Map<K, Node<V>> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Keys of the admission window in least-recently-used order.
+   */
+  private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * Keys of the main segment in least-recently-used order.
+   */
+  private final LinkedHashMap<K, Node<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * Keys looked up since the read buffer was last drained.
+   */
+  private final Queue<K> reads = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Number of keys in the read buffer.
+   */
+  private final AtomicInteger pendingReads = new AtomicInteger();
+
+  /**
+   * Tokens of the loads in flight by key; invalidating or writing a key revokes the token of its load.
+   */
+  private final Map<K, Object> loads = new HashMap<>();
+
+  /**
+   * Access frequency estimates used for admission.
+   */
+  private final FrequencySketch sketch;
+
+  /**
+   * Lock guarding the writes to the entries, both segments, the loads in flight, the sketch and the weighted size.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Number of lookups that found a live entry.
+   */
+  private final LongAdder hits = new LongAdder();
+
+  /**
+   * Number of lookups that found no live entry.
+   */
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Number of entries removed because of size, weight or expiration.
+   */
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Number of entries refused by the admission policy.
+   */
+  private final LongAdder rejections = new LongAdder();
+
+  /**
+   * Total weight of the entries.
+   */
+  private long weightedSize;
+
+  /**
+   * Cached value with its weight and expiration time.
+   *
+   * @param value the cached value
+   * @param weight the weight of the value
+   * @param expiresAt the ticker value after which the entry is expired, if entries expire
+   * @param <V> the type of the value
+   */
+  private record Node<V>(V value, long weight, long expiresAt) {
+  }
+
+  /**
+   * Creates a cache bounded by number of entries and time to live, where every entry weighs {@code 1}.
+   *
+   * @param maxEntries the maximum number of entries, must be strictly positive
+   * @param ttl the time to live of entries after they are written, {@code null} or zero if entries do not expire
+   */
+  public BoundedCache(final long maxEntries, final Duration ttl) {
+    this(maxEntries, ttl, 0, value -> 1);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param maxEntries the maximum number of entries, must be strictly positive
+   * @param ttl the time to live of entries after they are written, {@code null} or zero if entries do not expire
+   * @param maxWeight the maximum total weight of entries, {@code 0} if the weight is not bounded
+   * @param weigher the function computing the weight of a value
+   */
+  public BoundedCache(final long maxEntries,
+                      final Duration ttl,
+                      final long maxWeight,
+                      final ToLongFunction<? super V> weigher) {
+    this(maxEntries, ttl, maxWeight, weigher, System::nanoTime);
+  }
+
+  /**
+   * Creates a cache with a custom time source.
+   *
+   * @param maxEntries the maximum number of entries, must be strictly positive
+   * @param ttl the time to live of entries after they are written, {@code null} or zero if entries do not expire
+   * @param maxWeight the maximum total weight of entries, {@code 0} if the weight is not bounded
+   * @param weigher the function computing the weight of a value
+   * @param ticker the source of the current time in nanoseconds
+   */
+  BoundedCache(final long maxEntries,
+               final Duration ttl,
+               final long maxWeight,
+               final ToLongFunction<? super V> weigher,
+               final LongSupplier ticker) {
+    if (maxEntries <= 0 || maxWeight < 0) {
+      throw new IllegalArgumentException("Cache bounds must be positive");
+    }
+    this.maxEntries = maxEntries;
+    this.maxWindowEntries = Math.max(1, maxEntries * WINDOW_PERCENT / 100);
+    this.ttlNanos = ttl == null ? 0 : ttl.toNanos();
+    this.maxWeight = maxWeight;
+    this.weigher = weigher;
+    this.ticker = ticker;
+    this.sketch = new FrequencySketch(maxEntries);
+  }
+
+  /**
+   * Returns the value cached for the given key.
+   *
+   * @param key the key
+   * @return the cached value, or {@code null} if absent or expired
+   */
+  public V get(final K key) {
+    return lookup(key);
+  }
+
+  /**
+   * Returns the value cached for the given key, loading and caching it if absent or expired.
+   *
+   * @param key the key
+   * @param loader the function loading the value of a missing key, called outside of the cache lock
+   * @return the cached or loaded value, {@code null} if the loader returned {@code null}
+   */
+  public V get(final K key, final Function<? super K, ? extends V> loader) {
+    return getAll(List.of(key), missing -> {
+      V value = loader.apply(key);
+      return value == null ? Map.of() : Map.of(key, value);
+    }).get(key);
+  }
+
+  /**
+   * Returns the values cached for the given keys, loading and caching the missing ones with a single loader call.
+   *
+   * <p>Loaded values are not cached if their key was invalidated or written while the loader was running.
+   *
+   * @param keys the keys
+   * @param loader the function loading the values of the missing keys, called outside of the cache lock; keys
+   *     without value may be absent from its result
+   * @return the cached or loaded values by key, in the order of the given keys; keys without value are absent
+   */
+  public Map<K, V> getAll(final Collection<? extends K> keys,
+                          final Function<? super List<K>, ? extends Map<? extends K, ? extends V>> loader) {
+    Map<K, V> values = new LinkedHashMap<>();
+    Set<K> missing = new LinkedHashSet<>();
+
+    for (K key : keys) {
+      if (!values.containsKey(key) && !missing.contains(key)) {
+        V value = lookup(key);
+        if (value != null) {
+          values.put(key, value);
+        } else {
+          missing.add(key);
+        }
+      }
+    }
+
+    if (missing.isEmpty()) {
+      return values;
+    }
+
+    Map<K, Object> tokens = new LinkedHashMap<>();
+
+    lock.lock();
+    try {
+      drainReads();
+      missing.forEach(key -> {
+        Object token = new Object();
+        loads.put(key, token);
+        tokens.put(key, token);
+      });
+    } finally {
+      lock.unlock();
+    }
+
+    Map<? extends K, ? extends V> loaded = Map.of();
+    try {
+      loaded = loader.apply(List.copyOf(tokens.keySet()));
+    } finally {
+      admit(tokens, loaded);
+    }
+
+    Map<K, V> ordered = new LinkedHashMap<>();
+    for (K key : keys) {
+      V value = values.containsKey(key) ? values.get(key) : loaded.get(key);
+      if (value != null) {
+        ordered.put(key, value);
+      }
+    }
+    return ordered;
+  }
+
+  /**
+   * Returns the value cached for the given key, loading it asynchronously and caching it if absent or expired.
+   *
+   * <p>The loaded value is not cached if the key was invalidated or written before the load completed.
+   *
+   * @param key the key
+   * @param loader the function starting the load of a missing key, called outside of the cache lock
+   * @return a stage completed with the cached or loaded value, {@code null} if the load yielded {@code null}
+   */
+  public CompletionStage<V> getAsync(final K key, final Function<? super K, ? extends CompletionStage<V>> loader) {
+    V value = lookup(key);
+    if (value != null) {
+      return CompletableFuture.completedFuture(value);
+    }
+
+    Object token = new Object();
+
+    lock.lock();
+    try {
+      drainReads();
+      loads.put(key, token);
+    } finally {
+      lock.unlock();
+    }
+
+    CompletionStage<V> load;
+    try {
+      load = loader.apply(key);
+    } catch (RuntimeException e) {
+      admit(Map.of(key, token), Map.of());
+      throw e;
+    }
+
+    return load.whenComplete((loaded, error) -> admit(Map.of(key, token),
+        loaded == null ? Map.of() : Map.of(key, loaded)));
+  }
+
+  /**
+   * Caches a value in the admission window.
+   *
+   * @param key the key
+   * @param value the value, must not be {@code null}
+   * @return {@code true} if the value was cached, {@code false} if it was rejected because it is heavier than the
+   *     maximum total weight
+   */
+  public boolean put(final K key, final V value) {
+    long weight = weigher.applyAsLong(value);
+
+    lock.lock();
+    try {
+      drainReads();
+      loads.remove(key);
+      return insert(key, value, weight);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the value cached for the given key.
+   *
+   * @param key the key
+   */
+  public void invalidate(final K key) {
+    lock.lock();
+    try {
+      loads.remove(key);
+      remove(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes all cached values.
+   */
+  public void invalidateAll() {
+    lock.lock();
+    try {
+      entries.clear();
+      window.clear();
+      main.clear();
+      loads.clear();
+      weightedSize = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns a snapshot of the cache statistics.
+   *
+   * @return the cache statistics
+   */
+  public CacheStatistics statistics() {
+    lock.lock();
+    try {
+      return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum(), rejections.sum(), entries.size(),
+          weightedSize);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the live value cached for the given key without taking the lock, recording the access and updating the
+   * statistics.
+   *
+   * @param key the key
+   * @return the cached value, or {@code null} if absent or expired
+   */
+  private V lookup(final K key) {
+    Node<V> node = entries.get(key);
+
+    if (node != null && isExpired(node)) {
+      expire(key, node);
+      node = null;
+    }
+
+    recordRead(key);
+
+    if (node == null) {
+      misses.increment();
+      return null;
+    }
+
+    hits.increment();
+    return node.value();
+  }
+
+  /**
+   * Adds an access to the read buffer, dropping it if the buffer is full, and drains the buffer if it is large enough
+   * and the lock is free.
+   *
+   * @param key the accessed key
+   */
+  private void recordRead(final K key) {
+    if (pendingReads.incrementAndGet() > READ_BUFFER_SIZE) {
+      pendingReads.decrementAndGet();
+    } else {
+      reads.add(key);
+    }
+
+    if (pendingReads.get() >= DRAIN_THRESHOLD && lock.tryLock()) {
+      try {
+        drainReads();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Replays the buffered accesses into the sketch and the access order of the segments. Must be called with the lock
+   * held.
+   */
+  private void drainReads() {
+    K key;
+    while ((key = reads.poll()) != null) {
+      pendingReads.decrementAndGet();
+      sketch.increment(key);
+      if (window.get(key) == null) {
+        main.get(key);
+      }
+    }
+  }
+
+  /**
+   * Removes an expired entry, unless it was replaced in the meantime.
+   *
+   * @param key the key of the entry
+   * @param node the expired entry
+   */
+  private void expire(final K key, final Node<V> node) {
+    lock.lock();
+    try {
+      if (entries.get(key) == node) {
+        remove(key);
+        evictions.increment();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Ends the given loads, caching the loaded values of those whose token was not revoked in the meantime.
+   *
+   * @param tokens the tokens of the loads by key
+   * @param loaded the loaded values by key
+   */
+  private void admit(final Map<K, Object> tokens, final Map<? extends K, ? extends V> loaded) {
+    Map<K, Long> weights = new HashMap<>();
+    loaded.forEach((key, value) -> {
+      if (value != null && tokens.containsKey(key)) {
+        weights.put(key, weigher.applyAsLong(value));
+      }
+    });
+
+    lock.lock();
+    try {
+      drainReads();
+      tokens.forEach((key, token) -> {
+        if (loads.remove(key, token) && weights.containsKey(key)) {
+          insert(key, loaded.get(key), weights.get(key));
+        }
+      });
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Caches a value in the admission window, or in place of the entry it replaces, then restores the bounds of the
+   * cache. Must be called with the lock held.
+   *
+   * @param key the key
+   * @param value the value
+   * @param weight the weight of the value
+   * @return {@code true} if the value was cached, {@code false} if it was rejected
+   */
+  private boolean insert(final K key, final V value, final long weight) {
+    if (maxWeight > 0 && weight > maxWeight) {
+      rejections.increment();
+      return false;
+    }
+
+    Node<V> node = new Node<>(value, weight, ticker.getAsLong() + ttlNanos);
+    boolean inMain = main.containsKey(key);
+    remove(key);
+
+    entries.put(key, node);
+    (inMain ? main : window).put(key, node);
+    weightedSize += weight;
+
+    evict();
+    return entries.get(key) == node;
+  }
+
+  /**
+   * Moves the entries overflowing the admission window to the main segment, then evicts entries until the bounds of
+   * the cache are met. Each entry moved from the window competes with the least recently used entry of the main
+   * segment, the least popular of both being evicted. Must be called with the lock held.
+   */
+  private void evict() {
+    List<K> candidates = new ArrayList<>();
+    while (window.size() > maxWindowEntries) {
+      Map.Entry<K, Node<V>> eldest = window.entrySet().iterator().next();
+      window.remove(eldest.getKey());
+      main.put(eldest.getKey(), eldest.getValue());
+      candidates.add(eldest.getKey());
+    }
+
+    while (entries.size() > maxEntries || (maxWeight > 0 && weightedSize > maxWeight)) {
+      K candidate = candidates.stream().filter(main::containsKey).findFirst().orElse(null);
+
+      if (main.isEmpty()) {
+        remove(window.keySet().iterator().next());
+        evictions.increment();
+        continue;
+      }
+
+      K victim = main.keySet().iterator().next();
+
+      if (candidate == null || candidate.equals(victim) || isExpired(entries.get(victim))
+          || sketch.frequency(candidate) > sketch.frequency(victim)) {
+        remove(victim);
+        evictions.increment();
+      } else {
+        remove(candidate);
+        rejections.increment();
+      }
+    }
+  }
+
+  /**
+   * Removes an entry from the cache and its segment and updates the weighted size. Must be called with the lock held.
+   *
+   * @param key the key of the entry
+   */
+  private void remove(final K key) {
+    Node<V> node = entries.remove(key);
+
+    if (node != null) {
+      window.remove(key);
+      main.remove(key);
+      weightedSize -= node.weight();
+    }
+  }
+
+  /**
+   * Indicates whether an entry is expired.
+   *
+   * @param node the entry
+   * @return {@code true} if entries expire and the time to live of the entry has elapsed
+   */
+  private boolean isExpired(final Node<V> node) {
+    return ttlNanos > 0 && ticker.getAsLong() - node.expiresAt() > 0;
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.cache;
+
+/**
+ * Count-Min sketch estimating the access frequency of keys with counters saturating at 15, used by the TinyLFU admission
+ * of {@link BoundedCache}.
+ *
+ * <p>Counters are halved once the number of recorded accesses reaches ten times the table width, so that the
+ * estimated frequencies favour recent popularity. This class is not thread-safe; callers must guard it.
+ */
+final class FrequencySketch {
+
+  /**
+   * Number of hash functions, i.e. rows of counters.
+   */
+  private static final int DEPTH = 4;
+
+  /**
+   * Maximum value of a counter.
+   */
+  private static final int MAX_COUNT = 15;
+
+  /**
+   * Maximum number of counters per row.
+   */
+  private static final int MAX_WIDTH = 1 << 20;
+
+  /**
+   * Seeds of the hash functions of each row.
+   */
+  private static final int[] SEEDS = {0x97CB3127, 0xB5A6A6B5, 0x3C6EF372, 0x85EBCA6B};
+
+  /**
+   * Counters, one row per hash function.
+   */
+  private final byte[][] table;
+
+  /**
+   * Mask applied to hashes to get a counter index.
+   */
+  private final int mask;
+
+  /**
+   * Number of recorded accesses after which counters are halved.
+   */
+  private final int sampleSize;
+
+  /**
+   * Number of recorded accesses since the last halving.
+   */
+  private int additions;
+
+  /**
+   * Creates a sketch sized for the given number of cached entries.
+   *
+   * @param expectedEntries the maximum number of entries of the cache
+   */
+  FrequencySketch(final long expectedEntries) {
+    int width = Integer.highestOneBit(Math.clamp(expectedEntries, 16, MAX_WIDTH) * 2 - 1);
+    this.table = new byte[DEPTH][width];
+    this.mask = width - 1;
+    this.sampleSize = width * 10;
+  }
+
+  /**
+   * Records an access to the given key.
+   *
+   * @param key the accessed key
+   */
+  void increment(final Object key) {
+    int hash = key.hashCode();
+    boolean added = false;
+
+    for (int row = 0; row < DEPTH; row++) {
+      int index = index(hash, row);
+      if (table[row][index] < MAX_COUNT) {
+        table[row][index]++;
+        added = true;
+      }
+    }
+
+    if (added && ++additions >= sampleSize) {
+      reset();
+    }
+  }
+
+  /**
+   * Returns the estimated access frequency of the given key.
+   *
+   * @param key the key
+   * @return the estimated frequency, between {@code 0} and {@value #MAX_COUNT}
+   */
+  int frequency(final Object key) {
+    int hash = key.hashCode();
+    int frequency = MAX_COUNT;
+
+    for (int row = 0; row < DEPTH; row++) {
+      frequency = Math.min(frequency, table[row][index(hash, row)]);
+    }
+
+    return frequency;
+  }
+
+  /**
+   * Computes the counter index of a hash in the given row.
+   *
+   * @param hash the key hash
+   * @param row the row
+   * @return the counter index
+   */
+  private int index(final int hash, final int row) {
+    int spread = (hash ^ SEEDS[row]) * 0x9E3779B9;
+    return (spread ^ (spread >>> 16)) & mask;
+  }
+
+  /**
+   * Halves all counters so that old accesses weigh less than recent ones.
+   */
+  private void reset() {
+    for (byte[] row : table) {
+      for (int index = 0; index < row.length; index++) {
+        row[index] = (byte) (row[index] >> 1);
+      }
+    }
+    additions /= 2;
+  }
+}
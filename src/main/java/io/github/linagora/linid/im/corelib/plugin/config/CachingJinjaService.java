@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config;
+
+import io.github.linagora.linid.im.corelib.cache.BoundedCache;
+import io.github.linagora.linid.im.corelib.cache.CacheStatistics;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.Map;
+
+/**
+ * Decorator of a {@link JinjaService} caching compiled templates by source.
+ *
+ * <p>Every {@code render} call compiles its template through the delegate on first use only, and then renders the
+ * cached {@link CompiledTemplate}. The cache is a {@link BoundedCache} holding at most a fixed number of templates,
+ * which keeps memory bounded when templates are built dynamically. Literal templates are rendered without the engine,
+ * and so are attribute-only templates when the decorator is created with the attribute shortcut enabled, as described
+ * in {@link TemplateFastPath}.
+ *
+ * <p>Applications should wrap their {@link JinjaService} implementation with this decorator once, so that the cache
+ * and its statistics are shared by all requests.
+ */
+public class CachingJinjaService implements JinjaService {
+
+  /**
+   * Default maximum number of cached templates.
+   */
+  public static final long DEFAULT_MAX_ENTRIES = 1024;
+
+  /**
+   * The decorated service.
+   */
+  private final JinjaService delegate;
+
+  /**
+   * Compiled templates indexed by source.
+   */
+  private final BoundedCache<String, CompiledTemplate> cache;
+
+  /**
+   * Whether attribute-only templates are rendered without the engine.
+   */
+  private final boolean renderAttributes;
+
+  /**
+   * Creates a caching decorator holding at most {@value #DEFAULT_MAX_ENTRIES} templates.
+   *
+   * @param delegate the service to decorate
+   */
+  public CachingJinjaService(final JinjaService delegate) {
+    this(delegate, DEFAULT_MAX_ENTRIES);
+  }
+
+  /**
+   * Creates a caching decorator.
+   *
+   * @param delegate the service to decorate
+   * @param maxEntries the maximum number of cached templates, must be strictly positive
+   */
+  public CachingJinjaService(final JinjaService delegate, final long maxEntries) {
+    this(delegate, maxEntries, false);
+  }
+
+  /**
+   * Creates a caching decorator, optionally rendering attribute-only templates without the engine.
+   *
+   * @param delegate the service to decorate
+   * @param maxEntries the maximum number of cached templates, must be strictly positive
+   * @param renderAttributes whether attribute-only templates are rendered without the engine, which is only valid if
+   *     the delegate renders strings, booleans, integers and longs as their string value and missing attributes as
+   *     empty strings, without escaping
+   */
+  public CachingJinjaService(final JinjaService delegate, final long maxEntries, final boolean renderAttributes) {
+    this.delegate = delegate;
+    this.cache = new BoundedCache<>(maxEntries, null);
+    this.renderAttributes = renderAttributes;
+  }
+
+  /**
+   * Returns the decorated service.
+   *
+   * @return the decorated service
+   */
+  public JinjaService getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Returns the statistics of the template cache.
+   *
+   * @return a snapshot of the cache statistics
+   */
+  public CacheStatistics getStatistics() {
+    return cache.statistics();
+  }
+
+  /**
+   * Removes all compiled templates from the cache.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  public CompiledTemplate compile(final String template) {
+    return cache.get(template, source -> TemplateFastPath.optimize(source, delegate::compile, renderAttributes));
+  }
+
+  @Override
+  public String render(final TaskExecutionContext taskContext, final String template) {
+    return compile(template).render(taskContext);
+  }
+
+  @Override
+  public String render(final TaskExecutionContext taskContext, final DynamicEntity entity, final String template) {
+    return compile(template).render(taskContext, entity);
+  }
+
+  @Override
+  public String render(final TaskExecutionContext taskContext,
+                       final DynamicEntity entity,
+                       final Map<String, Object> map,
+                       final String template) {
+    return compile(template).render(taskContext, entity, map);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Template parsed once by {@link JinjaService#compile(String)} and rendered any number of times.
+ *
+ * <p>Implementations must be immutable and thread-safe, so that a compiled template can be cached and rendered
+ * concurrently by all request threads.
+ */
+public interface CompiledTemplate {
+
+  /**
+   * Returns the source of the template.
+   *
+   * @return the template, as passed to {@link JinjaService#compile(String)}
+   */
+  String getSource();
+
+  /**
+   * Renders the template using the task context, entity attributes, and additional variables, with the same rendering
+   * context as {@link JinjaService#render(TaskExecutionContext, DynamicEntity, Map, String)}.
+   *
+   * @param taskContext the task execution context
+   * @param entity the dynamic entity whose attributes are included, may be {@code null}
+   * @param map additional variables to include in the rendering context
+   * @return the rendered string
+   */
+  String render(TaskExecutionContext taskContext, DynamicEntity entity, Map<String, Object> map);
+
+  /**
+   * Renders the template using the task context, entity attributes, and additional variables, writing the output to
+   * the given sink instead of building a string.
+   *
+   * <p>Implementations should override this method to stream the output of the engine. The default implementation
+   * renders the whole output to a string, then appends it.
+   *
+   * @param taskContext the task execution context
+   * @param entity the dynamic entity whose attributes are included, may be {@code null}
+   * @param map additional variables to include in the rendering context
+   * @param out the sink receiving the output, such as a {@link java.io.Writer} on the response body
+   * @throws UncheckedIOException if the sink fails
+   */
+  default void render(TaskExecutionContext taskContext, DynamicEntity entity, Map<String, Object> map,
+                      Appendable out) {
+    try {
+      out.append(render(taskContext, entity, map));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Renders the template using the given {@link TaskExecutionContext} and {@link DynamicEntity}.
+   *
+   * @param taskContext the task execution context
+   * @param entity the dynamic entity whose attributes are used as variables, may be {@code null}
+   * @return the rendered string
+   */
+  default String render(TaskExecutionContext taskContext, DynamicEntity entity) {
+    return render(taskContext, entity, Map.of());
+  }
+
+  /**
+   * Renders the template using the given {@link TaskExecutionContext}.
+   *
+   * @param taskContext the task execution context providing variables and environment
+   * @return the rendered string
+   */
+  default String render(TaskExecutionContext taskContext) {
+    return render(taskContext, null, Map.of());
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AuthenticationConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.LifecycleExecutionMode;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RootConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RouteConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.TaskConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ValidationConfiguration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable, pre-indexed view of a {@link RootConfiguration}.
+ *
+ * <p>The snapshot is built once per configuration version with {@link #of(RootConfiguration)}: entities, providers,
+ * tasks and validations are indexed by name, so that finding one of them costs a single hash lookup instead of a scan
+ * of the configuration lists. When several sections share the same name, the first declared one is kept.
+ *
+ * <p>The snapshot is deeply immutable: it holds {@code readOnlyCopy()} copies of the configuration sections, whose
+ * setters throw {@link UnsupportedOperationException} and whose collections, options included, are unmodifiable. The
+ * source configuration can therefore be modified or reused freely once the snapshot is built.
+ *
+ * <p>{@link PluginConfigurationService} implementations are expected to keep the current snapshot in a single
+ * {@code volatile} field, replaced as a whole when the configuration is reloaded, and to answer lookups from it. Request
+ * threads then read a consistent configuration without any lock.
+ */
+public final class ConfigurationSnapshot {
+
+  /**
+   * Snapshot of an empty configuration.
+   */
+  private static final ConfigurationSnapshot EMPTY = of(new RootConfiguration());
+
+  /**
+   * Entity configurations indexed by name.
+   */
+  private final Map<String, EntityConfiguration> entities;
+
+  /**
+   * Provider configurations indexed by name.
+   */
+  private final Map<String, ProviderConfiguration> providers;
+
+  /**
+   * Task configurations indexed by name.
+   */
+  private final Map<String, TaskConfiguration> tasks;
+
+  /**
+   * Validation configurations indexed by name.
+   */
+  private final Map<String, ValidationConfiguration> validations;
+
+  /**
+   * Route configurations, in declaration order.
+   */
+  private final List<RouteConfiguration> routes;
+
+  /**
+   * Global authentication configuration, may be {@code null}.
+   */
+  private final AuthenticationConfiguration authentication;
+
+  /**
+   * Execution mode of entity lifecycles.
+   */
+  private final LifecycleExecutionMode executionMode;
+
+  /**
+   * Creates a snapshot of the given configuration.
+   *
+   * @param configuration the root configuration
+   */
+  private ConfigurationSnapshot(final RootConfiguration configuration) {
+    this.entities = index(configuration.getEntities(), EntityConfiguration::readOnlyCopy, EntityConfiguration::getName);
+    this.providers = index(configuration.getProviders(), ProviderConfiguration::readOnlyCopy,
+        ProviderConfiguration::getName);
+    this.tasks = index(configuration.getTasks(), TaskConfiguration::readOnlyCopy, TaskConfiguration::getName);
+    this.validations = index(configuration.getValidations(), ValidationConfiguration::readOnlyCopy,
+        ValidationConfiguration::getName);
+    this.routes = configuration.getRoutes().stream().map(RouteConfiguration::readOnlyCopy).toList();
+    this.authentication = Optional.ofNullable(configuration.getAuthentication())
+        .map(AuthenticationConfiguration::readOnlyCopy)
+        .orElse(null);
+    this.executionMode = configuration.getExecutionMode();
+  }
+
+  /**
+   * Returns the snapshot of an empty configuration.
+   *
+   * @return the empty snapshot
+   */
+  public static ConfigurationSnapshot empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Builds the snapshot of the given configuration.
+   *
+   * @param configuration the root configuration, copied by the snapshot
+   * @return the snapshot
+   */
+  public static ConfigurationSnapshot of(final RootConfiguration configuration) {
+    return new ConfigurationSnapshot(configuration);
+  }
+
+  /**
+   * Retrieves the configuration of the entity identified by the given name.
+   *
+   * @param name the name of the entity
+   * @return the entity configuration, or empty if none has this name
+   */
+  public Optional<EntityConfiguration> getEntityConfiguration(final String name) {
+    return Optional.ofNullable(entities.get(name));
+  }
+
+  /**
+   * Retrieves the configuration of the provider identified by the given name.
+   *
+   * @param name the name of the provider
+   * @return the provider configuration, or empty if none has this name
+   */
+  public Optional<ProviderConfiguration> getProviderConfiguration(final String name) {
+    return Optional.ofNullable(providers.get(name));
+  }
+
+  /**
+   * Retrieves the configuration of the task identified by the given name.
+   *
+   * @param name the name of the task
+   * @return the task configuration, or empty if none has this name
+   */
+  public Optional<TaskConfiguration> getTaskConfiguration(final String name) {
+    return Optional.ofNullable(tasks.get(name));
+  }
+
+  /**
+   * Retrieves the configuration of the validation identified by the given name.
+   *
+   * @param name the name of the validation
+   * @return the validation configuration, or empty if none has this name
+   */
+  public Optional<ValidationConfiguration> getValidationConfiguration(final String name) {
+    return Optional.ofNullable(validations.get(name));
+  }
+
+  /**
+   * Returns the entity configurations indexed by name.
+   *
+   * @return an unmodifiable map of entity configurations
+   */
+  public Map<String, EntityConfiguration> getEntities() {
+    return entities;
+  }
+
+  /**
+   * Returns the provider configurations indexed by name.
+   *
+   * @return an unmodifiable map of provider configurations
+   */
+  public Map<String, ProviderConfiguration> getProviders() {
+    return providers;
+  }
+
+  /**
+   * Returns the task configurations indexed by name.
+   *
+   * @return an unmodifiable map of task configurations
+   */
+  public Map<String, TaskConfiguration> getTasks() {
+    return tasks;
+  }
+
+  /**
+   * Returns the validation configurations indexed by name.
+   *
+   * @return an unmodifiable map of validation configurations
+   */
+  public Map<String, ValidationConfiguration> getValidations() {
+    return validations;
+  }
+
+  /**
+   * Returns the route configurations.
+   *
+   * @return an unmodifiable list of route configurations, in declaration order
+   */
+  public List<RouteConfiguration> getRoutesConfiguration() {
+    return routes;
+  }
+
+  /**
+   * Retrieves the global authentication configuration.
+   *
+   * @return the authentication configuration, or empty if none is defined
+   */
+  public Optional<AuthenticationConfiguration> getAuthenticationConfiguration() {
+    return Optional.ofNullable(authentication);
+  }
+
+  /**
+   * Returns the execution mode of entity lifecycles.
+   *
+   * @return the configured execution mode
+   */
+  public LifecycleExecutionMode getExecutionMode() {
+    return executionMode;
+  }
+
+  /**
+   * Indexes read-only copies of configurations by name, keeping the first declared one on duplicates and ignoring
+   * unnamed ones.
+   *
+   * @param values the configurations, in declaration order
+   * @param copy the function returning the read-only copy of a configuration
+   * @param name the function returning the name of a configuration
+   * @param <T> the type of the configurations
+   * @return an unmodifiable map of configuration copies by name
+   */
+  private static <T> Map<String, T> index(final List<T> values,
+                                          final UnaryOperator<T> copy,
+                                          final Function<T, String> name) {
+    Map<String, T> index = new HashMap<>();
+
+    for (T value : values) {
+      if (name.apply(value) != null && !index.containsKey(name.apply(value))) {
+        index.put(name.apply(value), copy.apply(value));
+      }
+    }
+
+    return Collections.unmodifiableMap(index);
+  }
+}
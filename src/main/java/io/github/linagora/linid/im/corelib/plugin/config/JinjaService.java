@@ -35,6 +35,10 @@ import java.util.Map;
  *
  * <p>This interface provides methods to evaluate templates using data from the task context, the dynamic entity, and optionally
  * additional variables.
+ *
+ * <p>Templates rendered repeatedly, such as task and provider options, should be {@link #compile(String) compiled} once
+ * and rendered through the resulting {@link CompiledTemplate}. Wrapping an implementation in a
+ * {@link CachingJinjaService} makes every {@code render} call reuse compiled templates transparently.
  */
 public interface JinjaService {
   /**
@@ -66,6 +70,8 @@ public interface JinjaService {
    *   <li><code>entity</code>: the dynamic entity's attributes</li>
    *   <li>All key-value pairs from the <code>map</code> parameter</li>
    * </ul>
+   * Implementations should expose these variables through a {@link TemplateContext} view instead of copying them into
+   * a new map.
    *
    * @param taskContext the task execution context
    * @param entity the dynamic entity whose attributes are included
@@ -74,4 +80,82 @@ public interface JinjaService {
    * @return the rendered string
    */
   String render(TaskExecutionContext taskContext, DynamicEntity entity, Map<String, Object> map, String template);
+
+  /**
+   * Renders a template using the given {@link TaskExecutionContext}, writing the output to the given sink.
+   *
+   * @param taskContext the task execution context providing variables and environment
+   * @param template the Jinja template to render
+   * @param out the sink receiving the output, such as a {@link java.io.Writer} on the response body
+   * @throws java.io.UncheckedIOException if the sink fails
+   */
+  default void render(TaskExecutionContext taskContext, String template, Appendable out) {
+    compile(template).render(taskContext, null, Map.of(), out);
+  }
+
+  /**
+   * Renders a template using the given {@link TaskExecutionContext} and {@link DynamicEntity}, writing the output to
+   * the given sink.
+   *
+   * @param taskContext the task execution context
+   * @param entity the dynamic entity whose attributes are used as variables
+   * @param template the Jinja template to render
+   * @param out the sink receiving the output, such as a {@link java.io.Writer} on the response body
+   * @throws java.io.UncheckedIOException if the sink fails
+   */
+  default void render(TaskExecutionContext taskContext, DynamicEntity entity, String template, Appendable out) {
+    compile(template).render(taskContext, entity, Map.of(), out);
+  }
+
+  /**
+   * Renders a template using the task context, entity attributes, and additional variables, writing the output to the
+   * given sink.
+   *
+   * <p>Large outputs, such as exports or generated documents, should be rendered this way directly into the response,
+   * without building the whole output in memory. The default implementation relies on
+   * {@link CompiledTemplate#render(TaskExecutionContext, DynamicEntity, Map, Appendable)}, which streams the output
+   * when the compiled template supports it.
+   *
+   * @param taskContext the task execution context
+   * @param entity the dynamic entity whose attributes are included
+   * @param map additional variables to include in the rendering context
+   * @param template the Jinja template to render
+   * @param out the sink receiving the output, such as a {@link java.io.Writer} on the response body
+   * @throws java.io.UncheckedIOException if the sink fails
+   */
+  default void render(TaskExecutionContext taskContext, DynamicEntity entity, Map<String, Object> map, String template,
+                      Appendable out) {
+    compile(template).render(taskContext, entity, map, out);
+  }
+
+  /**
+   * Compiles a template for repeated rendering.
+   *
+   * <p>Implementations should override this method to parse the template once. The default implementation does not
+   * parse anything: the returned template calls the {@code render} method of this service matching its arguments.
+   *
+   * @param template the Jinja template to compile
+   * @return the reusable, thread-safe compiled template
+   */
+  default CompiledTemplate compile(String template) {
+    return new CompiledTemplate() {
+      @Override
+      public String getSource() {
+        return template;
+      }
+
+      @Override
+      public String render(final TaskExecutionContext taskContext,
+                           final DynamicEntity entity,
+                           final Map<String, Object> map) {
+        if (!map.isEmpty()) {
+          return JinjaService.this.render(taskContext, entity, map, template);
+        }
+        if (entity != null) {
+          return JinjaService.this.render(taskContext, entity, template);
+        }
+        return JinjaService.this.render(taskContext, template);
+      }
+    };
+  }
 }
@@ -41,6 +41,10 @@ import java.util.Optional;
  * Service interface to access plugin-related configurations.
  *
  * <p>Provides methods to retrieve configurations for entities, providers, and routes by name.
+ *
+ * <p>Implementations are expected to build a {@link ConfigurationSnapshot} each time the configuration is loaded,
+ * publish it through a single {@code volatile} field, and answer lookups from it, so that they cost a hash lookup and
+ * need no lock.
  */
 public interface PluginConfigurationService {
   /**
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Read-only view of the variables available to a template, as described in
+ * {@link JinjaService#render(TaskExecutionContext, DynamicEntity, Map, String)}.
+ *
+ * <p>The view does not copy anything: {@value #CONTEXT_VARIABLE} resolves to the {@link TaskExecutionContext},
+ * {@value #ENTITY_VARIABLE} to the attributes of the {@link DynamicEntity}, and any other name to the additional
+ * variables, which also shadow the two previous ones. Variables are resolved on access, so building the view costs
+ * the same whatever the size of its sources, and a template reading a single variable performs a single lookup.
+ *
+ * <p>This is the standard way for {@link JinjaService} implementations to expose variables to their engine: pass it as
+ * the bindings or as the parent scope of the rendering context, instead of merging the three sources into a new map
+ * for every call. The view reflects later changes of its sources and is not thread-safe by itself.
+ */
+public final class TemplateContext extends AbstractMap<String, Object> {
+
+  /**
+   * Name of the variable holding the task execution context.
+   */
+  public static final String CONTEXT_VARIABLE = "context";
+
+  /**
+   * Name of the variable holding the entity attributes.
+   */
+  public static final String ENTITY_VARIABLE = "entity";
+
+  /**
+   * The task execution context, may be {@code null}.
+   */
+  private final TaskExecutionContext taskContext;
+
+  /**
+   * The attributes of the entity, may be {@code null}.
+   */
+  private final Map<String, Object> attributes;
+
+  /**
+   * The additional variables.
+   */
+  private final Map<String, Object> variables;
+
+  /**
+   * Creates a view.
+   *
+   * @param taskContext the task execution context, may be {@code null}
+   * @param attributes the attributes of the entity, may be {@code null}
+   * @param variables the additional variables
+   */
+  private TemplateContext(final TaskExecutionContext taskContext,
+                          final Map<String, Object> attributes,
+                          final Map<String, Object> variables) {
+    this.taskContext = taskContext;
+    this.attributes = attributes;
+    this.variables = variables;
+  }
+
+  /**
+   * Creates the view of the variables available to a template.
+   *
+   * @param taskContext the task execution context, may be {@code null}
+   * @param entity the dynamic entity whose attributes are exposed, may be {@code null}
+   * @param variables the additional variables, may be {@code null}
+   * @return the template context view
+   */
+  public static TemplateContext of(final TaskExecutionContext taskContext,
+                                   final DynamicEntity entity,
+                                   final Map<String, Object> variables) {
+    return new TemplateContext(taskContext, entity == null ? null : entity.getAttributes(),
+        variables == null ? Map.of() : variables);
+  }
+
+  @Override
+  public Object get(final Object key) {
+    if (variables.containsKey(key)) {
+      return variables.get(key);
+    }
+    if (CONTEXT_VARIABLE.equals(key)) {
+      return taskContext;
+    }
+    if (ENTITY_VARIABLE.equals(key)) {
+      return attributes;
+    }
+    return null;
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return variables.containsKey(key)
+        || (CONTEXT_VARIABLE.equals(key) && taskContext != null)
+        || (ENTITY_VARIABLE.equals(key) && attributes != null);
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        return Stream.concat(variables.entrySet().stream(), builtins()).iterator();
+      }
+
+      @Override
+      public int size() {
+        return variables.size() + (int) builtins().count();
+      }
+    };
+  }
+
+  /**
+   * Returns the {@value #CONTEXT_VARIABLE} and {@value #ENTITY_VARIABLE} variables that are present and not shadowed by
+   * an additional variable.
+   *
+   * @return the built-in variables
+   */
+  private Stream<Entry<String, Object>> builtins() {
+    return Stream.of(
+            taskContext == null ? null : Map.<String, Object>entry(CONTEXT_VARIABLE, taskContext),
+            attributes == null ? null : Map.<String, Object>entry(ENTITY_VARIABLE, attributes))
+        .filter(entry -> entry != null && !variables.containsKey(entry.getKey()));
+  }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Shortcuts rendering the simplest templates without going through the template engine.
+ *
+ * <p>Most templates found in task and provider options are either literals, without any Jinja delimiter, or only
+ * interpolate entity attributes, such as {@code uid={{ entity.uid }},ou=people}.
+ * {@link #optimize(String, Function, boolean)} detects these shapes once, at compile time:
+ * <ul>
+ *   <li>literal templates render to their source, without building any rendering context;</li>
+ *   <li>when enabled, attribute-only templates read the attributes from {@link DynamicEntity#getAttributes()}
+ *   directly, without copying the entity into a context map. Attribute values are only rendered this way when they
+ *   are strings, booleans, integers or longs, which are written as their {@link String#valueOf(Object) string value},
+ *   missing or {@code null} attributes being written as empty strings; other values, a missing entity, or additional
+ *   variables shadowing {@code entity} fall back to the engine.</li>
+ * </ul>
+ * Any other template is compiled by the engine.
+ *
+ * <p>The attribute shortcut does not apply the rendering rules of the engine: it neither escapes values nor reports
+ * undefined attributes, and writes booleans as {@code true} and {@code false}. It must therefore only be enabled for
+ * engines rendering these values the same way, i.e. without autoescaping or strict undefined handling.
+ */
+public final class TemplateFastPath {
+
+  /**
+   * Opening delimiters of Jinja expressions, statements and comments.
+   */
+  private static final List<String> DELIMITERS = List.of("{{", "{%", "{#");
+
+  /**
+   * Expression reading an entity attribute, capturing the attribute name.
+   */
+  private static final Pattern ATTRIBUTE = Pattern.compile("\\s*entity\\.([A-Za-z_][A-Za-z0-9_]*)\\s*");
+
+  /**
+   * Utility class.
+   */
+  private TemplateFastPath() {
+  }
+
+  /**
+   * Compiles a template, rendering literal templates without the engine.
+   *
+   * @param template the Jinja template to compile
+   * @param compiler the function compiling templates with the engine
+   * @return the compiled template
+   */
+  public static CompiledTemplate optimize(final String template, final Function<String, CompiledTemplate> compiler) {
+    return optimize(template, compiler, false);
+  }
+
+  /**
+   * Compiles a template, rendering it without the engine when its shape allows it.
+   *
+   * @param template the Jinja template to compile
+   * @param compiler the function compiling templates with the engine
+   * @param renderAttributes whether attribute-only templates are rendered without the engine, which is only valid if
+   *     the engine renders attribute values as their string value
+   * @return the compiled template
+   */
+  public static CompiledTemplate optimize(final String template,
+                                          final Function<String, CompiledTemplate> compiler,
+                                          final boolean renderAttributes) {
+    if (isLiteral(template)) {
+      return new LiteralTemplate(template);
+    }
+
+    List<Part> parts = renderAttributes ? parseAttributeOnly(template) : null;
+
+    if (parts != null) {
+      return new AttributeTemplate(template, parts, compiler.apply(template));
+    }
+
+    return compiler.apply(template);
+  }
+
+  /**
+   * Indicates whether a template contains no Jinja delimiter.
+   *
+   * @param template the template
+   * @return {@code true} if the template renders to itself
+   */
+  public static boolean isLiteral(final String template) {
+    return DELIMITERS.stream().noneMatch(template::contains);
+  }
+
+  /**
+   * Splits a template made of literal text and {@code {{ entity.name }}} expressions only.
+   *
+   * @param template the template
+   * @return the parts of the template, or {@code null} if it uses any other Jinja construct
+   */
+  private static List<Part> parseAttributeOnly(final String template) {
+    List<Part> parts = new ArrayList<>();
+    int position = 0;
+
+    while (position < template.length()) {
+      int start = template.indexOf("{{", position);
+      String text = template.substring(position, start < 0 ? template.length() : start);
+
+      if (!isLiteral(text) || text.contains("}}")) {
+        return null;
+      }
+      if (!text.isEmpty()) {
+        parts.add(new Part(text, null));
+      }
+      if (start < 0) {
+        break;
+      }
+
+      int end = template.indexOf("}}", start + 2);
+      if (end < 0) {
+        return null;
+      }
+
+      Matcher matcher = ATTRIBUTE.matcher(template.substring(start + 2, end));
+      if (!matcher.matches()) {
+        return null;
+      }
+
+      parts.add(new Part(null, matcher.group(1)));
+      position = end + 2;
+    }
+
+    return List.copyOf(parts);
+  }
+
+  /**
+   * Piece of an attribute-only template.
+   *
+   * @param text the literal text, {@code null} for an attribute reference
+   * @param attribute the name of the referenced attribute, {@code null} for literal text
+   */
+  private record Part(String text, String attribute) {
+  }
+
+  /**
+   * Template without any Jinja delimiter.
+   *
+   * @param source the source of the template, which is also its output
+   */
+  private record LiteralTemplate(String source) implements CompiledTemplate {
+
+    @Override
+    public String getSource() {
+      return source;
+    }
+
+    @Override
+    public String render(final TaskExecutionContext taskContext,
+                         final DynamicEntity entity,
+                         final Map<String, Object> map) {
+      return source;
+    }
+
+    @Override
+    public void render(final TaskExecutionContext taskContext,
+                       final DynamicEntity entity,
+                       final Map<String, Object> map,
+                       final Appendable out) {
+      try {
+        out.append(source);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Template interpolating entity attributes only.
+   *
+   * @param source the source of the template
+   * @param parts the literal text and attribute references of the template, in order
+   * @param fallback the template compiled by the engine, used when attribute values cannot be rendered directly
+   */
+  private record AttributeTemplate(String source, List<Part> parts, CompiledTemplate fallback)
+      implements CompiledTemplate {
+
+    @Override
+    public String getSource() {
+      return source;
+    }
+
+    @Override
+    public String render(final TaskExecutionContext taskContext,
+                         final DynamicEntity entity,
+                         final Map<String, Object> map) {
+      if (!isRenderable(entity, map)) {
+        return fallback.render(taskContext, entity, map);
+      }
+
+      return format(entity);
+    }
+
+    @Override
+    public void render(final TaskExecutionContext taskContext,
+                       final DynamicEntity entity,
+                       final Map<String, Object> map,
+                       final Appendable out) {
+      if (!isRenderable(entity, map)) {
+        fallback.render(taskContext, entity, map, out);
+        return;
+      }
+
+      try {
+        out.append(format(entity));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Indicates whether the template can be rendered without the engine.
+     *
+     * @param entity the dynamic entity, may be {@code null}
+     * @param map additional variables
+     * @return {@code true} if every referenced attribute has a value with a plain string rendering
+     */
+    private boolean isRenderable(final DynamicEntity entity, final Map<String, Object> map) {
+      if (entity == null || entity.getAttributes() == null || map.containsKey(TemplateContext.ENTITY_VARIABLE)) {
+        return false;
+      }
+
+      return parts.stream()
+          .filter(part -> part.attribute() != null)
+          .map(part -> entity.getAttributes().get(part.attribute()))
+          .allMatch(value -> value == null || value instanceof CharSequence || value instanceof Boolean
+              || value instanceof Integer || value instanceof Long);
+    }
+
+    /**
+     * Builds the output of the template, missing attributes rendering as empty strings.
+     *
+     * @param entity the dynamic entity
+     * @return the rendered string
+     */
+    private String format(final DynamicEntity entity) {
+      StringBuilder builder = new StringBuilder();
+
+      for (Part part : parts) {
+        if (part.text() != null) {
+          builder.append(part.text());
+        } else {
+          Object value = entity.getAttributes().get(part.attribute());
+          if (value != null) {
+            builder.append(value);
+          }
+        }
+      }
+
+      return builder.toString();
+    }
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import tools.jackson.core.type.TypeReference;
+
+/**
+ * Base class of the plugin configurations, holding their additional options.
+ *
+ * <p>Options are the properties that are not explicitly declared as fields: they are collected during JSON
+ * deserialization by the {@link JsonAnySetter} annotated {@link #addOption(String, Object)}, which ignores the keys
+ * {@link #isReservedOption(String) reserved} by the subclass. Typed lookups through
+ * {@link #getOption(String, TypeReference)} are memoized per option name and target type.
+ *
+ * <p>Subclasses also support read-only copies: once {@link #completeReadOnlyCopy(AbstractPluginConfiguration)} has been
+ * called on a copy, its options are deeply unmodifiable and its setters, which must call {@link #checkWritable()},
+ * throw {@link UnsupportedOperationException}.
+ */
+public abstract class AbstractPluginConfiguration implements PluginConfiguration {
+
+  /**
+   * Additional options not explicitly declared as fields, populated via {@link #addOption(String, Object)}.
+   */
+  private Map<String, Object> options = new HashMap<>();
+
+  /**
+   * Memoized typed values of the {@code options} map, see {@link #getOption(String, TypeReference)}.
+   */
+  private final PluginOptionCache optionCache = new PluginOptionCache();
+
+  /**
+   * Whether this configuration is a read-only copy.
+   */
+  private boolean readOnly;
+
+  /**
+   * Default constructor.
+   */
+  protected AbstractPluginConfiguration() {
+  }
+
+  @Override
+  @JsonAnySetter
+  public void addOption(final String key, final Object value) {
+    checkWritable();
+    if (!isReservedOption(key)) {
+      this.options.put(key, value);
+    }
+  }
+
+  /**
+   * Returns the map of additional options of this configuration.
+   *
+   * @return the options map, unmodifiable for read-only copies
+   */
+  @Override
+  public Map<String, Object> getOptions() {
+    return options;
+  }
+
+  /**
+   * Retrieves an option by key and converts it using a {@link TypeReference}.
+   *
+   * <p>Converted values are memoized per option name and target type, so repeated lookups of an unchanged option
+   * return the same instance without going through Jackson again. Collections in the returned value are unmodifiable;
+   * conversions to arrays or to concrete collection classes are not memoized and return a new value on each call.
+   *
+   * @param key the name of the option
+   * @param typeRef the Jackson type reference
+   * @param <T> the expected type
+   * @return an {@link Optional} containing the converted value, or empty if the option is absent or cannot be converted
+   */
+  @Override
+  public <T> Optional<T> getOption(final String key, final TypeReference<T> typeRef) {
+    return optionCache.get(options, key, typeRef);
+  }
+
+  /**
+   * Indicates whether the given key is mapped to a declared field, and must therefore not be stored as an option.
+   *
+   * @param key the name of the property
+   * @return {@code true} if the key is reserved
+   */
+  protected abstract boolean isReservedOption(String key);
+
+  /**
+   * Indicates whether this configuration is a read-only copy.
+   *
+   * @return {@code true} if the configuration cannot be modified
+   */
+  protected final boolean isReadOnly() {
+    return readOnly;
+  }
+
+  /**
+   * Throws if this configuration is a read-only copy. Called by setters before any change.
+   *
+   * @throws UnsupportedOperationException if the configuration is read-only
+   */
+  protected final void checkWritable() {
+    ReadOnlyValues.checkWritable(readOnly);
+  }
+
+  /**
+   * Copies the options of this configuration into the given copy, as a deeply unmodifiable map, and makes the copy
+   * read-only. Subclasses call it once they have copied their own fields.
+   *
+   * @param copy the copy of this configuration
+   * @param <C> the type of the configuration
+   * @return the read-only copy
+   */
+  protected final <C extends AbstractPluginConfiguration> C completeReadOnlyCopy(final C copy) {
+    AbstractPluginConfiguration target = copy;
+    target.options = ReadOnlyValues.copyOf(options);
+    target.readOnly = true;
+    return copy;
+  }
+}
@@ -86,6 +86,11 @@ public class AttributeConfiguration {
    */
   private Map<String, Object> inputSettings;
 
+  /**
+   * Whether this configuration is a read-only copy, see {@link #readOnlyCopy()}.
+   */
+  private boolean readOnly;
+
   /**
    * Default constructor.
    */
@@ -107,6 +112,7 @@ public class AttributeConfiguration {
    * @param name the attribute name to set
    */
   public void setName(final String name) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.name = name;
   }
 
@@ -125,6 +131,7 @@ public class AttributeConfiguration {
    * @param type the attribute type to set
    */
   public void setType(final String type) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.type = type;
   }
 
@@ -143,6 +150,7 @@ public class AttributeConfiguration {
    * @param validations the list of validations to set
    */
   public void setValidations(final List<ValidationConfiguration> validations) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.validations = validations;
   }
 
@@ -169,6 +177,7 @@ public class AttributeConfiguration {
    * @param access the map of additional access properties to associate with this attribute
    */
   public void setAccess(final Map<String, Object> access) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.access = access;
   }
 
@@ -191,6 +200,7 @@ public class AttributeConfiguration {
    * @param required {@code true} to mark the attribute as mandatory; {@code false} otherwise
    */
   public void setRequired(boolean required) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.required = required;
   }
 
@@ -209,6 +219,7 @@ public class AttributeConfiguration {
    * @param input the input type
    */
   public void setInput(String input) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.input = input;
   }
 
@@ -227,6 +238,7 @@ public class AttributeConfiguration {
    * @param inputSettings a map of input-specific settings
    */
   public void setInputSettings(Map<String, Object> inputSettings) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.inputSettings = inputSettings;
   }
 
@@ -245,6 +257,32 @@ public class AttributeConfiguration {
    * @param nullIfEmpty {@code true} to treat empty strings as {@code null}, {@code false} otherwise
    */
   public void setNullIfEmpty(boolean nullIfEmpty) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.nullIfEmpty = nullIfEmpty;
   }
+
+  /**
+   * Returns a read-only deep copy of this attribute configuration, as published by a configuration snapshot.
+   *
+   * <p>The setters of the copy throw {@link UnsupportedOperationException}, and its collections are unmodifiable.
+   *
+   * @return the read-only copy, or this configuration if it is already read-only
+   */
+  public AttributeConfiguration readOnlyCopy() {
+    if (readOnly) {
+      return this;
+    }
+
+    AttributeConfiguration copy = new AttributeConfiguration();
+    copy.access = ReadOnlyValues.copyOf(access);
+    copy.name = name;
+    copy.type = type;
+    copy.nullIfEmpty = nullIfEmpty;
+    copy.validations = ReadOnlyValues.copyOf(validations, ValidationConfiguration::readOnlyCopy);
+    copy.required = required;
+    copy.input = input;
+    copy.inputSettings = ReadOnlyValues.copyOf(inputSettings);
+    copy.readOnly = true;
+    return copy;
+  }
 }
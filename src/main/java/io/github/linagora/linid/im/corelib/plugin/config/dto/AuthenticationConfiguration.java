@@ -27,8 +27,6 @@
 package io.github.linagora.linid.im.corelib.plugin.config.dto;
 
 import com.fasterxml.jackson.annotation.JsonAnySetter;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Represents the configuration of an authentication provider plugin.
@@ -40,16 +38,8 @@ import java.util.Map;
  * <p>The dynamic properties are collected into the {@code options} map using Jackson's
  * {@link JsonAnySetter} annotation.
  */
-public class AuthenticationConfiguration implements PluginConfiguration {
+public class AuthenticationConfiguration extends AbstractPluginConfiguration {
 
-  /**
-   * A map of arbitrary provider-specific configuration options.
-   *
-   * <p>This allows for plugin extensions without modifying the static structure of this class.
-   * These entries are populated at deserialization time via {@link #addOption(String, Object)}, except for the reserved
-   * {@code type} field.
-   */
-  private final Map<String, Object> options = new HashMap<>();
   /**
    * The type of the authentication provider plugin.
    *
@@ -63,22 +53,6 @@ public class AuthenticationConfiguration implements PluginConfiguration {
   public AuthenticationConfiguration() {
   }
 
-  /**
-   * Dynamically adds a plugin-specific configuration entry during deserialization.
-   *
-   * <p>This method ignores the reserved key {@code "type"}.
-   *
-   * @param key the name of the configuration option
-   * @param value the value of the configuration option
-   */
-  @Override
-  @JsonAnySetter
-  public void addOption(final String key, final Object value) {
-    if (!"type".equals(key)) {
-      this.options.put(key, value);
-    }
-  }
-
   /**
    * Returns the type of provider plugin this configuration targets.
    *
@@ -94,16 +68,30 @@ public class AuthenticationConfiguration implements PluginConfiguration {
    * @param type the provider type identifier to set
    */
   public void setType(final String type) {
+    checkWritable();
     this.type = type;
   }
 
+  @Override
+  protected boolean isReservedOption(final String key) {
+    return "type".equals(key);
+  }
+
   /**
-   * Returns the map of dynamically configured plugin-specific options.
+   * Returns a read-only deep copy of this authentication configuration, as published by a configuration snapshot.
    *
-   * @return the configuration options map
+   * <p>The setters of the copy throw {@link UnsupportedOperationException}, and its options, including nested maps
+   * and lists, are unmodifiable.
+   *
+   * @return the read-only copy, or this configuration if it is already read-only
    */
-  @Override
-  public Map<String, Object> getOptions() {
-    return options;
+  public AuthenticationConfiguration readOnlyCopy() {
+    if (isReadOnly()) {
+      return this;
+    }
+
+    AuthenticationConfiguration copy = new AuthenticationConfiguration();
+    copy.type = type;
+    return completeReadOnlyCopy(copy);
   }
 }
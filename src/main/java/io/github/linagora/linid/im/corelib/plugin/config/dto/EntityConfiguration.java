@@ -26,12 +26,16 @@
 
 package io.github.linagora.linid.im.corelib.plugin.config.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 
 /**
  * Configuration class representing an entity in the plugin system.
@@ -61,6 +65,14 @@ public class EntityConfiguration {
   @JsonProperty("attributes")
   private List<AttributeConfiguration> attributes;
 
+  /**
+   * Immutable index of the attribute configurations by attribute name.
+   *
+   * <p>Built once when the attribute list is set, so attribute lookups do not have to scan the list. The field is
+   * volatile so that an index built lazily by a request thread is safely published to the others.
+   */
+  private volatile Map<String, AttributeConfiguration> attributesByName;
+
   /**
    * The list of task configurations for this entity.
    */
@@ -81,6 +93,11 @@ public class EntityConfiguration {
    */
   private Map<String, Object> access = new HashMap<>();
 
+  /**
+   * Whether this configuration is a read-only copy, see {@link #readOnlyCopy()}.
+   */
+  private boolean readOnly;
+
   /**
    * Default constructor.
    */
@@ -102,6 +119,7 @@ public class EntityConfiguration {
    * @param name the entity name to set
    */
   public void setName(final String name) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.name = name;
   }
 
@@ -120,6 +138,7 @@ public class EntityConfiguration {
    * @param provider the provider name to set
    */
   public void setProvider(final String provider) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.provider = provider;
   }
 
@@ -138,25 +157,60 @@ public class EntityConfiguration {
    * @param route the route name to set
    */
   public void setRoute(final String route) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.route = route;
   }
 
   /**
    * Returns the list of attribute configurations.
    *
-   * @return the attribute configurations list, never null
+   * <p>The list is unmodifiable, so that it always matches {@link #getAttributesByName()}: use
+   * {@link #setAttributes(List)} to change the attributes.
+   *
+   * @return an unmodifiable list of the attribute configurations, never null
    */
   public List<AttributeConfiguration> getAttributes() {
-    return Optional.ofNullable(attributes).orElseGet(List::of);
+    return attributes == null ? List.of() : Collections.unmodifiableList(attributes);
   }
 
   /**
    * Sets the list of attribute configurations.
    *
-   * @param attributes the attribute configurations to set
+   * @param attributes the attribute configurations to set, copied by this configuration
    */
   public void setAttributes(final List<AttributeConfiguration> attributes) {
-    this.attributes = attributes;
+    ReadOnlyValues.checkWritable(readOnly);
+    this.attributes = attributes == null ? null : Collections.unmodifiableList(new ArrayList<>(attributes));
+    this.attributesByName = indexAttributes(this.attributes);
+  }
+
+  /**
+   * Returns an immutable index of the attribute configurations by attribute name.
+   *
+   * <p>When several attributes share the same name, the first declared one is kept.
+   *
+   * @return the attribute configurations indexed by name, never null
+   */
+  @JsonIgnore
+  public Map<String, AttributeConfiguration> getAttributesByName() {
+    Map<String, AttributeConfiguration> index = attributesByName;
+
+    if (index == null) {
+      index = indexAttributes(attributes);
+      attributesByName = index;
+    }
+    return index;
+  }
+
+  /**
+   * Retrieves the attribute configuration for a given attribute name.
+   *
+   * @param attributeName the name of the attribute to look for
+   * @return the matching {@link AttributeConfiguration}, or {@code null} if none matches
+   */
+  @JsonIgnore
+  public AttributeConfiguration getAttribute(final String attributeName) {
+    return getAttributesByName().get(attributeName);
   }
 
   /**
@@ -174,6 +228,7 @@ public class EntityConfiguration {
    * @param tasks the task configurations to set
    */
   public void setTasks(final List<TaskConfiguration> tasks) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.tasks = tasks;
   }
 
@@ -192,6 +247,7 @@ public class EntityConfiguration {
    * @param access the map of access configuration properties to set
    */
   public void setAccess(final Map<String, Object> access) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.access = access;
   }
 
@@ -210,6 +266,48 @@ public class EntityConfiguration {
    * @param disabledRoutes list of route names to disable
    */
   public void setDisabledRoutes(List<String> disabledRoutes) {
+    ReadOnlyValues.checkWritable(readOnly);
     this.disabledRoutes = disabledRoutes;
   }
+
+  /**
+   * Returns a read-only deep copy of this entity configuration, as published by a configuration snapshot.
+   *
+   * <p>The setters of the copy throw {@link UnsupportedOperationException}, and its collections are unmodifiable.
+   *
+   * @return the read-only copy, or this configuration if it is already read-only
+   */
+  public EntityConfiguration readOnlyCopy() {
+    if (readOnly) {
+      return this;
+    }
+
+    EntityConfiguration copy = new EntityConfiguration();
+    copy.name = name;
+    copy.provider = provider;
+    copy.route = route;
+    copy.attributes = ReadOnlyValues.copyOf(attributes, AttributeConfiguration::readOnlyCopy);
+    copy.attributesByName = indexAttributes(copy.attributes);
+    copy.tasks = ReadOnlyValues.copyOf(tasks, TaskConfiguration::readOnlyCopy);
+    copy.disabledRoutes = ReadOnlyValues.copyOf(disabledRoutes, UnaryOperator.identity());
+    copy.access = ReadOnlyValues.copyOf(access);
+    copy.readOnly = true;
+    return copy;
+  }
+
+  /**
+   * Builds an immutable name index of the given attribute configurations.
+   *
+   * @param attributes the attribute configurations to index, may be null
+   * @return the attribute configurations indexed by name
+   */
+  private static Map<String, AttributeConfiguration> indexAttributes(final List<AttributeConfiguration> attributes) {
+    if (attributes == null || attributes.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    Map<String, AttributeConfiguration> index = new LinkedHashMap<>();
+    attributes.forEach(attribute -> index.putIfAbsent(attribute.getName(), attribute));
+    return Collections.unmodifiableMap(index);
+  }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Threading model used to run entity lifecycles ({@code handle*} methods of
+ * {@link io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityService}).
+ *
+ * <p>Lifecycles are dominated by blocking I/O in provider and task plugins. In {@link #VIRTUAL} mode, each lifecycle
+ * runs on its own virtual thread, so that thousands of concurrent requests waiting on slow backends do not exhaust a
+ * platform thread pool. The corelib does not hold monitors ({@code synchronized}) around blocking calls and relies on
+ * {@link java.util.concurrent.locks.ReentrantLock} instead, so its shared structures do not pin carrier threads.
+ * Plugins should follow the same rule.
+ *
+ * <p>The mode is selected with the {@code executionMode} property of the root configuration.
+ */
+public enum LifecycleExecutionMode {
+
+  /**
+   * Lifecycles run on the calling platform thread, usually a servlet container thread, which stays busy until the
+   * lifecycle completes, even through the asynchronous {@code handle*Async} methods.
+   */
+  PLATFORM {
+    @Override
+    public Executor executor() {
+      return Runnable::run;
+    }
+  },
+
+  /**
+   * Lifecycles run on a new virtual thread each.
+   */
+  VIRTUAL {
+    @Override
+    public Executor executor() {
+      return command -> VirtualThreads.FACTORY.newThread(command).start();
+    }
+  };
+
+  /**
+   * Returns the executor running lifecycles in this mode.
+   *
+   * @return the lifecycle executor
+   */
+  public abstract Executor executor();
+
+  /**
+   * Runs a lifecycle in this mode.
+   *
+   * @param lifecycle the lifecycle to run
+   * @param <T> the type of the lifecycle result
+   * @return a future completed with the lifecycle result, already completed in {@link #PLATFORM} mode
+   */
+  public <T> CompletableFuture<T> supply(final Supplier<T> lifecycle) {
+    return CompletableFuture.supplyAsync(lifecycle, executor());
+  }
+
+  /**
+   * Resolves a mode from its case-insensitive name.
+   *
+   * @param value the mode name, {@code null} for the default mode
+   * @return the matching mode, {@link #PLATFORM} if the value is {@code null}
+   * @throws IllegalArgumentException if the value matches no mode
+   */
+  @JsonCreator
+  public static LifecycleExecutionMode from(final String value) {
+    return value == null ? PLATFORM : valueOf(value.trim().toUpperCase(Locale.ROOT));
+  }
+
+  /**
+   * Holder of the virtual thread factory, created on first use of the {@link #VIRTUAL} mode.
+   */
+  private static final class VirtualThreads {
+
+    /**
+     * Factory of the named virtual threads running lifecycles.
+     */
+    private static final ThreadFactory FACTORY = Thread.ofVirtual().name("linid-lifecycle-", 0).factory();
+  }
+}
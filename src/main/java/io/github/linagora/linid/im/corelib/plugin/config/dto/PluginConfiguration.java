@@ -28,9 +28,7 @@ package io.github.linagora.linid.im.corelib.plugin.config.dto;
 
 import java.util.Map;
 import java.util.Optional;
-import tools.jackson.core.JacksonException;
 import tools.jackson.core.type.TypeReference;
-import tools.jackson.databind.ObjectMapper;
 
 /**
  * Represents a configuration holder for a plugin.
@@ -101,24 +99,15 @@ public interface PluginConfiguration {
   /**
    * Retrieves an option by key and attempts to deserialize it using a {@link TypeReference}.
    *
+   * <p>The conversion relies on a shared, thread-safe mapper. Implementations may memoize converted values, as
+   * {@link AbstractPluginConfiguration} does, in which case collections are returned unmodifiable.
+   *
    * @param key the name of the option
    * @param typeRef the Jackson type reference
    * @param <T> the expected type
    * @return an {@link Optional} containing the value cast/deserialized to the given type
    */
   default <T> Optional<T> getOption(String key, TypeReference<T> typeRef) {
-    Object value = this.getOptions().get(key);
-
-    if (value == null) {
-      return Optional.empty();
-    }
-
-    ObjectMapper mapper = new ObjectMapper();
-    try {
-      T converted = mapper.convertValue(value, typeRef);
-      return Optional.ofNullable(converted);
-    } catch (IllegalArgumentException | JacksonException e) {
-      return Optional.empty();
-    }
+    return PluginOptionConverter.convert(this.getOptions().get(key), typeRef);
   }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config.dto;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import tools.jackson.core.type.TypeReference;
+
+/**
+ * Memoizes typed option values converted by {@link PluginOptionConverter} for a single plugin configuration.
+ *
+ * <p>Entries are keyed by option name and target type. Each entry keeps a deep copy of the raw value it was converted
+ * from, and is only reused while the option is still equal to it, so replacing an option or changing it in place
+ * transparently triggers a new conversion.
+ *
+ * <p>Memoized values are shared between callers: collections are returned as unmodifiable copies, and conversions to
+ * types that cannot be made unmodifiable, such as arrays or {@code ArrayList}, are not memoized. Other objects
+ * returned by a conversion are shared as is and must be treated as read-only.
+ */
+final class PluginOptionCache {
+
+  /**
+   * Converted option values indexed by option name and target type.
+   */
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Default constructor.
+   */
+  PluginOptionCache() {
+  }
+
+  /**
+   * Returns the option identified by {@code key} converted to the given type, reusing a previous conversion when the
+   * raw value has not changed.
+   *
+   * <p>Collections in the result are unmodifiable, unless the type cannot be memoized.
+   *
+   * @param options the raw options of the plugin configuration
+   * @param key the name of the option
+   * @param typeRef the Jackson type reference
+   * @param <T> the expected type
+   * @return an {@link Optional} containing the converted value, or empty if the option is absent or cannot be converted
+   */
+  @SuppressWarnings("unchecked")
+  <T> Optional<T> get(final Map<String, Object> options, final String key, final TypeReference<T> typeRef) {
+    Object value = options.get(key);
+
+    if (value == null) {
+      return Optional.empty();
+    }
+
+    Key cacheKey = new Key(key, typeRef.getType());
+    Entry entry = entries.get(cacheKey);
+
+    if (entry != null && entry.source().equals(value)) {
+      return (Optional<T>) entry.converted();
+    }
+
+    Optional<T> converted = PluginOptionConverter.convert(value, typeRef);
+
+    if (!PluginOptionConverter.isShareable(typeRef)) {
+      return converted;
+    }
+
+    Optional<T> shared = converted.map(result -> (T) ReadOnlyValues.copyOf(result));
+    entries.put(cacheKey, new Entry(ReadOnlyValues.copyOf(value), shared));
+    return shared;
+  }
+
+  /**
+   * Identifies a memoized conversion.
+   *
+   * @param option the name of the option
+   * @param type the target type of the conversion
+   */
+  private record Key(String option, Type type) {
+  }
+
+  /**
+   * A memoized conversion.
+   *
+   * @param source a deep copy of the raw value the conversion was computed from
+   * @param converted the result of the conversion
+   */
+  private record Entry(Object source, Optional<?> converted) {
+  }
+}
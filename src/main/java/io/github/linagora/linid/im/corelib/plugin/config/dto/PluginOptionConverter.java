@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config.dto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Shared conversion service used to turn raw plugin options into typed values.
+ *
+ * <p>A single {@link ObjectMapper} is shared by all plugin configurations. Mappers are immutable and thread-safe once
+ * built, so reusing the same instance avoids rebuilding the mapper and its type caches on every option lookup.
+ */
+final class PluginOptionConverter {
+
+  /**
+   * Mapper shared by all option conversions.
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /**
+   * Collection types whose converted values can be replaced by the unmodifiable copies of {@link ReadOnlyValues}.
+   */
+  private static final Set<Class<?>> SHAREABLE_CONTAINERS = Set.of(Collection.class, List.class, Set.class, Map.class);
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private PluginOptionConverter() {
+  }
+
+  /**
+   * Converts a raw option value to the type described by the given {@link TypeReference}.
+   *
+   * @param value the raw option value, may be null
+   * @param typeRef the Jackson type reference
+   * @param <T> the expected type
+   * @return an {@link Optional} containing the converted value, or empty if the value is null or cannot be converted
+   */
+  static <T> Optional<T> convert(final Object value, final TypeReference<T> typeRef) {
+    if (value == null) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.ofNullable(MAPPER.convertValue(value, typeRef));
+    } catch (IllegalArgumentException | JacksonException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Indicates whether values converted to the given type can be shared between callers once made unmodifiable with
+   * {@link ReadOnlyValues#copyOf(Object)}.
+   *
+   * <p>This is the case when every collection level of the type is declared as one of the {@code Collection},
+   * {@code List}, {@code Set} or {@code Map} interfaces. Arrays, and concrete collection classes such as
+   * {@code ArrayList}, can be neither made unmodifiable nor replaced by an unmodifiable view.
+   *
+   * @param typeRef the Jackson type reference
+   * @return {@code true} if converted values can be memoized and shared
+   */
+  static boolean isShareable(final TypeReference<?> typeRef) {
+    return isShareable(MAPPER.getTypeFactory().constructType(typeRef));
+  }
+
+  /**
+   * Indicates whether values of the given type can be shared once made unmodifiable.
+   *
+   * @param type the resolved type
+   * @return {@code true} if converted values can be memoized and shared
+   */
+  private static boolean isShareable(final JavaType type) {
+    if (type.isArrayType()) {
+      return false;
+    }
+    if (!type.isContainerType()) {
+      return true;
+    }
+    return SHAREABLE_CONTAINERS.contains(type.getRawClass()) && isShareable(type.getContentType());
+  }
+}
@@ -27,8 +27,6 @@
 package io.github.linagora.linid.im.corelib.plugin.config.dto;
 
 import com.fasterxml.jackson.annotation.JsonAnySetter;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Represents a configuration instance of a provider plugin.
@@ -49,14 +47,7 @@ import java.util.Map;
  * explicitly declared as fields. These properties can be added dynamically via JSON deserialization
  * using the {@link JsonAnySetter} annotated method {@link #addOption(String, Object)}.
  */
-public class ProviderConfiguration implements PluginConfiguration {
-
-  /**
-   * A map holding additional provider-specific configuration options that are not explicitly
-   * declared as fields. Populated dynamically during JSON deserialization via {@link
-   * #addOption(String, Object)}.
-   */
-  private final Map<String, Object> options = new HashMap<>();
+public class ProviderConfiguration extends AbstractPluginConfiguration {
 
   /**
    * The name identifier of this provider configuration instance. This allows multiple
@@ -73,14 +64,6 @@ public class ProviderConfiguration implements PluginConfiguration {
   /** Default constructor. */
   public ProviderConfiguration() {}
 
-  @Override
-  @JsonAnySetter
-  public void addOption(final String key, final Object value) {
-    if (!"name".equals(key) &&  !"type".equals(key)) {
-      this.options.put(key, value);
-    }
-  }
-
   /**
    * Returns the name of this provider configuration instance.
    *
@@ -96,6 +79,7 @@ public class ProviderConfiguration implements PluginConfiguration {
    * @param name the name to set
    */
   public void setName(final String name) {
+    checkWritable();
     this.name = name;
   }
 
@@ -114,16 +98,31 @@ public class ProviderConfiguration implements PluginConfiguration {
    * @param type the provider type identifier to set
    */
   public void setType(final String type) {
+    checkWritable();
     this.type = type;
   }
 
+  @Override
+  protected boolean isReservedOption(final String key) {
+    return "name".equals(key) || "type".equals(key);
+  }
+
   /**
-   * Returns the map of additional provider-specific options.
+   * Returns a read-only deep copy of this provider configuration, as published by a configuration snapshot.
+   *
+   * <p>The setters of the copy throw {@link UnsupportedOperationException}, and its options, including nested maps
+   * and lists, are unmodifiable.
    *
-   * @return the options map
+   * @return the read-only copy, or this configuration if it is already read-only
    */
-  @Override
-  public Map<String, Object> getOptions() {
-    return options;
+  public ProviderConfiguration readOnlyCopy() {
+    if (isReadOnly()) {
+      return this;
+    }
+
+    ProviderConfiguration copy = new ProviderConfiguration();
+    copy.name = name;
+    copy.type = type;
+    return completeReadOnlyCopy(copy);
   }
 }
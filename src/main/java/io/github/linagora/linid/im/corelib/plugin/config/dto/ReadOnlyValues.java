@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config.dto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Builds the deeply unmodifiable copies of configuration values held by read-only configurations.
+ *
+ * <p>Maps, lists and sets are copied recursively into unmodifiable collections, keeping their iteration order and
+ * {@code null} values; other values, such as strings, numbers and booleans, are immutable and kept as is.
+ */
+final class ReadOnlyValues {
+
+  /**
+   * Utility class.
+   */
+  private ReadOnlyValues() {
+  }
+
+  /**
+   * Throws if a configuration is read-only.
+   *
+   * @param readOnly whether the configuration is read-only
+   * @throws UnsupportedOperationException if the configuration is read-only
+   */
+  static void checkWritable(final boolean readOnly) {
+    if (readOnly) {
+      throw new UnsupportedOperationException("Published configurations are read-only");
+    }
+  }
+
+  /**
+   * Returns an unmodifiable deep copy of the given map.
+   *
+   * @param map the map to copy, may be {@code null}
+   * @return the unmodifiable copy, or {@code null} if the map is {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  static Map<String, Object> copyOf(final Map<String, Object> map) {
+    return (Map<String, Object>) copyOf((Object) map);
+  }
+
+  /**
+   * Returns an unmodifiable copy of the given list, copying each element with the given function.
+   *
+   * @param list the list to copy, may be {@code null}
+   * @param copier the function copying an element
+   * @param <T> the type of the elements
+   * @return the unmodifiable copy, or {@code null} if the list is {@code null}
+   */
+  static <T> List<T> copyOf(final List<T> list, final UnaryOperator<T> copier) {
+    if (list == null) {
+      return null;
+    }
+
+    List<T> copy = new ArrayList<>(list.size());
+    list.forEach(element -> copy.add(element == null ? null : copier.apply(element)));
+    return Collections.unmodifiableList(copy);
+  }
+
+  /**
+   * Returns an unmodifiable deep copy of the given value.
+   *
+   * @param value the value to copy, may be {@code null}
+   * @return the copy of maps, lists and sets, the value itself otherwise
+   */
+  static Object copyOf(final Object value) {
+    if (value instanceof Map<?, ?> map) {
+      Map<Object, Object> copy = new LinkedHashMap<>();
+      map.forEach((key, element) -> copy.put(key, copyOf(element)));
+      return Collections.unmodifiableMap(copy);
+    }
+    if (value instanceof Set<?> set) {
+      Set<Object> copy = new LinkedHashSet<>();
+      set.forEach(element -> copy.add(copyOf(element)));
+      return Collections.unmodifiableSet(copy);
+    }
+    if (value instanceof Collection<?> collection) {
+      List<Object> copy = new ArrayList<>(collection.size());
+      collection.forEach(element -> copy.add(copyOf(element)));
+      return Collections.unmodifiableList(copy);
+    }
+    return value;
+  }
+}
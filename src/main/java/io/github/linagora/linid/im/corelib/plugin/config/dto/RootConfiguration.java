@@ -74,6 +74,12 @@ public class RootConfiguration {
   @JsonProperty("authentication")
   private AuthenticationConfiguration authentication;
 
+  /**
+   * Threading model used to run entity lifecycles.
+   */
+  @JsonProperty("executionMode")
+  private LifecycleExecutionMode executionMode;
+
   /**
    * Default constructor.
    */
@@ -191,4 +197,22 @@ public class RootConfiguration {
   public void setAuthentication(AuthenticationConfiguration authentication) {
     this.authentication = authentication;
   }
+
+  /**
+   * Returns the threading model used to run entity lifecycles.
+   *
+   * @return the execution mode, {@link LifecycleExecutionMode#PLATFORM} if not configured
+   */
+  public LifecycleExecutionMode getExecutionMode() {
+    return Optional.ofNullable(executionMode).orElse(LifecycleExecutionMode.PLATFORM);
+  }
+
+  /**
+   * Sets the threading model used to run entity lifecycles.
+   *
+   * @param executionMode the execution mode to set
+   */
+  public void setExecutionMode(final LifecycleExecutionMode executionMode) {
+    this.executionMode = executionMode;
+  }
 }
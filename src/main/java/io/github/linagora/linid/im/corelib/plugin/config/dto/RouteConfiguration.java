@@ -26,9 +26,6 @@
 
 package io.github.linagora.linid.im.corelib.plugin.config.dto;
 
-import com.fasterxml.jackson.annotation.JsonAnySetter;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Represents the configuration of a route, identified by a {@code type} and supporting additional
@@ -44,13 +41,7 @@ import java.util.Map;
  * <p>The {@link #addOption(String, Object)} method is used to populate this map during JSON
  * deserialization, ignoring reserved keywords such as {@code "type"}.
  */
-public class RouteConfiguration implements PluginConfiguration {
-
-  /**
-   * A map of additional configuration options specific to the route. Populated dynamically via
-   * {@link JsonAnySetter} during deserialization.
-   */
-  private final Map<String, Object> options = new HashMap<>();
+public class RouteConfiguration extends AbstractPluginConfiguration {
 
   /**
    * The plugin type discriminator for the route. Used to match this configuration with the
@@ -61,14 +52,6 @@ public class RouteConfiguration implements PluginConfiguration {
   /** Default constructor. */
   public RouteConfiguration() {}
 
-  @Override
-  @JsonAnySetter
-  public void addOption(final String key, final Object value) {
-    if (!"type".equals(key)) {
-      this.options.put(key, value);
-    }
-  }
-
   /**
    * Returns the plugin type discriminator for the route.
    *
@@ -84,16 +67,30 @@ public class RouteConfiguration implements PluginConfiguration {
    * @param type the route type to set
    */
   public void setType(final String type) {
+    checkWritable();
     this.type = type;
   }
 
+  @Override
+  protected boolean isReservedOption(final String key) {
+    return "type".equals(key);
+  }
+
   /**
-   * Returns the map of additional options for the route.
+   * Returns a read-only deep copy of this route configuration, as published by a configuration snapshot.
+   *
+   * <p>The setters of the copy throw {@link UnsupportedOperationException}, and its options, including nested maps
+   * and lists, are unmodifiable.
    *
-   * @return a map containing all additional configuration options
+   * @return the read-only copy, or this configuration if it is already read-only
    */
-  @Override
-  public Map<String, Object> getOptions() {
-    return options;
+  public RouteConfiguration readOnlyCopy() {
+    if (isReadOnly()) {
+      return this;
+    }
+
+    RouteConfiguration copy = new RouteConfiguration();
+    copy.type = type;
+    return completeReadOnlyCopy(copy);
   }
 }
@@ -29,9 +29,8 @@ package io.github.linagora.linid.im.corelib.plugin.config.dto;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents the configuration of a task within the plugin system.
@@ -41,13 +40,7 @@ import java.util.Map;
  * the {@code options} map using JSON deserialization with {@link JsonAnySetter}. Reserved keys such
  * as "name" and "phases" are excluded from the {@code options} map.
  */
-public class TaskConfiguration implements PluginConfiguration {
-
-  /**
-   * Map holding additional task-specific configuration options not explicitly defined as fields.
-   * This is populated dynamically during JSON deserialization via {@link JsonAnySetter}.
-   */
-  private final Map<String, Object> options = new HashMap<>();
+public class TaskConfiguration extends AbstractPluginConfiguration {
 
   /**
    * The name identifier of this task configuration instance. This allows multiple configurations of
@@ -67,14 +60,6 @@ public class TaskConfiguration implements PluginConfiguration {
   /** Default constructor. */
   public TaskConfiguration() {}
 
-  @Override
-  @JsonAnySetter
-  public void addOption(final String key, final Object value) {
-    if (!"name".equals(key) && !"type".equals(key) && !"phases".equals(key)) {
-      this.options.put(key, value);
-    }
-  }
-
   /**
    * Returns the list of phases in which this task is executed.
    *
@@ -92,6 +77,7 @@ public class TaskConfiguration implements PluginConfiguration {
    */
   @JsonProperty("phases")
   public void setPhases(final List<String> phases) {
+    checkWritable();
     this.phases = phases;
   }
 
@@ -110,6 +96,7 @@ public class TaskConfiguration implements PluginConfiguration {
    * @param name the name to set
    */
   public void setName(final String name) {
+    checkWritable();
     this.name = name;
   }
 
@@ -128,16 +115,32 @@ public class TaskConfiguration implements PluginConfiguration {
    * @param type the task type identifier to set
    */
   public void setType(final String type) {
+    checkWritable();
     this.type = type;
   }
 
+  @Override
+  protected boolean isReservedOption(final String key) {
+    return "name".equals(key) || "type".equals(key) || "phases".equals(key);
+  }
+
   /**
-   * Returns the map of additional configuration options for this task.
+   * Returns a read-only deep copy of this task configuration, as published by a configuration snapshot.
+   *
+   * <p>The setters of the copy throw {@link UnsupportedOperationException}, and its options, including nested maps
+   * and lists, are unmodifiable.
    *
-   * @return the options map
+   * @return the read-only copy, or this configuration if it is already read-only
    */
-  @Override
-  public Map<String, Object> getOptions() {
-    return options;
+  public TaskConfiguration readOnlyCopy() {
+    if (isReadOnly()) {
+      return this;
+    }
+
+    TaskConfiguration copy = new TaskConfiguration();
+    copy.name = name;
+    copy.type = type;
+    copy.phases = ReadOnlyValues.copyOf(phases, UnaryOperator.identity());
+    return completeReadOnlyCopy(copy);
   }
 }
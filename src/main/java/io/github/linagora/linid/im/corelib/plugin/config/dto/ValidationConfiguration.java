@@ -26,12 +26,10 @@
 
 package io.github.linagora.linid.im.corelib.plugin.config.dto;
 
-import com.fasterxml.jackson.annotation.JsonAnySetter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.function.UnaryOperator;
 
 /**
  * Represents the configuration of a validation step associated with an attribute.
@@ -40,13 +38,7 @@ import java.util.Map;
  * and an {@code options} map for additional, arbitrary configuration parameters. Fields not
  * explicitly declared are added to the {@code options} map during JSON deserialization.
  */
-public class ValidationConfiguration implements PluginConfiguration {
-
-  /**
-   * Map holding additional arbitrary properties that are not mapped to predefined fields. Populated
-   * via {@link JsonAnySetter} during JSON deserialization.
-   */
-  private final Map<String, Object> options = new HashMap<>();
+public class ValidationConfiguration extends AbstractPluginConfiguration {
 
   /**
    * The name identifier of this validation configuration instance. This allows multiple
@@ -78,6 +70,7 @@ public class ValidationConfiguration implements PluginConfiguration {
    * @param name the name to set
    */
   public void setName(final String name) {
+    checkWritable();
     this.name = name;
   }
 
@@ -96,6 +89,7 @@ public class ValidationConfiguration implements PluginConfiguration {
    * @param type the validation type
    */
   public void setType(final String type) {
+    checkWritable();
     this.type = type;
   }
 
@@ -116,24 +110,32 @@ public class ValidationConfiguration implements PluginConfiguration {
    */
   @JsonProperty("phases")
   public void setPhases(final List<String> phases) {
+    checkWritable();
     this.phases = phases;
   }
 
   @Override
-  @JsonAnySetter
-  public void addOption(final String key, final Object value) {
-    if (!"name".equals(key) && !"type".equals(key) && !"phases".equals(key)) {
-      this.options.put(key, value);
-    }
+  protected boolean isReservedOption(final String key) {
+    return "name".equals(key) || "type".equals(key) || "phases".equals(key);
   }
 
   /**
-   * Returns the map of additional, arbitrary validation options.
+   * Returns a read-only deep copy of this validation configuration, as published by a configuration snapshot.
    *
-   * @return the options map
+   * <p>The setters of the copy throw {@link UnsupportedOperationException}, and its options, including nested maps
+   * and lists, are unmodifiable.
+   *
+   * @return the read-only copy, or this configuration if it is already read-only
    */
-  @Override
-  public Map<String, Object> getOptions() {
-    return options;
+  public ValidationConfiguration readOnlyCopy() {
+    if (isReadOnly()) {
+      return this;
+    }
+
+    ValidationConfiguration copy = new ValidationConfiguration();
+    copy.name = name;
+    copy.type = type;
+    copy.phases = ReadOnlyValues.copyOf(phases, UnaryOperator.identity());
+    return completeReadOnlyCopy(copy);
   }
 }
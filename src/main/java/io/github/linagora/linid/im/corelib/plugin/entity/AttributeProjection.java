@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.entity;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Set of attribute names a caller wants to retrieve for a dynamic entity.
+ *
+ * <p>Projections let providers skip fetching large attributes that are not displayed (e.g., {@code jpegPhoto} or
+ * {@code memberOf} on list screens), and let mappers emit only the requested attributes. An empty projection means
+ * that every attribute is requested.
+ *
+ * @param names the requested attribute names, empty to request every attribute
+ */
+public record AttributeProjection(Set<String> names) {
+
+  /**
+   * Name of the query parameter holding the projection.
+   */
+  public static final String PARAMETER = "attributes";
+
+  /**
+   * Projection requesting every attribute.
+   */
+  private static final AttributeProjection ALL = new AttributeProjection(Set.of());
+
+  /**
+   * Creates a projection, copying the given names into an unmodifiable set preserving their order.
+   *
+   * @param names the requested attribute names, null or empty to request every attribute
+   */
+  public AttributeProjection {
+    names = Optional.ofNullable(names)
+        .<Set<String>>map(values -> Collections.unmodifiableSet(new LinkedHashSet<>(values)))
+        .orElseGet(Set::of);
+  }
+
+  /**
+   * Returns the projection requesting every attribute.
+   *
+   * @return the projection requesting every attribute
+   */
+  public static AttributeProjection all() {
+    return ALL;
+  }
+
+  /**
+   * Creates a projection requesting the given attributes.
+   *
+   * @param names the requested attribute names
+   * @return the projection, requesting every attribute if no name is given
+   */
+  public static AttributeProjection of(final Collection<String> names) {
+    return names == null || names.isEmpty() ? ALL : new AttributeProjection(new LinkedHashSet<>(names));
+  }
+
+  /**
+   * Creates a projection from the {@value #PARAMETER} query parameter.
+   *
+   * <p>The parameter can hold comma-separated names ({@code attributes=uid,mail}) or be repeated
+   * ({@code attributes=uid&attributes=mail}). Blank names are ignored.
+   *
+   * @param parameters the query parameters of the request
+   * @return the projection, requesting every attribute if the parameter is absent or empty
+   */
+  public static AttributeProjection parse(final MultiValueMap<String, String> parameters) {
+    List<String> values = parameters == null ? null : parameters.get(PARAMETER);
+
+    if (values == null) {
+      return ALL;
+    }
+
+    Set<String> names = new LinkedHashSet<>();
+    values.stream()
+        .filter(Objects::nonNull)
+        .flatMap(value -> Arrays.stream(value.split(",")))
+        .map(String::trim)
+        .filter(name -> !name.isEmpty())
+        .forEach(names::add);
+
+    return names.isEmpty() ? ALL : new AttributeProjection(names);
+  }
+
+  /**
+   * Indicates whether this projection requests every attribute.
+   *
+   * @return {@code true} if no attribute restriction applies
+   */
+  public boolean isAll() {
+    return names.isEmpty();
+  }
+
+  /**
+   * Indicates whether the given attribute is requested.
+   *
+   * @param name the attribute name
+   * @return {@code true} if the attribute is part of the projection
+   */
+  public boolean includes(final String name) {
+    return isAll() || names.contains(name);
+  }
+
+  /**
+   * Returns the configurations of the requested attributes, in the order they are declared in the entity.
+   *
+   * <p>Providers can use it to build the list of backend attributes to fetch. Requested names that are not declared
+   * in the entity are ignored.
+   *
+   * @param configuration the entity configuration
+   * @return the configurations of the requested attributes
+   */
+  public List<AttributeConfiguration> select(final EntityConfiguration configuration) {
+    return configuration.getAttributes().stream()
+        .filter(attribute -> includes(attribute.getName()))
+        .toList();
+  }
+
+  /**
+   * Returns a copy of the given entity holding only the requested attributes.
+   *
+   * @param entity the entity to project, may be null
+   * @return the projected entity, or the given entity itself if it is null, has no attributes, or every attribute is
+   *     requested
+   */
+  public DynamicEntity apply(final DynamicEntity entity) {
+    if (isAll() || entity == null || entity.getAttributes() == null) {
+      return entity;
+    }
+
+    Map<String, Object> attributes = new LinkedHashMap<>();
+    entity.getAttributes().forEach((name, value) -> {
+      if (names.contains(name)) {
+        attributes.put(name, value);
+      }
+    });
+
+    DynamicEntity projected = new DynamicEntity();
+    projected.setConfiguration(entity.getConfiguration());
+    projected.setAttributes(attributes);
+    return projected;
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.entity;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+/**
+ * Snapshot of an {@link HttpServletRequest} that can be read after the servlet thread released the request.
+ *
+ * <p>Servlet containers recycle request objects once the servlet thread returns, so a lifecycle running on another
+ * thread must not read the original request. This snapshot copies, when it is created, the members lifecycles rely on:
+ * method, request URI, query string, headers, parameters, attributes, locale, principal, remote user and
+ * authentication type. Other members are delegated to the original request and must only be used while it is still
+ * active. Attributes set on the snapshot are not propagated to the original request.
+ */
+public final class DetachedHttpServletRequest extends HttpServletRequestWrapper {
+
+  /**
+   * The HTTP method.
+   */
+  private final String method;
+
+  /**
+   * The request URI.
+   */
+  private final String requestUri;
+
+  /**
+   * The query string, {@code null} if absent.
+   */
+  private final String queryString;
+
+  /**
+   * The header values by case-insensitive name.
+   */
+  private final Map<String, List<String>> headers;
+
+  /**
+   * The parameter values by name.
+   */
+  private final Map<String, String[]> parameters;
+
+  /**
+   * The request attributes.
+   */
+  private final Map<String, Object> attributes;
+
+  /**
+   * The preferred locale of the client.
+   */
+  private final Locale locale;
+
+  /**
+   * The authenticated user, {@code null} if not authenticated.
+   */
+  private final Principal principal;
+
+  /**
+   * The login of the authenticated user, {@code null} if not authenticated.
+   */
+  private final String remoteUser;
+
+  /**
+   * The authentication scheme, {@code null} if not authenticated.
+   */
+  private final String authType;
+
+  /**
+   * Copies the members of a request.
+   *
+   * @param request the request to copy
+   */
+  private DetachedHttpServletRequest(final HttpServletRequest request) {
+    super(request);
+    this.method = request.getMethod();
+    this.requestUri = request.getRequestURI();
+    this.queryString = request.getQueryString();
+    this.headers = new LinkedCaseInsensitiveMap<>(Locale.ROOT);
+    this.parameters = new LinkedHashMap<>();
+    this.attributes = new ConcurrentHashMap<>();
+    this.locale = request.getLocale();
+    this.principal = request.getUserPrincipal();
+    this.remoteUser = request.getRemoteUser();
+    this.authType = request.getAuthType();
+
+    Collections.list(orEmpty(request.getHeaderNames()))
+        .forEach(name -> headers.put(name, Collections.list(orEmpty(request.getHeaders(name)))));
+    Map<String, String[]> parameterMap = request.getParameterMap();
+    if (parameterMap != null) {
+      parameterMap.forEach((name, values) -> parameters.put(name, values.clone()));
+    }
+    Collections.list(orEmpty(request.getAttributeNames())).forEach(name -> {
+      Object value = request.getAttribute(name);
+      if (value != null) {
+        attributes.put(name, value);
+      }
+    });
+  }
+
+  /**
+   * Creates a snapshot of a request.
+   *
+   * @param request the request to copy, may be {@code null}
+   * @return the snapshot, the request itself if it is already a snapshot, or {@code null} if it is {@code null}
+   */
+  public static HttpServletRequest of(final HttpServletRequest request) {
+    if (request == null || request instanceof DetachedHttpServletRequest) {
+      return request;
+    }
+    return new DetachedHttpServletRequest(request);
+  }
+
+  @Override
+  public String getMethod() {
+    return method;
+  }
+
+  @Override
+  public String getRequestURI() {
+    return requestUri;
+  }
+
+  @Override
+  public String getQueryString() {
+    return queryString;
+  }
+
+  @Override
+  public String getHeader(final String name) {
+    List<String> values = headers.get(name);
+    return values == null || values.isEmpty() ? null : values.getFirst();
+  }
+
+  @Override
+  public Enumeration<String> getHeaders(final String name) {
+    return Collections.enumeration(headers.getOrDefault(name, List.of()));
+  }
+
+  @Override
+  public Enumeration<String> getHeaderNames() {
+    return Collections.enumeration(new ArrayList<>(headers.keySet()));
+  }
+
+  @Override
+  public int getIntHeader(final String name) {
+    String value = getHeader(name);
+    return value == null ? -1 : Integer.parseInt(value);
+  }
+
+  @Override
+  public String getParameter(final String name) {
+    String[] values = parameters.get(name);
+    return values == null || values.length == 0 ? null : values[0];
+  }
+
+  @Override
+  public Map<String, String[]> getParameterMap() {
+    return Collections.unmodifiableMap(parameters);
+  }
+
+  @Override
+  public Enumeration<String> getParameterNames() {
+    return Collections.enumeration(new ArrayList<>(parameters.keySet()));
+  }
+
+  @Override
+  public String[] getParameterValues(final String name) {
+    String[] values = parameters.get(name);
+    return values == null ? null : values.clone();
+  }
+
+  @Override
+  public Object getAttribute(final String name) {
+    return attributes.get(name);
+  }
+
+  @Override
+  public Enumeration<String> getAttributeNames() {
+    return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+  }
+
+  @Override
+  public void setAttribute(final String name, final Object value) {
+    if (value == null) {
+      attributes.remove(name);
+    } else {
+      attributes.put(name, value);
+    }
+  }
+
+  @Override
+  public void removeAttribute(final String name) {
+    attributes.remove(name);
+  }
+
+  @Override
+  public Locale getLocale() {
+    return locale;
+  }
+
+  @Override
+  public Principal getUserPrincipal() {
+    return principal;
+  }
+
+  @Override
+  public String getRemoteUser() {
+    return remoteUser;
+  }
+
+  @Override
+  public String getAuthType() {
+    return authType;
+  }
+
+  /**
+   * Returns the given enumeration, or an empty one if it is {@code null}.
+   *
+   * @param enumeration the enumeration, may be {@code null}
+   * @param <T> the type of the elements
+   * @return the enumeration, never {@code null}
+   */
+  private static <T> Enumeration<T> orEmpty(final Enumeration<T> enumeration) {
+    return enumeration == null ? Collections.emptyEnumeration() : enumeration;
+  }
+}
@@ -28,8 +28,14 @@ package io.github.linagora.linid.im.corelib.plugin.entity;
 
 import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Represents a dynamic entity with its attributes and associated configuration.
@@ -90,13 +96,72 @@ public class DynamicEntity {
   /**
    * Retrieves the attribute configuration for a given attribute name, if present.
    *
+   * <p>The lookup uses the name index of the {@link EntityConfiguration} and runs in constant time.
+   *
    * @param attributeName the name of the attribute to look for
    * @return an {@link Optional} containing the matching {@link AttributeConfiguration}, or empty if
    *     none matches
    */
   public Optional<AttributeConfiguration> getAttributeConfiguration(final String attributeName) {
-    return this.getConfiguration().getAttributes().stream()
-        .filter(config -> config.getName().equals(attributeName))
-        .findAny();
+    return Optional.ofNullable(this.getConfiguration().getAttribute(attributeName));
+  }
+
+  /**
+   * Creates a copy of this entity that can be modified without affecting it.
+   *
+   * <p>The attributes map is copied deeply: nested maps, lists and sets are copied as well, while other values, which
+   * are expected to be immutable, are shared. The configuration is shared.
+   *
+   * @return the copy of this entity
+   */
+  public DynamicEntity copy() {
+    DynamicEntity copy = new DynamicEntity();
+    copy.setConfiguration(configuration);
+    copy.setAttributes(attributes == null ? null : copyMap(attributes));
+    return copy;
+  }
+
+  /**
+   * Copies a map along with its nested containers.
+   *
+   * @param map the map to copy
+   * @param <K> the type of the keys
+   * @return the copied map, preserving iteration order
+   */
+  private static <K> Map<K, Object> copyMap(final Map<K, ?> map) {
+    Map<K, Object> copy = new LinkedHashMap<>();
+    map.forEach((key, value) -> copy.put(key, copyValue(value)));
+    return copy;
+  }
+
+  /**
+   * Copies an attribute value if it is a container.
+   *
+   * @param value the value to copy
+   * @return a copy of the value if it is a map, a list or a set, the value itself otherwise
+   */
+  private static Object copyValue(final Object value) {
+    if (value instanceof Map<?, ?> map) {
+      return copyMap(map);
+    }
+    if (value instanceof Set<?> set) {
+      return copyCollection(set, new LinkedHashSet<>());
+    }
+    if (value instanceof List<?> list) {
+      return copyCollection(list, new ArrayList<>(list.size()));
+    }
+    return value;
+  }
+
+  /**
+   * Copies the elements of a collection, along with their nested containers, into a target collection.
+   *
+   * @param source the collection to copy
+   * @param target the collection receiving the copies
+   * @return the target collection
+   */
+  private static Collection<Object> copyCollection(final Collection<?> source, final Collection<Object> target) {
+    source.forEach(element -> target.add(copyValue(element)));
+    return target;
   }
 }
@@ -29,7 +29,6 @@ package io.github.linagora.linid.im.corelib.plugin.entity;
 import java.util.Map;
 import java.util.function.Function;
 
-
 /**
  * Functional interface for mapping a {@link DynamicEntity} to a {@link Map} representation.
  *
@@ -40,4 +39,18 @@ import java.util.function.Function;
  * conversions as needed.
  */
 public interface DynamicEntityMapper extends Function<DynamicEntity, Map<String, Object>> {
+
+  /**
+   * Maps the given entity, emitting only the attributes requested by the projection.
+   *
+   * <p>The default implementation projects the entity before mapping it, so that the mapping logic only sees the
+   * requested attributes.
+   *
+   * @param entity the entity to map
+   * @param projection the attributes to emit
+   * @return the map representation of the projected entity
+   */
+  default Map<String, Object> apply(DynamicEntity entity, AttributeProjection projection) {
+    return apply(projection.apply(entity));
+  }
 }
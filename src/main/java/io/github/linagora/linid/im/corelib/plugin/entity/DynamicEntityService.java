@@ -26,10 +26,24 @@
 
 package io.github.linagora.linid.im.corelib.plugin.entity;
 
+import io.github.linagora.linid.im.corelib.plugin.config.dto.LifecycleExecutionMode;
+import io.github.linagora.linid.im.corelib.plugin.provider.BulkItemResult;
+import io.github.linagora.linid.im.corelib.plugin.provider.CursorPage;
+import io.github.linagora.linid.im.corelib.plugin.provider.CursorPageRequest;
+import io.github.linagora.linid.im.corelib.plugin.provider.PageSpliterator;
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 
 /**
@@ -38,9 +52,40 @@ import org.springframework.util.MultiValueMap;
  * <p>Entities are defined at runtime based on route-specific configuration. This interface abstracts
  * the logic required to create, update, delete, and query such entities in a generic way, allowing the system to operate on
  * flexible schemas without requiring static definitions.
+ *
+ * <p>The asynchronous {@code handle*Async} methods run the lifecycle on the executor given by the caller, usually the
+ * one of the {@link LifecycleExecutionMode} of the root configuration, e.g. one virtual thread per request.
  */
 public interface DynamicEntityService {
 
+  /**
+   * Name of the query parameter letting clients skip the total count of paged queries, when set to {@code false}.
+   */
+  String TOTAL_PARAMETER = "total";
+
+  /**
+   * Query parameters shaping the response rather than filtering the entities: the {@value AttributeProjection#PARAMETER}
+   * projection, the {@value CursorPageRequest#PARAMETER} continuation token and the {@value #TOTAL_PARAMETER} flag.
+   */
+  Set<String> RESERVED_PARAMETERS = Set.of(AttributeProjection.PARAMETER, CursorPageRequest.PARAMETER, TOTAL_PARAMETER);
+
+  /**
+   * Returns the given query parameters without the {@link #RESERVED_PARAMETERS reserved ones}, so that providers mapping
+   * every parameter to a filter do not filter on them.
+   *
+   * @param parameters the query parameters of the request, may be {@code null}
+   * @return the parameters themselves if they hold no reserved parameter, a filtered copy otherwise
+   */
+  static MultiValueMap<String, String> filtersOf(final MultiValueMap<String, String> parameters) {
+    if (parameters == null || RESERVED_PARAMETERS.stream().noneMatch(parameters::containsKey)) {
+      return parameters;
+    }
+
+    MultiValueMap<String, String> filters = new LinkedMultiValueMap<>(parameters);
+    RESERVED_PARAMETERS.forEach(filters::remove);
+    return filters;
+  }
+
   /**
    * Validates a single attribute value for a given entity, using configured validators.
    *
@@ -115,4 +160,360 @@ public interface DynamicEntityService {
                                     String entity,
                                     MultiValueMap<String, String> filters,
                                     Pageable pageable);
+
+  /**
+   * Retrieves a single dynamic entity by its identifier, holding only the requested attributes.
+   *
+   * <p>The default implementation loads the whole entity and strips the other attributes; implementations should
+   * override it to let providers fetch only the requested attributes.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param id the unique identifier of the entity
+   * @param projection the attributes to retrieve, usually parsed from the {@value AttributeProjection#PARAMETER}
+   *     query parameter
+   * @return the matching {@link DynamicEntity}, or {@code null} if not found
+   */
+  default DynamicEntity handleFindById(HttpServletRequest request,
+                                       String entity,
+                                       String id,
+                                       AttributeProjection projection) {
+    return projection.apply(handleFindById(request, entity, id));
+  }
+
+  /**
+   * Retrieves a paginated list of dynamic entities matching the provided filters, holding only the requested
+   * attributes.
+   *
+   * <p>The default implementation removes the {@link #RESERVED_PARAMETERS reserved parameters} from the filters, loads
+   * whole entities and strips the other attributes; implementations should override it to let providers fetch only
+   * the requested attributes.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param filters a map of query parameters used to filter the results
+   * @param pageable pagination and sorting options
+   * @param projection the attributes to retrieve, usually parsed from the {@value AttributeProjection#PARAMETER}
+   *     query parameter
+   * @return a {@link Page} of matching {@link DynamicEntity} instances
+   */
+  default Page<DynamicEntity> handleFindAll(HttpServletRequest request,
+                                            String entity,
+                                            MultiValueMap<String, String> filters,
+                                            Pageable pageable,
+                                            AttributeProjection projection) {
+    return handleFindAll(request, entity, filtersOf(filters), pageable).map(projection::apply);
+  }
+
+  /**
+   * Counts the dynamic entities matching the provided filters, without retrieving them.
+   *
+   * <p>The default implementation reads the total of a single-entity page returned by
+   * {@link #handleFindAll(HttpServletRequest, String, MultiValueMap, Pageable)}, without the
+   * {@link #RESERVED_PARAMETERS reserved parameters}; implementations should override it to let providers count
+   * natively.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param filters a map of query parameters used to filter the results
+   * @return the number of matching entities, possibly estimated by the provider
+   */
+  default long handleCount(HttpServletRequest request, String entity, MultiValueMap<String, String> filters) {
+    return handleFindAll(request, entity, filtersOf(filters), PageRequest.of(0, 1)).getTotalElements();
+  }
+
+  /**
+   * Retrieves a page of dynamic entities matching the provided filters, without computing the total number of
+   * matches.
+   *
+   * <p>Routes should use it instead of {@link #handleFindAll(HttpServletRequest, String, MultiValueMap, Pageable)}
+   * when the client sets the {@value #TOTAL_PARAMETER} query parameter to {@code false}.
+   *
+   * <p>The default implementation returns the page of
+   * {@link #handleFindAll(HttpServletRequest, String, MultiValueMap, Pageable)}, without the
+   * {@link #RESERVED_PARAMETERS reserved parameters}, and thus still computes the total; implementations should
+   * override it to let providers skip the count.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param filters a map of query parameters used to filter the results
+   * @param pageable pagination and sorting options
+   * @return a {@link Slice} of matching {@link DynamicEntity} instances
+   */
+  default Slice<DynamicEntity> handleFindSlice(HttpServletRequest request,
+                                               String entity,
+                                               MultiValueMap<String, String> filters,
+                                               Pageable pageable) {
+    return handleFindAll(request, entity, filtersOf(filters), pageable);
+  }
+
+  /**
+   * Retrieves a page of dynamic entities matching the provided filters using cursor-based pagination.
+   *
+   * <p>This is the counterpart of
+   * {@link #handleFindAll(HttpServletRequest, String, MultiValueMap, Pageable)} for routes advertising
+   * {@link io.github.linagora.linid.im.corelib.plugin.route.RouteDescription#cursorPagination() cursor pagination}:
+   * the continuation token comes in through the {@value CursorPageRequest#PARAMETER} query parameter and goes back out
+   * with the returned page, so that walking a large directory does not get slower with page depth.
+   *
+   * <p>The default implementation encodes the next page index in the cursor and delegates to
+   * {@link #handleFindAll(HttpServletRequest, String, MultiValueMap, Pageable)}, without the
+   * {@link #RESERVED_PARAMETERS reserved parameters}, so it keeps the cost profile of offset pagination;
+   * implementations should override it to use the native scroll of the providers.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param filters a map of query parameters used to filter the results
+   * @param pageRequest the cursor, page size and sort order
+   * @return the page of matching entities with the continuation token of the next page
+   */
+  default CursorPage<DynamicEntity> handleScroll(HttpServletRequest request,
+                                                 String entity,
+                                                 MultiValueMap<String, String> filters,
+                                                 CursorPageRequest pageRequest) {
+    MultiValueMap<String, String> entityFilters = filtersOf(filters);
+    return CursorPage.fromPages(pageRequest, pageable -> handleFindAll(request, entity, entityFilters, pageable));
+  }
+
+  /**
+   * Streams all dynamic entities matching the provided filters, fetching them from the provider chunk by chunk.
+   *
+   * <p>This is intended for large exports: the returned stream can be written directly to a chunked HTTP response
+   * (e.g., through a {@code StreamingResponseBody}) without holding the whole result in memory. The stream must be
+   * closed once consumed.
+   *
+   * <p>The default implementation walks the pages of
+   * {@link #handleFindAll(HttpServletRequest, String, MultiValueMap, Pageable)}, without the
+   * {@link #RESERVED_PARAMETERS reserved parameters}, with a {@link PageSpliterator}, as
+   * {@code ProviderPlugin.streamAll} does: each page is fetched once the previous one has been consumed, the first one
+   * when the stream starts being consumed, and the walk stops at the first empty page.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param filters a map of query parameters used to filter the results
+   * @param pageable the first chunk to fetch; its size is used as the chunk size and its sort for ordering
+   * @return a lazy {@link Stream} of matching {@link DynamicEntity} instances
+   */
+  default Stream<DynamicEntity> handleStreamAll(HttpServletRequest request,
+                                                String entity,
+                                                MultiValueMap<String, String> filters,
+                                                Pageable pageable) {
+    MultiValueMap<String, String> entityFilters = filtersOf(filters);
+    return PageSpliterator.stream(page -> handleFindAll(request, entity, entityFilters, page), pageable);
+  }
+
+  /**
+   * Creates several dynamic entities of the same type in a single request.
+   *
+   * <p>Implementations should authenticate the request and resolve the validation and task plans of the entity type
+   * once for the whole batch, then run these plans on each entity. A failing entity does not prevent the others from
+   * being processed.
+   *
+   * <p>The default implementation only provides this error isolation: it calls
+   * {@link #handleCreate(HttpServletRequest, String, Map)} for each item, so authentication and plan resolution are repeated
+   * for every entity.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type (defined by route)
+   * @param bodies the attributes of each entity to persist
+   * @return one result per body, in the same order, holding either the created entity or the error raised for it
+   */
+  default List<BulkItemResult<DynamicEntity>> handleBulkCreate(HttpServletRequest request,
+                                                               String entity,
+                                                               List<Map<String, Object>> bodies) {
+    return BulkItemResult.applyToAll(bodies, body -> handleCreate(request, entity, body));
+  }
+
+  /**
+   * Fully replaces several existing dynamic entities of the same type in a single request.
+   *
+   * <p>Implementations should authenticate the request and resolve the validation and task plans of the entity type
+   * once for the whole batch, then run these plans on each entity. A failing entity does not prevent the others from
+   * being processed.
+   *
+   * <p>The default implementation only provides this error isolation: it calls
+   * {@link #handleUpdate(HttpServletRequest, String, String, Map)} for each item, so authentication and plan resolution are
+   * repeated for every entity.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param bodies the complete set of attributes of each entity, indexed by entity ID
+   * @return one result per entry, in iteration order, holding either the updated entity or the error raised for it
+   */
+  default List<BulkItemResult<DynamicEntity>> handleBulkUpdate(HttpServletRequest request,
+                                                               String entity,
+                                                               Map<String, Map<String, Object>> bodies) {
+    return BulkItemResult.applyToAll(bodies.entrySet(),
+        entry -> handleUpdate(request, entity, entry.getKey(), entry.getValue()));
+  }
+
+  /**
+   * Partially updates several existing dynamic entities of the same type in a single request.
+   *
+   * <p>Implementations should authenticate the request and resolve the validation and task plans of the entity type
+   * once for the whole batch, then run these plans on each entity. A failing entity does not prevent the others from
+   * being processed.
+   *
+   * <p>The default implementation only provides this error isolation: it calls
+   * {@link #handlePatch(HttpServletRequest, String, String, Map)} for each item, so authentication and plan resolution are
+   * repeated for every entity.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param bodies the attributes to update for each entity, indexed by entity ID
+   * @return one result per entry, in iteration order, holding either the patched entity or the error raised for it
+   */
+  default List<BulkItemResult<DynamicEntity>> handleBulkPatch(HttpServletRequest request,
+                                                              String entity,
+                                                              Map<String, Map<String, Object>> bodies) {
+    return BulkItemResult.applyToAll(bodies.entrySet(),
+        entry -> handlePatch(request, entity, entry.getKey(), entry.getValue()));
+  }
+
+  /**
+   * Deletes several existing dynamic entities of the same type in a single request.
+   *
+   * <p>Implementations should authenticate the request and resolve the task plan of the entity type once for the whole
+   * batch, then run this plan on each entity. A failing entity does not prevent the others from being processed.
+   *
+   * <p>The default implementation only provides this error isolation: it calls
+   * {@link #handleDelete(HttpServletRequest, String, String)} for each item, so authentication and plan resolution are
+   * repeated for every entity.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param ids the unique identifiers of the entities to delete
+   * @return one result per ID, in the same order, holding either the deletion status or the error raised for it
+   */
+  default List<BulkItemResult<Boolean>> handleBulkDelete(HttpServletRequest request, String entity, List<String> ids) {
+    return BulkItemResult.applyToAll(ids, id -> handleDelete(request, entity, id));
+  }
+
+  /**
+   * Returns the threading model running the lifecycle of the asynchronous {@code handle*Async} methods.
+   *
+   * <p>The default implementation returns {@link LifecycleExecutionMode#PLATFORM}. Implementations should return the
+   * mode of the root configuration, whose {@link LifecycleExecutionMode#executor() executor} controllers pass to the
+   * {@code handle*Async} methods.
+   *
+   * @return the lifecycle execution mode
+   */
+  default LifecycleExecutionMode getExecutionMode() {
+    return LifecycleExecutionMode.PLATFORM;
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #handleCreate(HttpServletRequest, String, Map)}.
+   *
+   * <p>The asynchronous {@code handle*} methods let controllers return deferred results and release the servlet thread
+   * while the lifecycle runs on the given executor. Since the container may recycle the request once the servlet thread
+   * is released, implementations must read everything they need from the request before returning.
+   *
+   * <p>The default implementations take a {@link DetachedHttpServletRequest snapshot} of the request on the calling
+   * thread, then run the synchronous counterpart with this snapshot on the given executor.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param body the attributes of the entity to persist
+   * @param executor the executor running the lifecycle
+   * @return a stage completed with the created {@link DynamicEntity}
+   */
+  default CompletionStage<DynamicEntity> handleCreateAsync(HttpServletRequest request,
+                                                           String entity,
+                                                           Map<String, Object> body,
+                                                           Executor executor) {
+    HttpServletRequest detached = DetachedHttpServletRequest.of(request);
+    return CompletableFuture.supplyAsync(() -> handleCreate(detached, entity, body), executor);
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #handleUpdate(HttpServletRequest, String, String, Map)}.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param id the unique identifier of the entity to update
+   * @param body the complete set of attributes for the entity
+   * @param executor the executor running the lifecycle
+   * @return a stage completed with the updated {@link DynamicEntity}
+   */
+  default CompletionStage<DynamicEntity> handleUpdateAsync(HttpServletRequest request,
+                                                           String entity,
+                                                           String id,
+                                                           Map<String, Object> body,
+                                                           Executor executor) {
+    HttpServletRequest detached = DetachedHttpServletRequest.of(request);
+    return CompletableFuture.supplyAsync(() -> handleUpdate(detached, entity, id, body), executor);
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #handlePatch(HttpServletRequest, String, String, Map)}.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param id the unique identifier of the entity to update
+   * @param body the attributes to update
+   * @param executor the executor running the lifecycle
+   * @return a stage completed with the patched {@link DynamicEntity}
+   */
+  default CompletionStage<DynamicEntity> handlePatchAsync(HttpServletRequest request,
+                                                          String entity,
+                                                          String id,
+                                                          Map<String, Object> body,
+                                                          Executor executor) {
+    HttpServletRequest detached = DetachedHttpServletRequest.of(request);
+    return CompletableFuture.supplyAsync(() -> handlePatch(detached, entity, id, body), executor);
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #handleDelete(HttpServletRequest, String, String)}.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param id the unique identifier of the entity to delete
+   * @param executor the executor running the lifecycle
+   * @return a stage completed with {@code true} if the entity was successfully deleted
+   */
+  default CompletionStage<Boolean> handleDeleteAsync(HttpServletRequest request,
+                                                     String entity,
+                                                     String id,
+                                                     Executor executor) {
+    HttpServletRequest detached = DetachedHttpServletRequest.of(request);
+    return CompletableFuture.supplyAsync(() -> handleDelete(detached, entity, id), executor);
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #handleFindById(HttpServletRequest, String, String)}.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param id the unique identifier of the entity
+   * @param executor the executor running the lifecycle
+   * @return a stage completed with the matching {@link DynamicEntity}, or {@code null} if not found
+   */
+  default CompletionStage<DynamicEntity> handleFindByIdAsync(HttpServletRequest request,
+                                                             String entity,
+                                                             String id,
+                                                             Executor executor) {
+    HttpServletRequest detached = DetachedHttpServletRequest.of(request);
+    return CompletableFuture.supplyAsync(() -> handleFindById(detached, entity, id), executor);
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #handleFindAll(HttpServletRequest, String, MultiValueMap, Pageable)}.
+   *
+   * @param request the HTTP request context
+   * @param entity the name of the dynamic entity type
+   * @param filters a map of query parameters used to filter the results
+   * @param pageable pagination and sorting options
+   * @param executor the executor running the lifecycle
+   * @return a stage completed with the {@link Page} of matching {@link DynamicEntity} instances
+   */
+  default CompletionStage<Page<DynamicEntity>> handleFindAllAsync(HttpServletRequest request,
+                                                                  String entity,
+                                                                  MultiValueMap<String, String> filters,
+                                                                  Pageable pageable,
+                                                                  Executor executor) {
+    HttpServletRequest detached = DetachedHttpServletRequest.of(request);
+    return CompletableFuture.supplyAsync(() -> handleFindAll(detached, entity, filters, pageable), executor);
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Outcome of a single item of a bulk provider operation.
+ *
+ * <p>Exactly one of {@code value} and {@code error} is meaningful: a successful item carries the operation result,
+ * while a failed item carries the exception raised for it.
+ *
+ * @param index the position of the item in the bulk request
+ * @param value the result of the operation for this item, {@code null} if it failed
+ * @param error the exception raised for this item, {@code null} if it succeeded
+ * @param <T> the type of the operation result
+ */
+public record BulkItemResult<T>(int index, T value, RuntimeException error) {
+
+  /**
+   * Creates a successful item result.
+   *
+   * @param index the position of the item in the bulk request
+   * @param value the result of the operation
+   * @param <T> the type of the operation result
+   * @return a successful item result
+   */
+  public static <T> BulkItemResult<T> success(final int index, final T value) {
+    return new BulkItemResult<>(index, value, null);
+  }
+
+  /**
+   * Creates a failed item result.
+   *
+   * @param index the position of the item in the bulk request
+   * @param error the exception raised for the item
+   * @param <T> the type of the operation result
+   * @return a failed item result
+   */
+  public static <T> BulkItemResult<T> failure(final int index, final RuntimeException error) {
+    return new BulkItemResult<>(index, null, error);
+  }
+
+  /**
+   * Applies an operation to each item, collecting a result or an error per item without stopping on failures.
+   *
+   * @param items the items to process
+   * @param operation the operation to apply to each item
+   * @param <I> the type of the items
+   * @param <R> the type of the operation result
+   * @return one result per item, in iteration order
+   */
+  public static <I, R> List<BulkItemResult<R>> applyToAll(final Iterable<I> items, final Function<I, R> operation) {
+    List<BulkItemResult<R>> results = new ArrayList<>();
+    int index = 0;
+
+    for (I item : items) {
+      try {
+        results.add(success(index, operation.apply(item)));
+      } catch (RuntimeException e) {
+        results.add(failure(index, e));
+      }
+      index++;
+    }
+
+    return results;
+  }
+
+  /**
+   * Indicates whether the operation succeeded for this item.
+   *
+   * @return {@code true} if no error was raised for this item
+   */
+  public boolean isSuccess() {
+    return error == null;
+  }
+}
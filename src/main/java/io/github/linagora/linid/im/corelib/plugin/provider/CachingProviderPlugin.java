@@ -0,0 +1,502 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import io.github.linagora.linid.im.corelib.cache.BoundedCache;
+import io.github.linagora.linid.im.corelib.cache.CacheStatistics;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.AttributeProjection;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.lang.NonNull;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Decorator of a {@link ProviderPlugin} caching the entities it finds by ID.
+ *
+ * <p>Caching is enabled per provider configuration through the {@value ProviderCacheSettings#OPTION} option (see
+ * {@link ProviderCacheSettings}); configurations without this option go straight to the delegate. Each configuration
+ * gets its own {@link BoundedCache}, rebuilt when its settings change, keyed by entity name and ID. The settings are
+ * memoized by the configuration, so looking up the cache of a configuration whose settings did not change only reads
+ * the map of caches.
+ *
+ * <p>{@code findById} and {@code findAllByIds} are served from the cache; entities are invalidated when they are
+ * updated, patched or deleted through this decorator. Writes made directly to the backend are only seen once cached
+ * entries expire, so a time to live should be configured when the backend is shared. Other reads are forwarded to
+ * the delegate. Asynchronous variants are forwarded to the asynchronous methods of the delegate, so that its
+ * non-blocking implementations are kept: writes invalidate the entity once they complete, and {@code findByIdAsync}
+ * only calls the delegate on a cache miss.
+ *
+ * <p>Entities are copied when they are cached and again when they are served from the cache, so that callers
+ * modifying the entities they get, as tasks do, never alter the cached ones.
+ *
+ * <p>{@link ProviderFactory} implementations should wrap the plugins they return with this decorator, once per plugin,
+ * so that caches and statistics are shared by all requests; {@link CachingProviderFactory} does so for any factory.
+ */
+public class CachingProviderPlugin implements ProviderPlugin {
+
+  /**
+   * Estimated weight in bytes of a value whose size is unknown.
+   */
+  private static final long DEFAULT_VALUE_WEIGHT = 16;
+
+  /**
+   * The decorated provider.
+   */
+  private final ProviderPlugin delegate;
+
+  /**
+   * Caches indexed by provider configuration name.
+   */
+  private final ConcurrentMap<String, ConfiguredCache> caches = new ConcurrentHashMap<>();
+
+  /**
+   * Cache of a provider configuration along with the settings it was built from.
+   *
+   * @param settings the cache settings
+   * @param cache the cache
+   */
+  private record ConfiguredCache(ProviderCacheSettings settings, BoundedCache<String, DynamicEntity> cache) {
+  }
+
+  /**
+   * Creates a caching decorator.
+   *
+   * @param delegate the provider to decorate
+   */
+  public CachingProviderPlugin(final ProviderPlugin delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Returns the decorated provider.
+   *
+   * @return the decorated provider
+   */
+  public ProviderPlugin getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Returns the statistics of the cache of the given provider configuration.
+   *
+   * @param configurationName the name of the provider configuration
+   * @return the cache statistics, or empty if caching is not enabled for this configuration or it was not used yet
+   */
+  public Optional<CacheStatistics> getStatistics(final String configurationName) {
+    return Optional.ofNullable(caches.get(configurationName)).map(configured -> configured.cache().statistics());
+  }
+
+  /**
+   * Removes all cached entities of all provider configurations.
+   */
+  public void invalidateAll() {
+    caches.values().forEach(configured -> configured.cache().invalidateAll());
+  }
+
+  @Override
+  public boolean supports(@NonNull final String type) {
+    return delegate.supports(type);
+  }
+
+  @Override
+  public DynamicEntity create(final TaskExecutionContext context,
+                              final ProviderConfiguration configuration,
+                              final DynamicEntity dynamicEntity) {
+    return delegate.create(context, configuration, dynamicEntity);
+  }
+
+  @Override
+  public DynamicEntity update(final TaskExecutionContext context,
+                              final ProviderConfiguration configuration,
+                              final String id,
+                              final DynamicEntity dynamicEntity) {
+    try {
+      return delegate.update(context, configuration, id, dynamicEntity);
+    } finally {
+      invalidate(configuration, List.of(id), dynamicEntity);
+    }
+  }
+
+  @Override
+  public DynamicEntity patch(final TaskExecutionContext context,
+                             final ProviderConfiguration configuration,
+                             final String id,
+                             final DynamicEntity dynamicEntity) {
+    try {
+      return delegate.patch(context, configuration, id, dynamicEntity);
+    } finally {
+      invalidate(configuration, List.of(id), dynamicEntity);
+    }
+  }
+
+  @Override
+  public boolean delete(final TaskExecutionContext context,
+                        final ProviderConfiguration configuration,
+                        final String id,
+                        final DynamicEntity dynamicEntity) {
+    try {
+      return delegate.delete(context, configuration, id, dynamicEntity);
+    } finally {
+      invalidate(configuration, List.of(id), dynamicEntity);
+    }
+  }
+
+  @Override
+  public DynamicEntity findById(final TaskExecutionContext context,
+                                final ProviderConfiguration configuration,
+                                final String id,
+                                final DynamicEntity dynamicEntity) {
+    BoundedCache<String, DynamicEntity> cache = getCache(configuration);
+
+    if (cache == null) {
+      return delegate.findById(context, configuration, id, dynamicEntity);
+    }
+
+    return copy(cache.get(key(dynamicEntity, id), key -> copy(delegate.findById(context, configuration, id,
+        dynamicEntity))));
+  }
+
+  @Override
+  public DynamicEntity findById(final TaskExecutionContext context,
+                                final ProviderConfiguration configuration,
+                                final String id,
+                                final AttributeProjection projection,
+                                final DynamicEntity dynamicEntity) {
+    if (getCache(configuration) == null) {
+      return delegate.findById(context, configuration, id, projection, dynamicEntity);
+    }
+
+    return projection.apply(findById(context, configuration, id, dynamicEntity));
+  }
+
+  @Override
+  public Map<String, DynamicEntity> findAllByIds(final TaskExecutionContext context,
+                                                 final ProviderConfiguration configuration,
+                                                 final Collection<String> ids,
+                                                 final DynamicEntity dynamicEntity) {
+    BoundedCache<String, DynamicEntity> cache = getCache(configuration);
+
+    if (cache == null) {
+      return delegate.findAllByIds(context, configuration, ids, dynamicEntity);
+    }
+
+    Map<String, String> idsByKey = new LinkedHashMap<>();
+    ids.forEach(id -> idsByKey.put(key(dynamicEntity, id), id));
+
+    Map<String, DynamicEntity> cached = cache.getAll(idsByKey.keySet(), keys -> {
+      Map<String, DynamicEntity> loaded = new HashMap<>();
+      delegate.findAllByIds(context, configuration, keys.stream().map(idsByKey::get).toList(), dynamicEntity)
+          .forEach((id, entity) -> loaded.put(key(dynamicEntity, id), entity.copy()));
+      return loaded;
+    });
+
+    Map<String, DynamicEntity> entities = new LinkedHashMap<>();
+    idsByKey.forEach((key, id) -> Optional.ofNullable(cached.get(key)).ifPresent(entity -> entities.put(id, entity.copy())));
+    return entities;
+  }
+
+  @Override
+  public Page<DynamicEntity> findAll(final TaskExecutionContext context,
+                                     final ProviderConfiguration configuration,
+                                     final MultiValueMap<String, String> filters,
+                                     final Pageable pageable,
+                                     final DynamicEntity dynamicEntity) {
+    return delegate.findAll(context, configuration, filters, pageable, dynamicEntity);
+  }
+
+  @Override
+  public Page<DynamicEntity> findAll(final TaskExecutionContext context,
+                                     final ProviderConfiguration configuration,
+                                     final MultiValueMap<String, String> filters,
+                                     final Pageable pageable,
+                                     final AttributeProjection projection,
+                                     final DynamicEntity dynamicEntity) {
+    return delegate.findAll(context, configuration, filters, pageable, projection, dynamicEntity);
+  }
+
+  @Override
+  public long count(final TaskExecutionContext context,
+                    final ProviderConfiguration configuration,
+                    final MultiValueMap<String, String> filters,
+                    final DynamicEntity dynamicEntity) {
+    return delegate.count(context, configuration, filters, dynamicEntity);
+  }
+
+  @Override
+  public Slice<DynamicEntity> findSlice(final TaskExecutionContext context,
+                                        final ProviderConfiguration configuration,
+                                        final MultiValueMap<String, String> filters,
+                                        final Pageable pageable,
+                                        final DynamicEntity dynamicEntity) {
+    return delegate.findSlice(context, configuration, filters, pageable, dynamicEntity);
+  }
+
+  @Override
+  public Stream<DynamicEntity> streamAll(final TaskExecutionContext context,
+                                         final ProviderConfiguration configuration,
+                                         final MultiValueMap<String, String> filters,
+                                         final Pageable pageable,
+                                         final DynamicEntity dynamicEntity) {
+    return delegate.streamAll(context, configuration, filters, pageable, dynamicEntity);
+  }
+
+  @Override
+  public CursorPage<DynamicEntity> scroll(final TaskExecutionContext context,
+                                          final ProviderConfiguration configuration,
+                                          final MultiValueMap<String, String> filters,
+                                          final CursorPageRequest request,
+                                          final DynamicEntity dynamicEntity) {
+    return delegate.scroll(context, configuration, filters, request, dynamicEntity);
+  }
+
+  @Override
+  public CompletionStage<DynamicEntity> createAsync(final TaskExecutionContext context,
+                                                    final ProviderConfiguration configuration,
+                                                    final DynamicEntity dynamicEntity,
+                                                    final Executor executor) {
+    return delegate.createAsync(context, configuration, dynamicEntity, executor);
+  }
+
+  @Override
+  public CompletionStage<DynamicEntity> updateAsync(final TaskExecutionContext context,
+                                                    final ProviderConfiguration configuration,
+                                                    final String id,
+                                                    final DynamicEntity dynamicEntity,
+                                                    final Executor executor) {
+    return delegate.updateAsync(context, configuration, id, dynamicEntity, executor)
+        .whenComplete((result, error) -> invalidate(configuration, List.of(id), dynamicEntity));
+  }
+
+  @Override
+  public CompletionStage<DynamicEntity> patchAsync(final TaskExecutionContext context,
+                                                   final ProviderConfiguration configuration,
+                                                   final String id,
+                                                   final DynamicEntity dynamicEntity,
+                                                   final Executor executor) {
+    return delegate.patchAsync(context, configuration, id, dynamicEntity, executor)
+        .whenComplete((result, error) -> invalidate(configuration, List.of(id), dynamicEntity));
+  }
+
+  @Override
+  public CompletionStage<Boolean> deleteAsync(final TaskExecutionContext context,
+                                              final ProviderConfiguration configuration,
+                                              final String id,
+                                              final DynamicEntity dynamicEntity,
+                                              final Executor executor) {
+    return delegate.deleteAsync(context, configuration, id, dynamicEntity, executor)
+        .whenComplete((result, error) -> invalidate(configuration, List.of(id), dynamicEntity));
+  }
+
+  @Override
+  public CompletionStage<DynamicEntity> findByIdAsync(final TaskExecutionContext context,
+                                                      final ProviderConfiguration configuration,
+                                                      final String id,
+                                                      final DynamicEntity dynamicEntity,
+                                                      final Executor executor) {
+    BoundedCache<String, DynamicEntity> cache = getCache(configuration);
+
+    if (cache == null) {
+      return delegate.findByIdAsync(context, configuration, id, dynamicEntity, executor);
+    }
+
+    return cache.getAsync(key(dynamicEntity, id),
+            key -> delegate.findByIdAsync(context, configuration, id, dynamicEntity, executor)
+                .thenApply(CachingProviderPlugin::copy))
+        .thenApply(CachingProviderPlugin::copy);
+  }
+
+  @Override
+  public CompletionStage<Page<DynamicEntity>> findAllAsync(final TaskExecutionContext context,
+                                                           final ProviderConfiguration configuration,
+                                                           final MultiValueMap<String, String> filters,
+                                                           final Pageable pageable,
+                                                           final DynamicEntity dynamicEntity,
+                                                           final Executor executor) {
+    return delegate.findAllAsync(context, configuration, filters, pageable, dynamicEntity, executor);
+  }
+
+  @Override
+  public List<BulkItemResult<DynamicEntity>> createAll(final TaskExecutionContext context,
+                                                       final ProviderConfiguration configuration,
+                                                       final List<DynamicEntity> dynamicEntities) {
+    return delegate.createAll(context, configuration, dynamicEntities);
+  }
+
+  @Override
+  public List<BulkItemResult<DynamicEntity>> updateAll(final TaskExecutionContext context,
+                                                       final ProviderConfiguration configuration,
+                                                       final Map<String, DynamicEntity> dynamicEntities) {
+    try {
+      return delegate.updateAll(context, configuration, dynamicEntities);
+    } finally {
+      dynamicEntities.forEach((id, entity) -> invalidate(configuration, List.of(id), entity));
+    }
+  }
+
+  @Override
+  public List<BulkItemResult<DynamicEntity>> patchAll(final TaskExecutionContext context,
+                                                      final ProviderConfiguration configuration,
+                                                      final Map<String, DynamicEntity> dynamicEntities) {
+    try {
+      return delegate.patchAll(context, configuration, dynamicEntities);
+    } finally {
+      dynamicEntities.forEach((id, entity) -> invalidate(configuration, List.of(id), entity));
+    }
+  }
+
+  @Override
+  public List<BulkItemResult<Boolean>> deleteAll(final TaskExecutionContext context,
+                                                 final ProviderConfiguration configuration,
+                                                 final List<String> ids,
+                                                 final DynamicEntity dynamicEntity) {
+    try {
+      return delegate.deleteAll(context, configuration, ids, dynamicEntity);
+    } finally {
+      invalidate(configuration, ids, dynamicEntity);
+    }
+  }
+
+  /**
+   * Returns the cache of the given provider configuration, creating or rebuilding it if its settings changed.
+   *
+   * @param configuration the provider configuration
+   * @return the cache, or {@code null} if caching is not enabled for this configuration
+   * @throws io.github.linagora.linid.im.corelib.exception.ApiException if the cache settings are invalid
+   */
+  private BoundedCache<String, DynamicEntity> getCache(final ProviderConfiguration configuration) {
+    Optional<ProviderCacheSettings> settings = ProviderCacheSettings.read(configuration);
+
+    if (settings.isEmpty()) {
+      if (caches.containsKey(configuration.getName())) {
+        caches.remove(configuration.getName());
+      }
+      return null;
+    }
+
+    ConfiguredCache current = caches.get(configuration.getName());
+    if (current != null && current.settings().equals(settings.get())) {
+      return current.cache();
+    }
+
+    return caches.compute(configuration.getName(), (name, configured) -> {
+      if (configured != null && configured.settings().equals(settings.get())) {
+        return configured;
+      }
+      return new ConfiguredCache(settings.get(), new BoundedCache<>(settings.get().effectiveMaxEntries(),
+          settings.get().ttl(), settings.get().effectiveMaxWeight(), CachingProviderPlugin::weigh));
+    }).cache();
+  }
+
+  /**
+   * Copies an entity, so that the cached instance is never shared with callers.
+   *
+   * @param entity the entity to copy, may be {@code null}
+   * @return the copy, or {@code null} if the entity is {@code null}
+   */
+  private static DynamicEntity copy(final DynamicEntity entity) {
+    return entity == null ? null : entity.copy();
+  }
+
+  /**
+   * Removes the given entities from the cache of the given provider configuration.
+   *
+   * @param configuration the provider configuration
+   * @param ids the IDs of the entities
+   * @param dynamicEntity the entity from which to retrieve the entity name
+   */
+  private void invalidate(final ProviderConfiguration configuration,
+                          final Collection<String> ids,
+                          final DynamicEntity dynamicEntity) {
+    ConfiguredCache configured = caches.get(configuration.getName());
+
+    if (configured != null) {
+      ids.forEach(id -> configured.cache().invalidate(key(dynamicEntity, id)));
+    }
+  }
+
+  /**
+   * Builds the cache key of an entity.
+   *
+   * @param dynamicEntity the entity from which to retrieve the entity name
+   * @param id the ID of the entity
+   * @return the cache key
+   */
+  private static String key(final DynamicEntity dynamicEntity, final String id) {
+    String entityName = Optional.ofNullable(dynamicEntity)
+        .map(DynamicEntity::getConfiguration)
+        .map(EntityConfiguration::getName)
+        .orElse("");
+    return entityName + '\u0000' + id;
+  }
+
+  /**
+   * Estimates the size in bytes of an entity from its attribute values.
+   *
+   * @param entity the entity
+   * @return the estimated size in bytes
+   */
+  static long weigh(final DynamicEntity entity) {
+    return Optional.ofNullable(entity.getAttributes()).orElseGet(Map::of).entrySet().stream()
+        .mapToLong(attribute -> weighValue(attribute.getKey()) + weighValue(attribute.getValue()))
+        .sum();
+  }
+
+  /**
+   * Estimates the size in bytes of an attribute value.
+   *
+   * @param value the value
+   * @return the estimated size in bytes
+   */
+  private static long weighValue(final Object value) {
+    return switch (value) {
+      case null -> 0;
+      case CharSequence string -> string.length();
+      case byte[] bytes -> bytes.length;
+      case Collection<?> collection -> collection.stream().mapToLong(CachingProviderPlugin::weighValue).sum();
+      case Map<?, ?> map -> map.entrySet().stream()
+          .mapToLong(entry -> weighValue(entry.getKey()) + weighValue(entry.getValue()))
+          .sum();
+      default -> DEFAULT_VALUE_WEIGHT;
+    };
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Page of a cursor-based (keyset) pagination.
+ *
+ * <p>It carries no total count: the only navigation information is the opaque continuation token to pass in the next
+ * {@link CursorPageRequest}.
+ *
+ * @param content the entities of the page
+ * @param nextCursor the continuation token to fetch the next page, {@code null} if this is the last page
+ * @param <T> the type of the page content
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+  /**
+   * Creates a cursor page, copying the content into an immutable list.
+   *
+   * @param content the entities of the page, {@code null} for an empty page
+   * @param nextCursor the continuation token, {@code null} if this is the last page
+   */
+  public CursorPage {
+    content = Optional.ofNullable(content).map(List::copyOf).orElseGet(List::of);
+  }
+
+  /**
+   * Emulates cursor-based pagination on top of offset pagination, encoding the index of the next page in the cursor.
+   *
+   * <p>Fetching a page keeps the cost profile of offset pagination; it is meant as a fallback for sources that cannot
+   * resume a scan natively.
+   *
+   * @param request the cursor, page size and sort order
+   * @param finder the function fetching the offset page for a {@link Pageable}
+   * @param <T> the type of the page content
+   * @return the page holding the content of the offset page, with the cursor of the following one
+   * @throws io.github.linagora.linid.im.corelib.exception.ApiException if the cursor was not issued by this method
+   */
+  public static <T> CursorPage<T> fromPages(final CursorPageRequest request, final Function<Pageable, Page<T>> finder) {
+    int pageIndex = PageIndexCursor.decode(request.cursor());
+    Page<T> page = finder.apply(PageRequest.of(pageIndex, request.size(), request.sort()));
+
+    return new CursorPage<>(page.getContent(), page.hasNext() ? PageIndexCursor.encode(pageIndex + 1) : null);
+  }
+
+  /**
+   * Indicates whether another page can be fetched.
+   *
+   * @return {@code true} if a continuation token is present
+   */
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+
+  /**
+   * Returns a new page with the content transformed by the given function, keeping the continuation token.
+   *
+   * @param mapper the function to apply to each element
+   * @param <R> the type of the transformed content
+   * @return the transformed page
+   */
+  public <R> CursorPage<R> map(final Function<? super T, ? extends R> mapper) {
+    return new CursorPage<>(content.stream().<R>map(mapper).toList(), nextCursor);
+  }
+}
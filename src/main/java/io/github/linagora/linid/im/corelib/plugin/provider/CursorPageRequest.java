@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Cursor-based (keyset) pagination request.
+ *
+ * <p>Unlike an offset-based {@link Pageable}, the position in the result set is given by an opaque continuation token
+ * returned by the previous {@link CursorPage}, which lets providers resume a scan without skipping the preceding rows.
+ * A request without cursor starts at the beginning of the result set.
+ *
+ * @param cursor the opaque continuation token returned by the previous page, {@code null} for the first page
+ * @param size the maximum number of entities to return
+ * @param sort the sort order, which must stay the same while walking pages
+ */
+public record CursorPageRequest(String cursor, int size, Sort sort) {
+
+  /**
+   * Name of the query parameter holding the continuation token.
+   */
+  public static final String PARAMETER = "cursor";
+
+  /**
+   * Creates a cursor page request.
+   *
+   * @param cursor the opaque continuation token, {@code null} or empty for the first page
+   * @param size the maximum number of entities to return
+   * @param sort the sort order, {@code null} for unsorted
+   * @throws ApiException if the size is not strictly positive
+   */
+  public CursorPageRequest {
+    if (size <= 0) {
+      throw new ApiException(HttpStatus.BAD_REQUEST.value(),
+          I18nMessage.of("error.cursor.size.invalid", Map.of("size", String.valueOf(size))));
+    }
+    cursor = cursor == null || cursor.isEmpty() ? null : cursor;
+    sort = Optional.ofNullable(sort).orElseGet(Sort::unsorted);
+  }
+
+  /**
+   * Creates a request for the first page.
+   *
+   * @param size the maximum number of entities to return
+   * @param sort the sort order
+   * @return the first page request
+   */
+  public static CursorPageRequest first(final int size, final Sort sort) {
+    return new CursorPageRequest(null, size, sort);
+  }
+
+  /**
+   * Creates a request resuming at the given cursor, taking size and sort from a {@link Pageable}.
+   *
+   * @param cursor the opaque continuation token, {@code null} for the first page
+   * @param pageable the pageable holding size and sort; its page number is ignored
+   * @return the cursor page request
+   */
+  public static CursorPageRequest of(final String cursor, final Pageable pageable) {
+    return new CursorPageRequest(cursor, pageable.getPageSize(), pageable.getSort());
+  }
+
+  /**
+   * Indicates whether this request resumes a previous scan.
+   *
+   * @return {@code true} if a cursor is present
+   */
+  public boolean hasCursor() {
+    return cursor != null;
+  }
+
+  /**
+   * Creates the request for the page following the one that returned the given cursor.
+   *
+   * @param nextCursor the continuation token returned by the current page
+   * @return the next page request, with the same size and sort
+   */
+  public CursorPageRequest next(final String nextCursor) {
+    return new CursorPageRequest(nextCursor, size, sort);
+  }
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Request-scoped loader coalescing entity lookups by ID into batched provider calls.
+ *
+ * <p>Task plugins resolving references (managers, group members, ...) first {@link #load(String) register} the IDs
+ * they will need, then {@link #get(String) read} them: all pending IDs are fetched with a single
+ * {@link ProviderPlugin#findAllByIds} call. Duplicate IDs are fetched once, and results, including misses, are cached
+ * for the lifetime of the {@link TaskExecutionContext} the loader is bound to.
+ *
+ * <p>Each ID is backed by a future, completed when its batch returns. The provider is called without holding the lock
+ * of the loader, by the reader that dispatches the batch: concurrent tasks keep registering and reading other IDs
+ * meanwhile, and readers of IDs already in flight wait for their future instead of fetching them again. Loaders
+ * created with a coalescing window make the first reader of a batch wait up to that window, or until another reader
+ * has fetched its IDs, so that IDs registered concurrently by parallel tasks join the same batch. The default window is
+ * zero: pending IDs are dispatched on the first read.
+ *
+ * <p>Loaders are obtained with {@link #of(TaskExecutionContext, ProviderPlugin, ProviderConfiguration, DynamicEntity)},
+ * which returns the same instance for the same provider configuration and entity within a context and its snapshots.
+ * Loaders are attached to the context rather than stored as entries, so templates never see them. Instances are
+ * thread-safe. Callers writing entities through the provider should {@link #clear(String) clear} the affected IDs.
+ */
+public final class EntityLoader {
+
+  /**
+   * Prefix of the keys under which the loaders of a request are attached to the task execution context.
+   */
+  public static final String CONTEXT_KEY = "__entityLoaders";
+
+  /**
+   * Execution context passed to the provider.
+   */
+  private final TaskExecutionContext context;
+
+  /**
+   * Provider used to fetch entities.
+   */
+  private final ProviderPlugin plugin;
+
+  /**
+   * Configuration of the provider.
+   */
+  private final ProviderConfiguration configuration;
+
+  /**
+   * Entity from which the provider retrieves the configuration.
+   */
+  private final DynamicEntity dynamicEntity;
+
+  /**
+   * Time during which the IDs registered after the first pending one can join its batch.
+   */
+  private final Duration window;
+
+  /**
+   * Entities by ID, pending, in flight or loaded; loaded futures hold an empty value for IDs without matching entity.
+   */
+  private final Map<String, CompletableFuture<Optional<DynamicEntity>>> entries = new HashMap<>();
+
+  /**
+   * Futures of the IDs registered but not dispatched yet, in registration order.
+   */
+  private final Map<String, CompletableFuture<Optional<DynamicEntity>>> pending = new LinkedHashMap<>();
+
+  /**
+   * Value of {@link System#nanoTime()} when the first pending ID was registered.
+   */
+  private long pendingSince;
+
+  /**
+   * Lock guarding the entries and the pending IDs. Never held while the provider is called.
+   */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Creates a loader.
+   *
+   * @param context the execution context passed to the provider
+   * @param plugin the provider used to fetch entities
+   * @param configuration the configuration of the provider
+   * @param dynamicEntity the entity from which the provider retrieves the configuration
+   * @param window the coalescing window, {@link Duration#ZERO} to dispatch pending IDs on the first read
+   */
+  EntityLoader(final TaskExecutionContext context,
+               final ProviderPlugin plugin,
+               final ProviderConfiguration configuration,
+               final DynamicEntity dynamicEntity,
+               final Duration window) {
+    this.context = context;
+    this.plugin = plugin;
+    this.configuration = configuration;
+    this.dynamicEntity = dynamicEntity;
+    this.window = window;
+  }
+
+  /**
+   * Returns the loader bound to the given context for the given provider configuration and entity, creating it
+   * without coalescing window if needed.
+   *
+   * @param context the execution context of the current request
+   * @param plugin the provider used to fetch entities
+   * @param configuration the configuration of the provider
+   * @param dynamicEntity the entity from which the provider retrieves the configuration
+   * @return the loader bound to the context
+   */
+  public static EntityLoader of(final TaskExecutionContext context,
+                                final ProviderPlugin plugin,
+                                final ProviderConfiguration configuration,
+                                final DynamicEntity dynamicEntity) {
+    return of(context, plugin, configuration, dynamicEntity, Duration.ZERO);
+  }
+
+  /**
+   * Returns the loader bound to the given context for the given provider configuration and entity, creating it with
+   * the given coalescing window if needed. The window of an existing loader is kept.
+   *
+   * @param context the execution context of the current request
+   * @param plugin the provider used to fetch entities
+   * @param configuration the configuration of the provider
+   * @param dynamicEntity the entity from which the provider retrieves the configuration
+   * @param window the time the first reader of a batch waits for other IDs to join it
+   * @return the loader bound to the context
+   */
+  public static EntityLoader of(final TaskExecutionContext context,
+                                final ProviderPlugin plugin,
+                                final ProviderConfiguration configuration,
+                                final DynamicEntity dynamicEntity,
+                                final Duration window) {
+    String entityName = Optional.ofNullable(dynamicEntity.getConfiguration())
+        .map(EntityConfiguration::getName)
+        .orElse("");
+
+    return context.computeAttachmentIfAbsent(CONTEXT_KEY + "/" + configuration.getName() + "/" + entityName,
+        EntityLoader.class, () -> new EntityLoader(context, plugin, configuration, dynamicEntity, window));
+  }
+
+  /**
+   * Registers an ID to fetch with the next batch, unless it was already loaded.
+   *
+   * @param id the ID of the entity
+   */
+  public void load(final String id) {
+    loadAll(List.of(id));
+  }
+
+  /**
+   * Registers IDs to fetch with the next batch, skipping those already loaded or in flight.
+   *
+   * @param ids the IDs of the entities
+   */
+  public void loadAll(final Collection<String> ids) {
+    lock.lock();
+    try {
+      register(ids);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the entity with the given ID, fetching it along with all pending IDs if it was not loaded yet.
+   *
+   * @param id the ID of the entity
+   * @return the entity, or {@code null} if none matches the ID
+   */
+  public DynamicEntity get(final String id) {
+    return getAll(List.of(id)).get(id);
+  }
+
+  /**
+   * Returns the entities with the given IDs, fetching those not loaded yet along with all pending IDs in a single
+   * batch.
+   *
+   * @param ids the IDs of the entities
+   * @return the found entities indexed by ID, in the order of the given IDs; IDs without matching entity are absent
+   */
+  public Map<String, DynamicEntity> getAll(final Collection<String> ids) {
+    Map<String, CompletableFuture<Optional<DynamicEntity>>> futures;
+    long deadline;
+
+    lock.lock();
+    try {
+      futures = register(ids);
+      deadline = pendingSince + window.toNanos();
+    } finally {
+      lock.unlock();
+    }
+
+    CompletableFuture<Void> all = CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new));
+    if (!all.isDone()) {
+      await(all, deadline);
+      dispatch();
+    }
+
+    Map<String, DynamicEntity> entities = new LinkedHashMap<>();
+    futures.forEach((id, future) -> join(future).ifPresent(entity -> entities.put(id, entity)));
+    return entities;
+  }
+
+  /**
+   * Fetches all pending IDs with a single provider call, made without holding the lock of the loader.
+   *
+   * @throws RuntimeException the error raised by the provider, also reported to the readers of the batch
+   */
+  public void dispatch() {
+    Map<String, CompletableFuture<Optional<DynamicEntity>>> batch;
+
+    lock.lock();
+    try {
+      if (pending.isEmpty()) {
+        return;
+      }
+      batch = new LinkedHashMap<>(pending);
+      pending.clear();
+    } finally {
+      lock.unlock();
+    }
+
+    try {
+      Map<String, DynamicEntity> found =
+          plugin.findAllByIds(context, configuration, List.copyOf(batch.keySet()), dynamicEntity);
+      batch.forEach((id, future) -> future.complete(Optional.ofNullable(found.get(id))));
+    } catch (RuntimeException | Error exception) {
+      lock.lock();
+      try {
+        batch.forEach(entries::remove);
+      } finally {
+        lock.unlock();
+      }
+      batch.values().forEach(future -> future.completeExceptionally(exception));
+      throw exception;
+    }
+  }
+
+  /**
+   * Adds an already known entity to the loader, so that it is not fetched again.
+   *
+   * @param id the ID of the entity
+   * @param entity the entity
+   */
+  public void prime(final String id, final DynamicEntity entity) {
+    lock.lock();
+    try {
+      CompletableFuture<Optional<DynamicEntity>> future = pending.remove(id);
+      if (future != null) {
+        future.complete(Optional.ofNullable(entity));
+      }
+      entries.put(id, CompletableFuture.completedFuture(Optional.ofNullable(entity)));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Forgets the entity with the given ID, so that it is fetched again on the next access. Pending IDs are kept.
+   *
+   * @param id the ID of the entity
+   */
+  public void clear(final String id) {
+    lock.lock();
+    try {
+      if (!pending.containsKey(id)) {
+        entries.remove(id);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Forgets all loaded entities. Pending IDs are kept.
+   */
+  public void clearAll() {
+    lock.lock();
+    try {
+      entries.keySet().retainAll(pending.keySet());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Registers the IDs not known yet as pending. Must be called with the lock held.
+   *
+   * @param ids the IDs of the entities
+   * @return the futures of the given IDs, in the order of the IDs
+   */
+  private Map<String, CompletableFuture<Optional<DynamicEntity>>> register(final Collection<String> ids) {
+    Map<String, CompletableFuture<Optional<DynamicEntity>>> futures = new LinkedHashMap<>();
+
+    for (String id : ids) {
+      futures.put(id, entries.computeIfAbsent(id, key -> {
+        if (pending.isEmpty()) {
+          pendingSince = System.nanoTime();
+        }
+        CompletableFuture<Optional<DynamicEntity>> future = new CompletableFuture<>();
+        pending.put(key, future);
+        return future;
+      }));
+    }
+
+    return futures;
+  }
+
+  /**
+   * Waits until the given futures are completed by another reader, or until the end of the coalescing window.
+   *
+   * @param futures the futures to wait for
+   * @param deadline the value of {@link System#nanoTime()} at which the window ends
+   */
+  private static void await(final CompletableFuture<Void> futures, final long deadline) {
+    long remaining = deadline - System.nanoTime();
+
+    if (remaining <= 0) {
+      return;
+    }
+
+    try {
+      futures.get(remaining, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | TimeoutException exception) {
+      // Failures are reported by join, and the pending IDs are dispatched once the window has elapsed.
+    }
+  }
+
+  /**
+   * Waits for the result of a lookup, rethrowing the error raised by the provider as is.
+   *
+   * @param future the future of the lookup
+   * @return the found entity, or empty if none matches the ID
+   */
+  private static Optional<DynamicEntity> join(final CompletableFuture<Optional<DynamicEntity>> future) {
+    try {
+      return future.join();
+    } catch (CompletionException exception) {
+      if (exception.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (exception.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw exception;
+    }
+  }
+}
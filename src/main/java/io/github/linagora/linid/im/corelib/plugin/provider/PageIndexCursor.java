@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Codec of the opaque cursors issued by {@link CursorPage#fromPages}, which encode the index of the next page.
+ */
+final class PageIndexCursor {
+
+  /**
+   * Prefix identifying page-index cursors.
+   */
+  private static final String PREFIX = "page:";
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private PageIndexCursor() {
+  }
+
+  /**
+   * Encodes a page index as an opaque cursor.
+   *
+   * @param pageIndex the index of the page to resume at
+   * @return the opaque cursor
+   */
+  static String encode(final int pageIndex) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((PREFIX + pageIndex).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Decodes an opaque cursor into a page index.
+   *
+   * @param cursor the opaque cursor, {@code null} for the first page
+   * @return the page index to resume at
+   * @throws ApiException if the cursor was not produced by {@link #encode(int)}
+   */
+  static int decode(final String cursor) {
+    if (cursor == null) {
+      return 0;
+    }
+
+    int pageIndex = parse(cursor);
+
+    if (pageIndex < 0) {
+      throw new ApiException(HttpStatus.BAD_REQUEST.value(),
+          I18nMessage.of("error.cursor.invalid", Map.of("cursor", cursor)));
+    }
+
+    return pageIndex;
+  }
+
+  /**
+   * Parses a cursor into a page index.
+   *
+   * @param cursor the opaque cursor
+   * @return the page index, or {@code -1} if the cursor is malformed
+   */
+  private static int parse(final String cursor) {
+    try {
+      String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      return value.startsWith(PREFIX) ? Integer.parseInt(value.substring(PREFIX.length())) : -1;
+    } catch (IllegalArgumentException e) {
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Sequential {@link Spliterator} walking a paginated query one page at a time.
+ *
+ * <p>Pages are fetched lazily: the next page is only requested once every element of the current one has been
+ * consumed, so a slow consumer naturally throttles the queries and at most one page is held in memory. An empty page
+ * ends the walk, even if it claims to have a successor, so that an inconsistent provider cannot make it loop forever.
+ *
+ * <p>Nothing is fetched before the first element of the stream is requested.
+ *
+ * @param <T> the type of the elements
+ */
+public final class PageSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+  /**
+   * Function fetching the page matching a {@link Pageable}.
+   */
+  private final Function<Pageable, Page<T>> fetcher;
+
+  /**
+   * Pagination of the next page to fetch, or {@code null} when the last page has been fetched.
+   */
+  private Pageable next;
+
+  /**
+   * Iterator over the content of the current page.
+   */
+  private Iterator<T> current;
+
+  /**
+   * Creates a spliterator starting at the given page.
+   *
+   * @param fetcher function fetching the page matching a {@link Pageable}
+   * @param first pagination of the first page to fetch
+   */
+  private PageSpliterator(final Function<Pageable, Page<T>> fetcher, final Pageable first) {
+    super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+    this.fetcher = fetcher;
+    this.next = first;
+  }
+
+  /**
+   * Creates a lazy sequential stream over all pages, starting at the given one.
+   *
+   * @param fetcher function fetching the page matching a {@link Pageable}
+   * @param first pagination of the first page to fetch, {@link Pageable#unpaged()} to fetch everything at once
+   * @param <T> the type of the elements
+   * @return a stream of all elements of all pages
+   */
+  public static <T> Stream<T> stream(final Function<Pageable, Page<T>> fetcher, final Pageable first) {
+    return StreamSupport.stream(new PageSpliterator<>(fetcher, first), false);
+  }
+
+  @Override
+  public boolean tryAdvance(final Consumer<? super T> action) {
+    while (current == null || !current.hasNext()) {
+      if (next == null) {
+        return false;
+      }
+
+      Page<T> page = fetcher.apply(next);
+      current = page.getContent().iterator();
+      next = page.hasNext() && page.hasContent() ? page.nextPageable() : null;
+    }
+
+    action.accept(current.next());
+    return true;
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.http.HttpStatus;
+import tools.jackson.core.type.TypeReference;
+
+/**
+ * Settings of the entity cache of a provider, read from the {@value #OPTION} option of its configuration.
+ *
+ * <p>Example:
+ *
+ * <pre>{@code
+ * providers:
+ *   - name: directory
+ *     type: ldap
+ *     cache:
+ *       maxEntries: 10000
+ *       ttl: PT5M
+ *       maxWeight: 67108864
+ * }</pre>
+ *
+ * <p>Bounds and the time to live must be strictly positive; invalid settings are reported when the configuration is
+ * {@link #read(ProviderConfiguration) read} rather than silently disabling the cache.
+ *
+ * @param maxEntries the maximum number of cached entities, defaults to {@value #DEFAULT_MAX_ENTRIES}
+ * @param ttl the time to live of cached entities, {@code null} if they do not expire
+ * @param maxWeight the maximum estimated size in bytes of cached entities, {@code null} if not bounded
+ */
+public record ProviderCacheSettings(Long maxEntries, Duration ttl, Long maxWeight) {
+
+  /**
+   * Name of the provider configuration option holding the cache settings.
+   */
+  public static final String OPTION = "cache";
+
+  /**
+   * Maximum number of cached entities when not configured.
+   */
+  public static final long DEFAULT_MAX_ENTRIES = 1000;
+
+  /**
+   * Type of the {@value #OPTION} option.
+   */
+  private static final TypeReference<ProviderCacheSettings> TYPE = new TypeReference<>() {
+  };
+
+  /**
+   * Reads and validates the cache settings of a provider configuration.
+   *
+   * @param configuration the provider configuration
+   * @return the cache settings, or empty if caching is not enabled for this configuration
+   * @throws ApiException if the {@value #OPTION} option cannot be read or holds invalid bounds
+   */
+  public static Optional<ProviderCacheSettings> read(final ProviderConfiguration configuration) {
+    Object raw = configuration.getOptions().get(OPTION);
+
+    if (raw == null) {
+      return Optional.empty();
+    }
+
+    ProviderCacheSettings settings = configuration.getOption(OPTION, TYPE).orElse(null);
+
+    if (settings == null || !settings.isValid()) {
+      throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+          I18nMessage.of("error.plugin.default.invalid.option", Map.of("option", OPTION, "value", raw.toString())));
+    }
+
+    return Optional.of(settings);
+  }
+
+  /**
+   * Indicates whether the configured bounds are usable.
+   *
+   * @return {@code true} if the configured bounds and time to live are strictly positive
+   */
+  private boolean isValid() {
+    return (maxEntries == null || maxEntries > 0)
+        && (maxWeight == null || maxWeight > 0)
+        && (ttl == null || ttl.isPositive());
+  }
+
+  /**
+   * Returns the maximum number of cached entities.
+   *
+   * @return the configured maximum, or {@value #DEFAULT_MAX_ENTRIES} if not configured
+   */
+  public long effectiveMaxEntries() {
+    return maxEntries == null ? DEFAULT_MAX_ENTRIES : maxEntries;
+  }
+
+  /**
+   * Returns the maximum estimated size in bytes of cached entities.
+   *
+   * @return the configured maximum, or {@code 0} if not bounded
+   */
+  public long effectiveMaxWeight() {
+    return maxWeight == null ? 0 : maxWeight;
+  }
+}
@@ -41,6 +41,10 @@ import java.util.Optional;
  * Optional<ProviderPlugin> plugin = providerFactory.getProviderByType("http");
  * plugin.ifPresent(p -> p.performOperation(...));
  * }</pre>
+ *
+ * <p>Implementations should return plugins wrapped in a {@link CachingProviderPlugin}, created once per plugin, so that
+ * provider configurations declaring a {@value ProviderCacheSettings#OPTION} option get their entity cache. Wrapping an
+ * existing factory in a {@link CachingProviderFactory} does so.
  */
 public interface ProviderFactory {
   /**
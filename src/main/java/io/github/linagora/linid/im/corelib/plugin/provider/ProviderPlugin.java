@@ -27,10 +27,24 @@
 package io.github.linagora.linid.im.corelib.plugin.provider;
 
 import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.AttributeProjection;
 import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntityService;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.plugin.core.Plugin;
 import org.springframework.util.MultiValueMap;
 
@@ -118,6 +132,37 @@ public interface ProviderPlugin extends Plugin<String> {
       String id,
       DynamicEntity dynamicEntity);
 
+  /**
+   * Finds several dynamic entities by their IDs.
+   *
+   * <p>The default implementation calls
+   * {@link #findById(TaskExecutionContext, ProviderConfiguration, String, DynamicEntity)} once per distinct ID.
+   * Providers should override it with a single backend round trip (e.g., an LDAP {@code (|(uid=a)(uid=b))} filter or
+   * a SQL {@code IN} clause). It is used by {@link EntityLoader} to coalesce lookups.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param ids the IDs of the entities to find
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @return the found entities indexed by ID; IDs without matching entity are absent from the map
+   */
+  default Map<String, DynamicEntity> findAllByIds(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      Collection<String> ids,
+      DynamicEntity dynamicEntity) {
+    Map<String, DynamicEntity> entities = new LinkedHashMap<>();
+
+    for (String id : new LinkedHashSet<>(ids)) {
+      DynamicEntity entity = findById(context, configuration, id, dynamicEntity);
+      if (entity != null) {
+        entities.put(id, entity);
+      }
+    }
+
+    return entities;
+  }
+
   /**
    * Finds all dynamic entities matching the given filters and paginated by the pageable parameter.
    *
@@ -134,4 +179,380 @@ public interface ProviderPlugin extends Plugin<String> {
       MultiValueMap<String, String> filters,
       Pageable pageable,
       DynamicEntity dynamicEntity);
+
+  /**
+   * Finds a dynamic entity by its ID, retrieving only the attributes requested by the projection.
+   *
+   * <p>The default implementation calls
+   * {@link #findById(TaskExecutionContext, ProviderConfiguration, String, DynamicEntity)} and drops the attributes
+   * that were not requested. Providers able to restrict the fetched attributes (e.g., LDAP attribute lists, SQL
+   * column selection) should override it, using {@link AttributeProjection#select} to resolve the attributes to
+   * fetch.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param id the ID of the entity to find
+   * @param projection the attributes to retrieve
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @return the found dynamic entity, or {@code null} if none found
+   */
+  default DynamicEntity findById(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      String id,
+      AttributeProjection projection,
+      DynamicEntity dynamicEntity) {
+    return projection.apply(findById(context, configuration, id, dynamicEntity));
+  }
+
+  /**
+   * Finds all dynamic entities matching the given filters, retrieving only the attributes requested by the
+   * projection.
+   *
+   * <p>The default implementation calls
+   * {@link #findAll(TaskExecutionContext, ProviderConfiguration, MultiValueMap, Pageable, DynamicEntity)} and drops
+   * the attributes that were not requested. It first removes the
+   * {@link DynamicEntityService#RESERVED_PARAMETERS reserved query parameters}, such as
+   * {@value AttributeProjection#PARAMETER}, from the filters. Providers able to restrict the fetched attributes should
+   * override it.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param filters a map of filters to apply
+   * @param pageable pagination information
+   * @param projection the attributes to retrieve
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @return a page of dynamic entities matching the filters
+   */
+  default Page<DynamicEntity> findAll(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      MultiValueMap<String, String> filters,
+      Pageable pageable,
+      AttributeProjection projection,
+      DynamicEntity dynamicEntity) {
+    Page<DynamicEntity> page =
+        findAll(context, configuration, DynamicEntityService.filtersOf(filters), pageable, dynamicEntity);
+    return projection.isAll() ? page : page.map(projection::apply);
+  }
+
+  /**
+   * Counts the dynamic entities matching the given filters.
+   *
+   * <p>The default implementation requests a single-element page from
+   * {@link #findAll(TaskExecutionContext, ProviderConfiguration, MultiValueMap, Pageable, DynamicEntity)} and returns
+   * its total. Providers should override it with a cheap native count or estimate (e.g., SQL {@code COUNT(*)}, LDAP
+   * paged results size estimate) that does not materialize any entity.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param filters a map of filters to apply
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @return the number of matching entities
+   */
+  default long count(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      MultiValueMap<String, String> filters,
+      DynamicEntity dynamicEntity) {
+    return findAll(context, configuration, filters, PageRequest.of(0, 1), dynamicEntity).getTotalElements();
+  }
+
+  /**
+   * Finds a page of dynamic entities matching the given filters without computing the total number of matches.
+   *
+   * <p>The default implementation delegates to
+   * {@link #findAll(TaskExecutionContext, ProviderConfiguration, MultiValueMap, Pageable, DynamicEntity)}. Providers
+   * for which the total is expensive should override it, typically by fetching one extra entity to know whether a
+   * next page exists.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param filters a map of filters to apply
+   * @param pageable pagination information
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @return a slice of dynamic entities matching the filters
+   */
+  default Slice<DynamicEntity> findSlice(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      MultiValueMap<String, String> filters,
+      Pageable pageable,
+      DynamicEntity dynamicEntity) {
+    Page<DynamicEntity> page = findAll(context, configuration, filters, pageable, dynamicEntity);
+    return new SliceImpl<>(page.getContent(), page.getPageable(), page.hasNext());
+  }
+
+  /**
+   * Streams all dynamic entities matching the given filters, without materializing them all at once.
+   *
+   * <p>The returned stream is lazy and must be closed by the caller, typically with a try-with-resources block, so
+   * providers can release backend resources (cursors, connections) when the consumer stops early.
+   *
+   * <p>The default implementation walks the pages of
+   * {@link #findAll(TaskExecutionContext, ProviderConfiguration, MultiValueMap, Pageable, DynamicEntity)} starting at
+   * {@code pageable}, fetching the next page only once the current one has been consumed. Providers able to stream
+   * natively (e.g., LDAP paged results, database cursors) should override it.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param filters a map of filters to apply
+   * @param pageable the first page to fetch; its size is used as the fetch size and its sort for ordering
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @return a lazy stream of dynamic entities matching the filters
+   */
+  default Stream<DynamicEntity> streamAll(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      MultiValueMap<String, String> filters,
+      Pageable pageable,
+      DynamicEntity dynamicEntity) {
+    return PageSpliterator.stream(page -> findAll(context, configuration, filters, page, dynamicEntity), pageable);
+  }
+
+  /**
+   * Finds the dynamic entities matching the given filters using cursor-based (keyset) pagination.
+   *
+   * <p>The cursor of the request is the opaque continuation token returned by the previous page. Providers able to
+   * resume a scan natively (e.g., LDAP paged results cookies, SQL keyset conditions on the sort columns) should
+   * override this method so that fetching a page costs O(page size) regardless of its depth.
+   *
+   * <p>The default implementation encodes the next page index in the cursor and delegates to
+   * {@link #findAll(TaskExecutionContext, ProviderConfiguration, MultiValueMap, Pageable, DynamicEntity)}, so it keeps
+   * the cost profile of offset pagination.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param filters a map of filters to apply
+   * @param request the cursor, page size and sort order
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @return the page of matching entities with the continuation token of the next page
+   * @throws io.github.linagora.linid.im.corelib.exception.ApiException if the cursor was not issued by this provider
+   */
+  default CursorPage<DynamicEntity> scroll(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      MultiValueMap<String, String> filters,
+      CursorPageRequest request,
+      DynamicEntity dynamicEntity) {
+    return CursorPage.fromPages(request, pageable -> findAll(context, configuration, filters, pageable, dynamicEntity));
+  }
+
+  /**
+   * Creates a new dynamic entity asynchronously.
+   *
+   * <p>The default implementation runs {@link #create(TaskExecutionContext, ProviderConfiguration, DynamicEntity)} on the
+   * given executor. Providers backed by a non-blocking client should override it to avoid holding a thread during the
+   * backend call.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param dynamicEntity the entity data to create
+   * @param executor the executor running the blocking operation
+   * @return a stage completed with the created dynamic entity
+   */
+  default CompletionStage<DynamicEntity> createAsync(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      DynamicEntity dynamicEntity,
+      Executor executor) {
+    return CompletableFuture.supplyAsync(() -> create(context, configuration, dynamicEntity), executor);
+  }
+
+  /**
+   * Updates an existing dynamic entity asynchronously.
+   *
+   * <p>The default implementation runs
+   * {@link #update(TaskExecutionContext, ProviderConfiguration, String, DynamicEntity)} on the given executor. Providers
+   * backed by a non-blocking client should override it to avoid holding a thread during the backend call.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param id the ID of the entity to update
+   * @param dynamicEntity the entity data for update
+   * @param executor the executor running the blocking operation
+   * @return a stage completed with the updated dynamic entity
+   */
+  default CompletionStage<DynamicEntity> updateAsync(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      String id,
+      DynamicEntity dynamicEntity,
+      Executor executor) {
+    return CompletableFuture.supplyAsync(() -> update(context, configuration, id, dynamicEntity), executor);
+  }
+
+  /**
+   * Applies a partial update (patch) to an existing dynamic entity asynchronously.
+   *
+   * <p>The default implementation runs {@link #patch(TaskExecutionContext, ProviderConfiguration, String, DynamicEntity)}
+   * on the given executor. Providers backed by a non-blocking client should override it to avoid holding a thread during
+   * the backend call.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param id the ID of the entity to patch
+   * @param dynamicEntity the partial data to patch
+   * @param executor the executor running the blocking operation
+   * @return a stage completed with the patched dynamic entity
+   */
+  default CompletionStage<DynamicEntity> patchAsync(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      String id,
+      DynamicEntity dynamicEntity,
+      Executor executor) {
+    return CompletableFuture.supplyAsync(() -> patch(context, configuration, id, dynamicEntity), executor);
+  }
+
+  /**
+   * Deletes a dynamic entity by its ID asynchronously.
+   *
+   * <p>The default implementation runs
+   * {@link #delete(TaskExecutionContext, ProviderConfiguration, String, DynamicEntity)} on the given executor. Providers
+   * backed by a non-blocking client should override it to avoid holding a thread during the backend call.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param id the ID of the entity to delete
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @param executor the executor running the blocking operation
+   * @return a stage completed with {@code true} if the deletion was successful
+   */
+  default CompletionStage<Boolean> deleteAsync(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      String id,
+      DynamicEntity dynamicEntity,
+      Executor executor) {
+    return CompletableFuture.supplyAsync(() -> delete(context, configuration, id, dynamicEntity), executor);
+  }
+
+  /**
+   * Finds a dynamic entity by its ID asynchronously.
+   *
+   * <p>The default implementation runs
+   * {@link #findById(TaskExecutionContext, ProviderConfiguration, String, DynamicEntity)} on the given executor.
+   * Providers backed by a non-blocking client should override it to avoid holding a thread during the backend call.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param id the ID of the entity to find
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @param executor the executor running the blocking operation
+   * @return a stage completed with the found dynamic entity, or {@code null} if none found
+   */
+  default CompletionStage<DynamicEntity> findByIdAsync(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      String id,
+      DynamicEntity dynamicEntity,
+      Executor executor) {
+    return CompletableFuture.supplyAsync(() -> findById(context, configuration, id, dynamicEntity), executor);
+  }
+
+  /**
+   * Finds all dynamic entities matching the given filters asynchronously.
+   *
+   * <p>The default implementation runs
+   * {@link #findAll(TaskExecutionContext, ProviderConfiguration, MultiValueMap, Pageable, DynamicEntity)} on the given
+   * executor. Providers backed by a non-blocking client should override it to avoid holding a thread during the backend
+   * call.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param filters a map of filters to apply
+   * @param pageable pagination information
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @param executor the executor running the blocking operation
+   * @return a stage completed with the page of dynamic entities matching the filters
+   */
+  default CompletionStage<Page<DynamicEntity>> findAllAsync(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      MultiValueMap<String, String> filters,
+      Pageable pageable,
+      DynamicEntity dynamicEntity,
+      Executor executor) {
+    return CompletableFuture.supplyAsync(() -> findAll(context, configuration, filters, pageable, dynamicEntity), executor);
+  }
+
+  /**
+   * Creates several dynamic entities at once.
+   *
+   * <p>The default implementation calls
+   * {@link #create(TaskExecutionContext, ProviderConfiguration, DynamicEntity)} for each entity. Providers supporting
+   * native batching (e.g., LDAP or SQL batch operations) should override it.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param dynamicEntities the entities to create
+   * @return one result per entity, in the same order, holding either the created entity or the error raised for it
+   */
+  default List<BulkItemResult<DynamicEntity>> createAll(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      List<DynamicEntity> dynamicEntities) {
+    return BulkItemResult.applyToAll(dynamicEntities, entity -> create(context, configuration, entity));
+  }
+
+  /**
+   * Updates several existing dynamic entities at once.
+   *
+   * <p>The default implementation calls
+   * {@link #update(TaskExecutionContext, ProviderConfiguration, String, DynamicEntity)} for each entry.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param dynamicEntities the entity data for update, indexed by entity ID; use an ordered map to get predictable
+   *     result indices
+   * @return one result per entry, in iteration order, holding either the updated entity or the error raised for it
+   */
+  default List<BulkItemResult<DynamicEntity>> updateAll(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      Map<String, DynamicEntity> dynamicEntities) {
+    return BulkItemResult.applyToAll(dynamicEntities.entrySet(),
+        entry -> update(context, configuration, entry.getKey(), entry.getValue()));
+  }
+
+  /**
+   * Applies partial updates (patches) to several existing dynamic entities at once.
+   *
+   * <p>The default implementation calls
+   * {@link #patch(TaskExecutionContext, ProviderConfiguration, String, DynamicEntity)} for each entry.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param dynamicEntities the partial data to patch, indexed by entity ID; use an ordered map to get predictable
+   *     result indices
+   * @return one result per entry, in iteration order, holding either the patched entity or the error raised for it
+   */
+  default List<BulkItemResult<DynamicEntity>> patchAll(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      Map<String, DynamicEntity> dynamicEntities) {
+    return BulkItemResult.applyToAll(dynamicEntities.entrySet(),
+        entry -> patch(context, configuration, entry.getKey(), entry.getValue()));
+  }
+
+  /**
+   * Deletes several dynamic entities at once.
+   *
+   * <p>The default implementation calls
+   * {@link #delete(TaskExecutionContext, ProviderConfiguration, String, DynamicEntity)} for each ID.
+   *
+   * @param context the execution context containing runtime metadata and variables
+   * @param configuration the provider-specific configuration context
+   * @param ids the IDs of the entities to delete
+   * @param dynamicEntity the entity from which to retrieve the configuration
+   * @return one result per ID, in the same order, holding either the deletion status or the error raised for it
+   */
+  default List<BulkItemResult<Boolean>> deleteAll(
+      TaskExecutionContext context,
+      ProviderConfiguration configuration,
+      List<String> ids,
+      DynamicEntity dynamicEntity) {
+    return BulkItemResult.applyToAll(ids, id -> delete(context, configuration, id, dynamicEntity));
+  }
 }
@@ -34,6 +34,10 @@ import org.springframework.http.ResponseEntity;
  *
  * <p>Implementations of this interface should handle the routing logic based on the incoming {@link
  * HttpServletRequest} and return an appropriate {@link ResponseEntity} as response.
+ *
+ * <p>Implementations are expected to compile a {@link RouteDispatchIndex} once per configuration version and
+ * {@link RouteDispatchIndex#resolve(String, String) resolve} each request against it, instead of asking every route
+ * plugin whether it matches.
  */
 public interface DynamicRoutingService {
   /**
@@ -40,11 +40,27 @@ import org.springframework.lang.NonNull;
  * @param path the full route path (e.g., "/entities/{entity}")
  * @param entity the name of the entity this route is related to; may be {@code null} for generic routes
  * @param variables the list of path variable names used in the route (e.g., ["entity"])
+ * @param cursorPagination whether the route supports cursor-based pagination through the {@code cursor} query
+ *     parameter, in which case clients should walk large result sets with continuation tokens instead of page numbers
  */
 public record RouteDescription(
     String method,
     String path,
     String entity,
-    @NonNull List<String> variables
+    @NonNull List<String> variables,
+    boolean cursorPagination
 ) {
+
+  /**
+   * Creates a route description without cursor-based pagination support.
+   *
+   * @param method the HTTP method
+   * @param path the full route path
+   * @param entity the name of the entity this route is related to; may be {@code null}
+   * @param variables the list of path variable names used in the route
+   */
+  public RouteDescription(final String method, final String path, final String entity,
+                          @NonNull final List<String> variables) {
+    this(method, path, entity, variables, false);
+  }
 }
\ No newline at end of file
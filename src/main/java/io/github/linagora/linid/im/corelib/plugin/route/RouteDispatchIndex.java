@@ -0,0 +1,352 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.route;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RootConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RouteConfiguration;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.http.HttpStatus;
+import org.springframework.plugin.core.PluginRegistry;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Compiled, immutable dispatch table resolving HTTP requests to the route plugin handling them.
+ *
+ * <p>The index is built once per configuration version with {@link #compile(RootConfiguration, PluginRegistry)} from
+ * the {@link RouteDescription}s returned by {@link RoutePlugin#getRoutes}: their paths are stored in a tree of path
+ * segments, where a segment written {@code {name}} is a path variable. At runtime, {@link #resolve(String, String)}
+ * walks the request path once, segment by segment, keeping at each level the set of tree nodes the path prefix
+ * reaches, so that the cost depends on the path length and on the routes sharing its prefix rather than on the total
+ * number of routes. Request segments are URL-decoded before being compared, so that path variables hold decoded
+ * values. Empty segments are kept, so repeated or trailing slashes are significant, and a path variable never matches
+ * an empty segment.
+ *
+ * <p>Among described routes, the most specific one wins: at the first segment where two matching routes differ, a
+ * literal segment takes precedence over a variable, whatever the declaration order of the routes. The first declared
+ * route wins when several routes share the same method and path.
+ *
+ * <p>Plugins that {@link RoutePlugin#hasDynamicRoutes(RouteConfiguration) declare dynamic routes}, or that describe no
+ * route at all, cannot be fully indexed and are asked in declaration order whether they
+ * {@link RoutePlugin#match(RouteConfiguration, String, String) match} the request. Declaration order is kept across
+ * both kinds of routes: only the dynamic routes declared before the route of the matched description are asked, and
+ * all of them are asked when no described route matches. Since {@link RoutePlugin#hasDynamicRoutes} defaults to
+ * {@code true}, the index only spares these calls for plugins declaring that all their routes are described.
+ *
+ * <p>Instances are immutable and can be shared across request threads. A new index must be compiled whenever the
+ * configuration changes.
+ */
+public final class RouteDispatchIndex {
+
+  /**
+   * Root of the path segment tree.
+   */
+  private final Node root;
+
+  /**
+   * Routes resolved with {@link RoutePlugin#match(RouteConfiguration, String, String)}, in declaration order.
+   */
+  private final List<Target> dynamicRoutes;
+
+  /**
+   * Creates an index.
+   *
+   * @param root the root of the path segment tree
+   * @param dynamicRoutes the routes resolved with {@link RoutePlugin#match(RouteConfiguration, String, String)}
+   */
+  private RouteDispatchIndex(final Node root, final List<Target> dynamicRoutes) {
+    this.root = root;
+    this.dynamicRoutes = dynamicRoutes;
+  }
+
+  /**
+   * Compiles the dispatch index of all routes declared in the given configuration.
+   *
+   * @param configuration the root configuration to compile
+   * @param plugins the registry used to resolve route plugins by type
+   * @return the compiled index
+   * @throws ApiException if a route has no type or no plugin supports its type
+   */
+  public static RouteDispatchIndex compile(final RootConfiguration configuration,
+                                           final PluginRegistry<RoutePlugin, String> plugins) {
+    Node root = new Node();
+    List<Target> dynamicRoutes = new ArrayList<>();
+
+    List<RouteConfiguration> routes = configuration.getRoutes();
+
+    for (int order = 0; order < routes.size(); order++) {
+      RouteConfiguration route = routes.get(order);
+      RoutePlugin plugin = resolvePlugin(plugins, route);
+      List<RouteDescription> descriptions = plugin.getRoutes(route, configuration.getEntities());
+
+      if (plugin.hasDynamicRoutes(route) || descriptions.isEmpty()) {
+        dynamicRoutes.add(new Target(order, plugin, route, null, List.of(), List.of()));
+      }
+
+      for (RouteDescription description : descriptions) {
+        Node node = root;
+        List<String> variableNames = new ArrayList<>();
+        List<Integer> variablePositions = new ArrayList<>();
+        List<String> segments = split(description.path());
+        for (int position = 0; position < segments.size(); position++) {
+          String segment = segments.get(position);
+          if (isVariable(segment)) {
+            variableNames.add(segment.substring(1, segment.length() - 1));
+            variablePositions.add(position);
+            node = node.variable();
+          } else {
+            node = node.literal(segment);
+          }
+        }
+        node.targets.putIfAbsent(normalize(description.method()),
+            new Target(order, plugin, route, description, List.copyOf(variableNames), List.copyOf(variablePositions)));
+      }
+    }
+
+    return new RouteDispatchIndex(root, List.copyOf(dynamicRoutes));
+  }
+
+  /**
+   * Finds the route handling the given request.
+   *
+   * @param method the HTTP method of the request (GET, POST, etc.)
+   * @param path the path of the request, without query string
+   * @return the matched route, or empty if no plugin handles the request
+   * @throws ApiException if the path contains an invalid percent-encoded sequence
+   */
+  public Optional<RouteMatch> resolve(final String method, final String path) {
+    List<String> segments = decode(path, split(path));
+    Target target = find(segments, normalize(method));
+    int indexedOrder = target == null ? Integer.MAX_VALUE : target.order();
+
+    for (Target route : dynamicRoutes) {
+      if (route.order() >= indexedOrder) {
+        break;
+      }
+      if (route.plugin().match(route.configuration(), path, method)) {
+        return Optional.of(new RouteMatch(route.plugin(), route.configuration(), null, Map.of()));
+      }
+    }
+
+    if (target == null) {
+      return Optional.empty();
+    }
+
+    Map<String, String> variables = new LinkedHashMap<>();
+    for (int index = 0; index < target.variableNames().size(); index++) {
+      variables.putIfAbsent(target.variableNames().get(index), segments.get(target.variablePositions().get(index)));
+    }
+    return Optional.of(new RouteMatch(target.plugin(), target.configuration(), target.description(),
+        Collections.unmodifiableMap(variables)));
+  }
+
+  /**
+   * Walks the segment tree level by level, keeping the nodes reached by the path prefix ordered by precedence: at each
+   * level, the literal child of a node comes before its variable child, and the children of a node come before those
+   * of the nodes following it.
+   *
+   * @param segments the decoded segments of the request path
+   * @param method the normalized HTTP method
+   * @return the target of the most specific described route matching the request, or {@code null} if none
+   */
+  private Target find(final List<String> segments, final String method) {
+    List<Node> candidates = List.of(root);
+
+    for (String segment : segments) {
+      List<Node> next = new ArrayList<>();
+      for (Node node : candidates) {
+        Node literal = node.literals.get(segment);
+        if (literal != null) {
+          next.add(literal);
+        }
+        if (node.variable != null && !segment.isEmpty()) {
+          next.add(node.variable);
+        }
+      }
+      if (next.isEmpty()) {
+        return null;
+      }
+      candidates = next;
+    }
+
+    for (Node node : candidates) {
+      Target target = node.targets.get(method);
+      if (target != null) {
+        return target;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Splits a path into its segments, keeping the empty ones. The leading slash does not start a segment.
+   *
+   * @param path the path to split
+   * @return the segments of the path, {@code /a//b/} giving {@code a}, an empty segment, {@code b} and an empty segment
+   */
+  private static List<String> split(final String path) {
+    List<String> segments = new ArrayList<>();
+    int start = path.startsWith("/") ? 1 : 0;
+
+    for (int index = start; index <= path.length(); index++) {
+      if (index == path.length() || path.charAt(index) == '/') {
+        segments.add(path.substring(start, index));
+        start = index + 1;
+      }
+    }
+
+    return segments;
+  }
+
+  /**
+   * URL-decodes the segments of a request path.
+   *
+   * @param path the request path, used in the error context
+   * @param segments the raw segments of the path
+   * @return the decoded segments
+   * @throws ApiException if a segment contains an invalid percent-encoded sequence
+   */
+  private static List<String> decode(final String path, final List<String> segments) {
+    try {
+      return segments.stream()
+          .map(segment -> UriUtils.decode(segment, StandardCharsets.UTF_8))
+          .toList();
+    } catch (IllegalArgumentException exception) {
+      throw new ApiException(HttpStatus.BAD_REQUEST.value(),
+          I18nMessage.of("error.route.path.invalid", Map.of("path", path)));
+    }
+  }
+
+  /**
+   * Indicates whether a route segment is a path variable.
+   *
+   * @param segment the route segment
+   * @return {@code true} if the segment is written {@code {name}}
+   */
+  private static boolean isVariable(final String segment) {
+    return segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}");
+  }
+
+  /**
+   * Normalizes an HTTP method for lookups.
+   *
+   * @param method the HTTP method
+   * @return the upper-case method
+   */
+  private static String normalize(final String method) {
+    return method.toUpperCase(Locale.ROOT);
+  }
+
+  /**
+   * Resolves the plugin supporting the type of the given route.
+   *
+   * @param plugins the route plugin registry
+   * @param route the route configuration
+   * @return the matching route plugin
+   * @throws ApiException if the route has no type or no plugin supports it
+   */
+  private static RoutePlugin resolvePlugin(final PluginRegistry<RoutePlugin, String> plugins,
+                                           final RouteConfiguration route) {
+    if (route.getType() == null) {
+      throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of("error.route.type.missing"));
+    }
+
+    return plugins.getPluginFor(route.getType())
+        .orElseThrow(() -> new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+            I18nMessage.of("error.route.plugin.unknown", Map.of("type", route.getType()))));
+  }
+
+  /**
+   * Route plugin and configuration handling a route.
+   *
+   * @param order the position of the route configuration in the declared routes
+   * @param plugin the route plugin
+   * @param configuration the route configuration
+   * @param description the description of the route, {@code null} for dynamic routes
+   * @param variableNames the names of the path variables of the route, in path order
+   * @param variablePositions the positions of the path segments holding each path variable
+   */
+  private record Target(int order,
+                        RoutePlugin plugin,
+                        RouteConfiguration configuration,
+                        RouteDescription description,
+                        List<String> variableNames,
+                        List<Integer> variablePositions) {
+  }
+
+  /**
+   * Node of the path segment tree.
+   */
+  private static final class Node {
+
+    /**
+     * Children reached through a literal segment, by segment.
+     */
+    private final Map<String, Node> literals = new HashMap<>();
+
+    /**
+     * Targets of the routes ending at this node, by normalized HTTP method.
+     */
+    private final Map<String, Target> targets = new HashMap<>();
+
+    /**
+     * Child reached through a path variable, whatever its name, {@code null} if none.
+     */
+    private Node variable;
+
+    /**
+     * Returns the child reached through the given literal segment, creating it if needed.
+     *
+     * @param segment the literal route segment
+     * @return the child node
+     */
+    private Node literal(final String segment) {
+      return literals.computeIfAbsent(segment, key -> new Node());
+    }
+
+    /**
+     * Returns the child reached through a path variable, creating it if needed.
+     *
+     * @return the child node
+     */
+    private Node variable() {
+      if (variable == null) {
+        variable = new Node();
+      }
+      return variable;
+    }
+  }
+}
@@ -36,8 +36,8 @@ import org.springframework.plugin.core.Plugin;
 /**
  * Interface defining a stateless plugin for routing HTTP requests.
  *
- * <p>Implementations decide if they match a given URL and HTTP method, and execute the
- * corresponding logic for the matched request.
+ * <p>Implementations describe the routes they handle, decide if they match a given URL and HTTP method, and execute
+ * the corresponding logic for the matched request.
  *
  * <p>All methods receive the {@link RouteConfiguration} as a parameter to ensure thread-safety and
  * allow multiple route configurations to share the same plugin instance.
@@ -65,6 +65,21 @@ public interface RoutePlugin extends Plugin<String> {
    */
   boolean match(RouteConfiguration configuration, String url, String method);
 
+  /**
+   * Indicates whether this plugin handles requests that its {@link #getRoutes(RouteConfiguration, List) route
+   * descriptions} do not cover, and must therefore be asked through {@link #match(RouteConfiguration, String, String)}.
+   *
+   * <p>Plugins returning {@code false} declare that all their routes are described: they are dispatched through a
+   * {@link RouteDispatchIndex} only, and {@code match} is never called. The default keeps calling {@code match} for
+   * requests no described route handles, so that plugins written before the index keep serving every URL they match.
+   *
+   * @param configuration the route configuration for this plugin
+   * @return {@code true} by default, {@code false} if all the routes of the plugin are described
+   */
+  default boolean hasDynamicRoutes(RouteConfiguration configuration) {
+    return true;
+  }
+
   /**
    * Executes the logic associated with the given HTTP request.
    *
@@ -0,0 +1,362 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded worker queue running fire-and-forget tasks off the request's critical path.
+ *
+ * <p>Tasks declaring the {@value TaskStep#ASYNC_OPTION} option (typically {@code afterCreate} notifications, audit
+ * exports or search index synchronizations) are handed to this dispatcher along with a deep copy of the entity and a
+ * snapshot of the execution context taken at dispatch time, so that later changes made by the request are not visible to them and
+ * their own writes are not visible to the request. Their failures cannot reach the caller and are reported to the
+ * failure handler instead.
+ *
+ * <p>When the queue is full, the {@link OverflowPolicy} decides whether the caller waits for a free slot, the task is
+ * dropped, or the caller runs it itself. Queue depth, lag and outcome counters are available through
+ * {@link #getStatistics()}.
+ */
+public final class AsyncTaskDispatcher implements AutoCloseable {
+
+  /**
+   * Logger used by the default failure handler.
+   */
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncTaskDispatcher.class);
+
+  /**
+   * Failure handler logging task failures as warnings, used by default.
+   */
+  public static final BiConsumer<TaskStep, Throwable> LOG_FAILURES = (step, exception) ->
+      LOGGER.warn("Asynchronous task {} failed", step.configuration().getName(), exception);
+
+  /**
+   * Behaviour of {@link #dispatch(TaskStep, DynamicEntity, TaskExecutionContext)} when the queue is full.
+   */
+  public enum OverflowPolicy {
+
+    /**
+     * The caller waits until a slot is available.
+     */
+    BLOCK,
+
+    /**
+     * The task is discarded.
+     */
+    DROP,
+
+    /**
+     * The caller runs the task itself, which slows down producers.
+     */
+    CALLER_RUNS
+  }
+
+  /**
+   * Interval at which idle workers check whether the dispatcher was closed.
+   */
+  private static final long POLL_INTERVAL_MILLIS = 100;
+
+  /**
+   * Queued tasks.
+   */
+  private final BlockingQueue<QueuedTask> queue;
+
+  /**
+   * Behaviour when the queue is full.
+   */
+  private final OverflowPolicy overflowPolicy;
+
+  /**
+   * Handler notified of task failures.
+   */
+  private final BiConsumer<TaskStep, Throwable> failureHandler;
+
+  /**
+   * Worker threads.
+   */
+  private final List<Thread> workers = new ArrayList<>();
+
+  /**
+   * Number of accepted tasks.
+   */
+  private final LongAdder submitted = new LongAdder();
+
+  /**
+   * Number of successful tasks.
+   */
+  private final LongAdder completed = new LongAdder();
+
+  /**
+   * Number of failed tasks.
+   */
+  private final LongAdder failed = new LongAdder();
+
+  /**
+   * Number of discarded tasks.
+   */
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * Number of tasks run by the submitting thread.
+   */
+  private final LongAdder callerRuns = new LongAdder();
+
+  /**
+   * Queue wait of the last started task, in nanoseconds.
+   */
+  private final AtomicLong lastLag = new AtomicLong();
+
+  /**
+   * Longest queue wait, in nanoseconds.
+   */
+  private final LongAccumulator maxLag = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Lock making the closed check and the enqueue of a task atomic with respect to {@link #close()}: dispatchers hold
+   * the read lock, while closing takes the write lock, so that no task is queued once the workers may have stopped.
+   */
+  private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+  /**
+   * Whether the dispatcher stopped accepting tasks.
+   */
+  private volatile boolean closed;
+
+  /**
+   * Task waiting in the queue.
+   *
+   * @param step the step to execute
+   * @param entity the deep copy of the entity
+   * @param context the snapshot of the execution context
+   * @param enqueuedAt the {@link System#nanoTime()} at which the task was queued
+   */
+  private record QueuedTask(TaskStep step, DynamicEntity entity, TaskExecutionContext context, long enqueuedAt) {
+  }
+
+  /**
+   * Creates a dispatcher running tasks on daemon platform threads and logging task failures through
+   * {@link #LOG_FAILURES}.
+   *
+   * @param capacity the maximum number of queued tasks
+   * @param workers the number of worker threads
+   * @param overflowPolicy the behaviour when the queue is full
+   */
+  public AsyncTaskDispatcher(final int capacity, final int workers, final OverflowPolicy overflowPolicy) {
+    this(capacity, workers, overflowPolicy, Thread.ofPlatform().daemon().name("linid-async-task-", 0).factory(), LOG_FAILURES);
+  }
+
+  /**
+   * Creates a dispatcher.
+   *
+   * @param capacity the maximum number of queued tasks
+   * @param workers the number of worker threads
+   * @param overflowPolicy the behaviour when the queue is full
+   * @param threadFactory the factory creating worker threads, e.g. a virtual thread factory
+   * @param failureHandler the handler notified of task failures, including errors, e.g. {@link #LOG_FAILURES}; an
+   *     empty handler silences them besides counting; exceptions it throws go to the uncaught exception handler of
+   *     the running thread
+   */
+  public AsyncTaskDispatcher(final int capacity,
+                             final int workers,
+                             final OverflowPolicy overflowPolicy,
+                             final ThreadFactory threadFactory,
+                             final BiConsumer<TaskStep, Throwable> failureHandler) {
+    if (capacity <= 0 || workers <= 0) {
+      throw new IllegalArgumentException("Queue capacity and worker count must be strictly positive");
+    }
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.overflowPolicy = overflowPolicy;
+    this.failureHandler = failureHandler;
+
+    for (int index = 0; index < workers; index++) {
+      Thread worker = threadFactory.newThread(this::work);
+      this.workers.add(worker);
+      worker.start();
+    }
+  }
+
+  /**
+   * Queues a step for asynchronous execution on a deep copy of the entity and a snapshot of the context.
+   *
+   * @param step the step to execute
+   * @param entity the dynamic entity the task operates on
+   * @param context the task execution context of the request
+   * @return {@code true} if the task was queued or run by the caller, {@code false} if it was dropped
+   */
+  public boolean dispatch(final TaskStep step, final DynamicEntity entity, final TaskExecutionContext context) {
+    QueuedTask task = new QueuedTask(step, entity.copy(), context.snapshot(), System.nanoTime());
+
+    closeLock.readLock().lock();
+    try {
+      if (closed) {
+        dropped.increment();
+        return false;
+      }
+
+      if (queue.offer(task)) {
+        submitted.increment();
+        return true;
+      }
+
+      if (overflowPolicy == OverflowPolicy.BLOCK) {
+        return enqueueBlocking(task);
+      }
+    } finally {
+      closeLock.readLock().unlock();
+    }
+
+    if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+      submitted.increment();
+      callerRuns.increment();
+      run(task);
+      return true;
+    }
+
+    dropped.increment();
+    return false;
+  }
+
+  /**
+   * Returns a snapshot of the dispatcher metrics.
+   *
+   * @return the dispatcher metrics
+   */
+  public AsyncTaskStatistics getStatistics() {
+    return new AsyncTaskStatistics(queue.size(), queue.size() + queue.remainingCapacity(), submitted.sum(),
+        completed.sum(), failed.sum(), dropped.sum(), callerRuns.sum(), Duration.ofNanos(lastLag.get()),
+        Duration.ofNanos(maxLag.get()));
+  }
+
+  /**
+   * Stops accepting tasks and waits for the workers to run the queued ones.
+   *
+   * <p>If the calling thread is interrupted while waiting, it stops waiting and keeps its interrupt status; the
+   * workers still run the queued tasks in the background.
+   */
+  @Override
+  public void close() {
+    closeLock.writeLock().lock();
+    try {
+      closed = true;
+    } finally {
+      closeLock.writeLock().unlock();
+    }
+
+    try {
+      for (Thread worker : workers) {
+        worker.join();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Waits for a free slot in the queue. Must be called with the read lock held, which keeps the workers running
+   * until the task is queued.
+   *
+   * @param task the task to queue
+   * @return {@code true} if the task was queued, {@code false} if the caller was interrupted
+   */
+  private boolean enqueueBlocking(final QueuedTask task) {
+    try {
+      queue.put(task);
+      submitted.increment();
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      dropped.increment();
+      return false;
+    }
+  }
+
+  /**
+   * Worker loop, running queued tasks until the dispatcher is closed and the queue is empty.
+   */
+  private void work() {
+    while (!closed || !queue.isEmpty()) {
+      try {
+        QueuedTask task = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (task != null) {
+          long lag = System.nanoTime() - task.enqueuedAt();
+          lastLag.set(lag);
+          maxLag.accumulate(lag);
+          run(task);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Runs a task, recording its outcome. Any {@link Throwable} raised by the task counts as a failure, so that a
+   * misbehaving task cannot kill the worker running it.
+   *
+   * @param task the task to run
+   */
+  private void run(final QueuedTask task) {
+    try {
+      task.step().execute(task.entity(), task.context());
+      completed.increment();
+    } catch (Throwable e) {
+      failed.increment();
+      notifyFailure(task.step(), e);
+    }
+  }
+
+  /**
+   * Notifies the failure handler of a task failure. Exceptions thrown by the handler are reported to the uncaught
+   * exception handler of the current thread instead of being propagated, so that the worker keeps running.
+   *
+   * @param step the failed step
+   * @param failure the failure raised by the step
+   */
+  private void notifyFailure(final TaskStep step, final Throwable failure) {
+    try {
+      failureHandler.accept(step, failure);
+    } catch (RuntimeException e) {
+      Thread current = Thread.currentThread();
+      current.getUncaughtExceptionHandler().uncaughtException(current, e);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of the metrics of an {@link AsyncTaskDispatcher}.
+ *
+ * @param queueDepth the number of tasks waiting in the queue
+ * @param capacity the maximum number of tasks the queue can hold
+ * @param submitted the number of tasks accepted, including those run by the caller
+ * @param completed the number of tasks that completed successfully
+ * @param failed the number of tasks that threw an exception
+ * @param dropped the number of tasks discarded because the queue was full or the dispatcher closed
+ * @param callerRuns the number of tasks run on the submitting thread because the queue was full
+ * @param lastLag the time the last started task waited in the queue
+ * @param maxLag the longest time a task waited in the queue
+ */
+public record AsyncTaskStatistics(
+    int queueDepth,
+    int capacity,
+    long submitted,
+    long completed,
+    long failed,
+    long dropped,
+    long callerRuns,
+    Duration lastLag,
+    Duration maxLag
+) {
+}
@@ -31,6 +31,10 @@ import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
 /**
  * Interface defining a validation engine responsible for executing task during specific processing
  * phases.
+ *
+ * <p>Implementations are expected to compile a {@link TaskExecutionPlan} once per configuration version and delegate
+ * to {@link #execute(TaskExecutionPlan, DynamicEntity, TaskExecutionContext, String)}, instead of scanning the entity
+ * task configurations on every call.
  */
 public interface TaskEngine {
 
@@ -44,4 +48,33 @@ public interface TaskEngine {
    *     "beforeCreate", "beforeUpdate")
    */
   void execute(DynamicEntity dynamicEntity, TaskExecutionContext context, String phase);
+
+  /**
+   * Executes the tasks of the given pre-compiled plan attached to the entity and phase, one at a time, in declaration
+   * order unless their dependencies require otherwise.
+   *
+   * @param plan the compiled task execution plan
+   * @param dynamicEntity the dynamic entity the tasks operate on
+   * @param context the task execution context containing contextual data and state
+   * @param phase the phase of processing during which tasks are executed (e.g., "beforeCreate", "afterUpdate")
+   */
+  default void execute(TaskExecutionPlan plan, DynamicEntity dynamicEntity, TaskExecutionContext context,
+                       String phase) {
+    execute(plan, TaskPlanExecutor.sequential(), dynamicEntity, context, phase);
+  }
+
+  /**
+   * Executes the tasks of the given pre-compiled plan attached to the entity and phase with the given executor, which
+   * may run independent tasks concurrently.
+   *
+   * @param plan the compiled task execution plan
+   * @param executor the executor running the steps of the phase
+   * @param dynamicEntity the dynamic entity the tasks operate on
+   * @param context the task execution context containing contextual data and state
+   * @param phase the phase of processing during which tasks are executed (e.g., "beforeCreate", "afterUpdate")
+   */
+  default void execute(TaskExecutionPlan plan, TaskPlanExecutor executor, DynamicEntity dynamicEntity,
+                       TaskExecutionContext context, String phase) {
+    executor.execute(plan.getGraph(dynamicEntity.getConfiguration().getName(), phase), dynamicEntity, context);
+  }
 }
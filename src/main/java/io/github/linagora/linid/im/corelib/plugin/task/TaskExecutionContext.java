@@ -26,19 +26,108 @@
 
 package io.github.linagora.linid.im.corelib.plugin.task;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 /**
  * A specialized HashMap for task execution context data.
  *
  * <p>Provides a type-safe getter method to retrieve values by key with the expected type. If the
  * value associated with the key is not of the requested type, {@code null} is returned.
+ *
+ * <p>The context can also carry the deadline of the entity lifecycle, which bounds the time the task engine lets
+ * tasks run, and request-scoped helpers attached by plugins (e.g., entity loaders). Attachments are not entries of the
+ * map, so they are neither exposed to templates nor seen as writes of the tasks creating them.
  */
 public class TaskExecutionContext extends HashMap<String, Object> {
 
+  /** Instant by which the lifecycle should complete, {@code null} if it is not bounded. */
+  private transient Instant deadline;
+
+  /** Request-scoped helpers by key, shared with the snapshots of this context and empty after deserialization. */
+  private transient ConcurrentMap<String, Object> attachments = new ConcurrentHashMap<>();
+
   /** Default constructor. */
   public TaskExecutionContext() {}
 
+  /**
+   * Creates a shallow copy of this context, used to isolate the writes of tasks running concurrently.
+   *
+   * @return a new context holding the same entries
+   */
+  public TaskExecutionContext snapshot() {
+    TaskExecutionContext snapshot = new TaskExecutionContext();
+    snapshot.putAll(this);
+    snapshot.deadline = deadline;
+    snapshot.attachments = attachments;
+    return snapshot;
+  }
+
+  /**
+   * Restores the entries of a serialized context and gives it an empty attachment map, attachments not being
+   * serialized.
+   *
+   * @param in the stream to read the context from
+   * @throws IOException if the stream cannot be read
+   * @throws ClassNotFoundException if the class of a serialized entry cannot be found
+   */
+  @Serial
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    attachments = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Returns the instant by which the entity lifecycle should complete.
+   *
+   * @return the deadline, or empty if the lifecycle is not bounded
+   */
+  public Optional<Instant> getDeadline() {
+    return Optional.ofNullable(deadline);
+  }
+
+  /**
+   * Sets the instant by which the entity lifecycle should complete.
+   *
+   * @param deadline the deadline, {@code null} to remove it
+   */
+  public void setDeadline(final Instant deadline) {
+    this.deadline = deadline;
+  }
+
+  /**
+   * Returns the time left before the deadline.
+   *
+   * @return the remaining time, negative once the deadline passed, or empty if the lifecycle is not bounded
+   */
+  public Optional<Duration> getRemainingTime() {
+    return getDeadline().map(instant -> Duration.between(Instant.now(), instant));
+  }
+
+  /**
+   * Returns the helper attached under the given key, atomically creating and attaching it if needed.
+   *
+   * <p>The helper is shared by this context and all its snapshots.
+   *
+   * @param <T> the type of the helper
+   * @param key the key of the helper
+   * @param type the Class object corresponding to the type of the helper
+   * @param factory the function creating the helper, called at most once per key
+   * @return the attached helper
+   * @throws ClassCastException if a helper of another type is attached under the key
+   */
+  public <T> T computeAttachmentIfAbsent(final String key, final Class<T> type, final Supplier<? extends T> factory) {
+    return type.cast(attachments.computeIfAbsent(key, ignored -> factory.get()));
+  }
+
   /**
    * Retrieves the value associated with the given key and casts it to the specified type. If the
    * value is not an instance of the specified type, returns {@code null}.
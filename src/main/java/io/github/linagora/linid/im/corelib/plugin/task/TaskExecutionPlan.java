@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RootConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.TaskConfiguration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.http.HttpStatus;
+import org.springframework.plugin.core.PluginRegistry;
+
+/**
+ * Compiled, immutable index of the tasks to execute for each entity and lifecycle phase.
+ *
+ * <p>The plan is built once per configuration version with {@link #compile(RootConfiguration, PluginRegistry)}: each
+ * entity-level task declaration is merged with the global task configuration it refers to, its {@link TaskPlugin} is
+ * resolved and given a chance to {@link TaskPlugin#prepare(TaskConfiguration) prepare} its state, and the resulting
+ * {@link TaskStep}s are grouped by phase in declaration order, into a {@link TaskGraph} whose dependencies are
+ * validated. At runtime, finding the tasks of a phase costs a single map lookup, and phases without tasks resolve to an
+ * empty graph.
+ *
+ * <p>Instances are immutable and can be shared across request threads. A new plan must be compiled whenever the
+ * configuration changes.
+ */
+public final class TaskExecutionPlan {
+
+  /**
+   * Prefix of the phases running before the operation on the entity.
+   */
+  private static final String BEFORE_PREFIX = "before";
+
+  /**
+   * Prefix of the phases running after the operation on the entity.
+   */
+  private static final String AFTER_PREFIX = "after";
+
+  /**
+   * Plan without any task.
+   */
+  private static final TaskExecutionPlan EMPTY = new TaskExecutionPlan(Map.of());
+
+  /**
+   * Step graphs indexed by entity name, then by phase.
+   */
+  private final Map<String, Map<String, TaskGraph>> graphs;
+
+  /**
+   * Creates a plan from already indexed step graphs.
+   *
+   * @param graphs the step graphs indexed by entity name, then by phase
+   */
+  private TaskExecutionPlan(final Map<String, Map<String, TaskGraph>> graphs) {
+    this.graphs = graphs;
+  }
+
+  /**
+   * Returns a plan without any task.
+   *
+   * @return the empty plan
+   */
+  public static TaskExecutionPlan empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Compiles the task execution plan of all entities declared in the given configuration.
+   *
+   * <p>An entity task referring to a global task by {@code name} inherits its {@code type}, its {@code phases} when
+   * none are declared at entity level, and its options, which entity-level options override.
+   *
+   * @param configuration the root configuration to compile
+   * @param plugins the registry used to resolve task plugins by type
+   * @return the compiled plan
+   * @throws ApiException if a task has no type, no plugin supports its type, one of its engine options (see
+   *     {@link TaskStep}) is invalid, it depends on a task the entity does not declare or that has not run by the time
+   *     one of its phases starts, or the dependencies of a phase form a cycle
+   */
+  public static TaskExecutionPlan compile(final RootConfiguration configuration,
+                                          final PluginRegistry<TaskPlugin, String> plugins) {
+    Map<String, TaskConfiguration> globalTasks = new HashMap<>();
+    configuration.getTasks().forEach(task -> globalTasks.putIfAbsent(task.getName(), task));
+
+    Map<String, Map<String, TaskGraph>> graphs = new HashMap<>();
+
+    for (EntityConfiguration entity : configuration.getEntities()) {
+      Map<String, List<TaskStep>> stepsByPhase = new LinkedHashMap<>();
+      Map<String, Set<String>> phasesByTask = new HashMap<>();
+      List<TaskStep> steps = new ArrayList<>();
+
+      for (TaskConfiguration task : entity.getTasks()) {
+        TaskConfiguration merged = merge(task, globalTasks.get(task.getName()));
+        TaskStep step = new TaskStep(resolvePlugin(plugins, merged), merged);
+        step.checkOptions();
+        List<String> phases = Optional.ofNullable(merged.getPhases()).orElseGet(List::of);
+        phasesByTask.computeIfAbsent(merged.getName(), key -> new HashSet<>()).addAll(phases);
+        steps.add(step);
+
+        phases.stream()
+            .distinct()
+            .forEach(phase -> stepsByPhase.computeIfAbsent(phase, key -> new ArrayList<>()).add(step));
+      }
+
+      steps.forEach(step -> checkDependencies(step, phasesByTask));
+
+      Map<String, TaskGraph> frozen = new HashMap<>();
+      stepsByPhase.forEach((phase, phaseSteps) -> frozen.put(phase, TaskGraph.of(phaseSteps)));
+      graphs.put(entity.getName(), Collections.unmodifiableMap(frozen));
+    }
+
+    return new TaskExecutionPlan(Collections.unmodifiableMap(graphs));
+  }
+
+  /**
+   * Returns the steps to execute for the given entity and phase, in declaration order.
+   *
+   * @param entityName the name of the entity
+   * @param phase the lifecycle phase (e.g., "beforeCreate", "afterUpdate")
+   * @return an immutable list of steps, empty if no task is attached to this phase
+   */
+  public List<TaskStep> getSteps(final String entityName, final String phase) {
+    return getGraph(entityName, phase).getSteps();
+  }
+
+  /**
+   * Returns the dependency graph of the steps to execute for the given entity and phase.
+   *
+   * @param entityName the name of the entity
+   * @param phase the lifecycle phase (e.g., "beforeCreate", "afterUpdate")
+   * @return the step graph, empty if no task is attached to this phase
+   */
+  public TaskGraph getGraph(final String entityName, final String phase) {
+    Map<String, TaskGraph> graphsByPhase = graphs.get(entityName);
+
+    if (graphsByPhase == null) {
+      return TaskGraph.empty();
+    }
+
+    return graphsByPhase.getOrDefault(phase, TaskGraph.empty());
+  }
+
+  /**
+   * Checks that a step only depends on tasks declared by its entity that have run by the time each of its phases
+   * starts.
+   *
+   * <p>A dependency is satisfied in a phase if it runs in the same phase, where the {@link TaskGraph} orders it, or in
+   * the {@code before*} phase of the same operation when the phase is an {@code after*} one (e.g., {@code beforeCreate}
+   * for {@code afterCreate}). Any other dependency would silently be considered satisfied at runtime although the task
+   * it names did not run, or runs later.
+   *
+   * @param step the step to check
+   * @param phasesByTask the phases of the tasks declared by the entity, indexed by task name
+   * @throws ApiException if the step depends on an undeclared task, or on a task that does not run before one of its
+   *     phases
+   */
+  private static void checkDependencies(final TaskStep step, final Map<String, Set<String>> phasesByTask) {
+    String name = String.valueOf(step.configuration().getName());
+
+    for (String dependency : step.getDependencies().orElseGet(List::of)) {
+      Set<String> dependencyPhases = phasesByTask.get(dependency);
+
+      if (dependencyPhases == null) {
+        throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of(
+            "error.task.dependency.unknown", Map.of("task", name, "dependency", String.valueOf(dependency))));
+      }
+
+      Optional.ofNullable(step.configuration().getPhases()).orElseGet(List::of).stream()
+          .filter(phase -> !dependencyPhases.contains(phase) && !dependencyPhases.contains(precedingPhase(phase)))
+          .findFirst()
+          .ifPresent(phase -> {
+            throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of(
+                "error.task.dependency.phase", Map.of("task", name, "dependency", dependency, "phase", phase)));
+          });
+    }
+  }
+
+  /**
+   * Returns the phase running before the given one within the same operation.
+   *
+   * @param phase the lifecycle phase
+   * @return the {@code before*} phase of the operation for an {@code after*} phase, {@code null} otherwise
+   */
+  private static String precedingPhase(final String phase) {
+    return phase.startsWith(AFTER_PREFIX) ? BEFORE_PREFIX + phase.substring(AFTER_PREFIX.length()) : null;
+  }
+
+  /**
+   * Merges an entity-level task declaration with the global task configuration it refers to.
+   *
+   * @param task the entity-level task declaration
+   * @param global the global task configuration with the same name, may be null
+   * @return a new merged task configuration
+   */
+  private static TaskConfiguration merge(final TaskConfiguration task, final TaskConfiguration global) {
+    if (global == null) {
+      return task;
+    }
+
+    TaskConfiguration merged = new TaskConfiguration();
+    merged.setName(task.getName());
+    merged.setType(Optional.ofNullable(task.getType()).orElse(global.getType()));
+    merged.setPhases(task.getPhases() == null || task.getPhases().isEmpty() ? global.getPhases() : task.getPhases());
+    global.getOptions().forEach(merged::addOption);
+    task.getOptions().forEach(merged::addOption);
+    return merged;
+  }
+
+  /**
+   * Resolves the plugin supporting the type of the given task.
+   *
+   * @param plugins the task plugin registry
+   * @param task the merged task configuration
+   * @return the matching task plugin
+   * @throws ApiException if the task has no type or no plugin supports it
+   */
+  private static TaskPlugin resolvePlugin(final PluginRegistry<TaskPlugin, String> plugins,
+                                          final TaskConfiguration task) {
+    if (task.getType() == null) {
+      throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+          I18nMessage.of("error.task.type.missing", Map.of("task", String.valueOf(task.getName()))));
+    }
+
+    return plugins.getPluginFor(task.getType())
+        .orElseThrow(() -> new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+            I18nMessage.of("error.task.plugin.unknown", Map.of("type", task.getType()))));
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Dependency graph of the steps of a phase.
+ *
+ * <p>Each step waits for its predecessors, which are:
+ * <ul>
+ *   <li>the steps named in its {@value TaskStep#DEPENDS_ON_OPTION} option, if it declares one;</li>
+ *   <li>otherwise, for a {@link TaskStep#isParallel() parallel} step, the last regular step declared before it;</li>
+ *   <li>otherwise, all the steps declared before it, except asynchronous ones.</li>
+ * </ul>
+ * Without {@value TaskStep#DEPENDS_ON_OPTION} options, the graph therefore encodes the declaration order, adjacent
+ * parallel steps being independent from each other. Dependencies on tasks that are not part of the phase are
+ * considered satisfied: {@link TaskExecutionPlan} only accepts them when these tasks ran during the preceding phase.
+ *
+ * <p>Graphs are validated once, when they are built: a dependency cycle is reported as a configuration error instead
+ * of deadlocking requests. Instances are immutable and can be shared across request threads.
+ */
+public final class TaskGraph {
+
+  /**
+   * Graph without any step.
+   */
+  private static final TaskGraph EMPTY = of(List.of());
+
+  /**
+   * Steps of the phase, in declaration order.
+   */
+  private final List<TaskStep> steps;
+
+  /**
+   * Indexes of the predecessors of each step.
+   */
+  private final int[][] predecessors;
+
+  /**
+   * Indexes of the successors of each step.
+   */
+  private final int[][] successors;
+
+  /**
+   * Indexes of the direct and transitive predecessors of each step.
+   */
+  private final BitSet[] ancestors;
+
+  /**
+   * Step indexes in an order compatible with the dependencies, as close as possible to the declaration order.
+   */
+  private final int[] order;
+
+  /**
+   * Creates a validated graph.
+   *
+   * @param steps the steps, in declaration order
+   * @param predecessors the indexes of the predecessors of each step
+   * @param successors the indexes of the successors of each step
+   * @param ancestors the indexes of the direct and transitive predecessors of each step
+   * @param order the step indexes in dependency order
+   */
+  private TaskGraph(final List<TaskStep> steps,
+                    final int[][] predecessors,
+                    final int[][] successors,
+                    final BitSet[] ancestors,
+                    final int[] order) {
+    this.steps = steps;
+    this.predecessors = predecessors;
+    this.successors = successors;
+    this.ancestors = ancestors;
+    this.order = order;
+  }
+
+  /**
+   * Returns a graph without any step.
+   *
+   * @return the empty graph
+   */
+  public static TaskGraph empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Builds the dependency graph of the given steps.
+   *
+   * @param steps the steps of a phase, in declaration order
+   * @return the validated graph
+   * @throws ApiException if the dependencies of the steps form a cycle
+   */
+  public static TaskGraph of(final List<TaskStep> steps) {
+    List<TaskStep> frozen = List.copyOf(steps);
+    int size = frozen.size();
+    Map<String, List<Integer>> indexesByName = new HashMap<>();
+
+    for (int index = 0; index < size; index++) {
+      String name = frozen.get(index).configuration().getName();
+      if (name != null) {
+        indexesByName.computeIfAbsent(name, key -> new ArrayList<>()).add(index);
+      }
+    }
+
+    int[][] predecessors = new int[size][];
+    List<List<Integer>> successors = new ArrayList<>();
+    int lastBarrier = -1;
+
+    for (int index = 0; index < size; index++) {
+      TaskStep step = frozen.get(index);
+      final int current = index;
+      final int barrier = lastBarrier;
+      IntStream candidates;
+
+      if (step.getDependencies().isPresent()) {
+        candidates = step.getDependencies().get().stream()
+            .flatMap(name -> indexesByName.getOrDefault(name, List.of()).stream())
+            .mapToInt(Integer::intValue)
+            .filter(candidate -> candidate != current);
+      } else if (step.isParallel()) {
+        candidates = barrier < 0 ? IntStream.empty() : IntStream.of(barrier);
+      } else {
+        candidates = IntStream.range(0, index).filter(candidate -> !frozen.get(candidate).isAsync());
+        if (!step.isAsync()) {
+          lastBarrier = index;
+        }
+      }
+
+      predecessors[index] = candidates.distinct().sorted().toArray();
+      successors.add(new ArrayList<>());
+    }
+
+    for (int index = 0; index < size; index++) {
+      for (int predecessor : predecessors[index]) {
+        successors.get(predecessor).add(index);
+      }
+    }
+
+    int[] order = sort(frozen, predecessors, successors);
+    BitSet[] ancestors = new BitSet[size];
+
+    for (int index : order) {
+      BitSet set = new BitSet(size);
+      for (int predecessor : predecessors[index]) {
+        set.set(predecessor);
+        set.or(ancestors[predecessor]);
+      }
+      ancestors[index] = set;
+    }
+
+    return new TaskGraph(frozen, predecessors,
+        successors.stream().map(list -> list.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new),
+        ancestors, order);
+  }
+
+  /**
+   * Returns the steps of the graph, in declaration order.
+   *
+   * @return an immutable list of steps
+   */
+  public List<TaskStep> getSteps() {
+    return steps;
+  }
+
+  /**
+   * Returns the number of steps of the graph.
+   *
+   * @return the number of steps
+   */
+  public int size() {
+    return steps.size();
+  }
+
+  /**
+   * Returns the indexes of the steps the given step waits for.
+   *
+   * @param index the index of the step
+   * @return the indexes of its predecessors, in declaration order
+   */
+  public List<Integer> getPredecessors(final int index) {
+    return IntStream.of(predecessors[index]).boxed().toList();
+  }
+
+  /**
+   * Returns the number of steps the given step waits for.
+   *
+   * @param index the index of the step
+   * @return the number of its predecessors
+   */
+  int countPredecessors(final int index) {
+    return predecessors[index].length;
+  }
+
+  /**
+   * Returns the indexes of the steps waiting for the given step.
+   *
+   * @param index the index of the step
+   * @return the indexes of its successors, in declaration order
+   */
+  int[] getSuccessors(final int index) {
+    return successors[index];
+  }
+
+  /**
+   * Indicates whether a step is a direct or transitive predecessor of another one.
+   *
+   * @param ancestor the index of the potential ancestor
+   * @param index the index of the step
+   * @return {@code true} if the step at {@code index} cannot start before the one at {@code ancestor} completed
+   */
+  boolean isAncestor(final int ancestor, final int index) {
+    return ancestors[index].get(ancestor);
+  }
+
+  /**
+   * Returns the step indexes in an order compatible with the dependencies, ties being broken by declaration order.
+   *
+   * @return the step indexes in dependency order
+   */
+  int[] getOrder() {
+    return order;
+  }
+
+  /**
+   * Sorts the steps topologically, preferring the earliest declared step among the ready ones.
+   *
+   * @param steps the steps, in declaration order
+   * @param predecessors the indexes of the predecessors of each step
+   * @param successors the indexes of the successors of each step
+   * @return the step indexes in dependency order
+   * @throws ApiException if the dependencies form a cycle
+   */
+  private static int[] sort(final List<TaskStep> steps,
+                            final int[][] predecessors,
+                            final List<List<Integer>> successors) {
+    int size = steps.size();
+    int[] pending = new int[size];
+    Queue<Integer> ready = new PriorityQueue<>();
+
+    for (int index = 0; index < size; index++) {
+      pending[index] = predecessors[index].length;
+      if (pending[index] == 0) {
+        ready.add(index);
+      }
+    }
+
+    int[] order = new int[size];
+    int sorted = 0;
+
+    while (!ready.isEmpty()) {
+      int index = ready.poll();
+      order[sorted++] = index;
+      for (int successor : successors.get(index)) {
+        if (--pending[successor] == 0) {
+          ready.add(successor);
+        }
+      }
+    }
+
+    if (sorted < size) {
+      String cycle = IntStream.range(0, size)
+          .filter(index -> pending[index] > 0)
+          .mapToObj(index -> String.valueOf(steps.get(index).configuration().getName()))
+          .collect(Collectors.joining(", "));
+      throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+          I18nMessage.of("error.task.dependency.cycle", Map.of("tasks", cycle)));
+    }
+
+    return order;
+  }
+}
@@ -0,0 +1,541 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Runs the steps of a phase, executing independent steps concurrently.
+ *
+ * <p>Steps are scheduled according to the {@link TaskGraph} of their phase: a step starts as soon as all its
+ * predecessors completed, which are the steps named in its {@value TaskStep#DEPENDS_ON_OPTION} option or, by default,
+ * the steps declared before it. Steps whose task declares the {@value TaskStep#PARALLEL_OPTION} option only wait for
+ * the last regular step declared before them, and thus run concurrently with the adjacent parallel steps. The latency
+ * of a phase is thus the one of its longest dependency chain instead of the sum of all its steps. A work-stealing pool
+ * such as {@link java.util.concurrent.Executors#newWorkStealingPool()} suits this workload well.
+ *
+ * <p>Writes are well-defined: when run concurrently, each step runs against its own
+ * {@link TaskExecutionContext#snapshot() snapshot} of the context and {@link DynamicEntity#copy() copy} of the entity,
+ * taken once its predecessors completed, and the context entries and entity attributes it added, changed or removed
+ * are applied to the shared context and entity once it completes. When two steps that do not depend on each other
+ * write the same key or attribute, the last declared step wins, whatever their completion order.
+ *
+ * <p>Execution is fail-fast: as soon as a step fails, the running steps are cancelled (their threads are interrupted),
+ * no further step starts, and the exception of the failing step is rethrown. The writes of the steps that already
+ * completed are kept.
+ *
+ * <p>Steps whose task declares the {@value TaskStep#ASYNC_OPTION} option are handed to the
+ * {@link AsyncTaskDispatcher}, if any, once their predecessors completed: they see the writes of these steps, do not
+ * delay the following ones, and their own writes are not applied to the context.
+ *
+ * <p>Steps are bounded by a budget, the shorter of their {@value TaskStep#TIMEOUT_OPTION} option and the time left
+ * before the {@link TaskExecutionContext#getDeadline() deadline} of the context. A bounded step runs on a virtual
+ * thread against a {@link DynamicEntity#copy() copy} of the entity and a snapshot of the context, whose changes are
+ * applied once it completes in time; otherwise they are discarded, so that a step still running past its budget
+ * never alters the entity the lifecycle goes on with, and its {@link TimeoutBehavior} applies. Asynchronous steps are
+ * not bounded by the deadline of the request.
+ *
+ * <p>Steps left running in the background by {@link TimeoutBehavior#CONTINUE} are counted, see
+ * {@link #getBackgroundStepCount()}. Once {@code maxBackgroundSteps} of them are running, further timed-out steps are
+ * interrupted as with {@link TimeoutBehavior#SKIP}, so that a stalled backend cannot pile up threads without bound.
+ */
+public final class TaskPlanExecutor {
+
+  /**
+   * Default maximum number of timed-out steps left running in the background.
+   */
+  public static final int DEFAULT_MAX_BACKGROUND_STEPS = 100;
+
+  /**
+   * Executor running every step on the calling thread, one at a time.
+   */
+  private static final TaskPlanExecutor SEQUENTIAL = new TaskPlanExecutor(null, null);
+
+  /**
+   * Factory of the virtual threads running bounded steps.
+   */
+  private static final ThreadFactory TIMED_STEP_THREADS = Thread.ofVirtual().name("linid-task-", 0).factory();
+
+  /**
+   * Executor running independent steps concurrently, {@code null} to run all steps sequentially.
+   */
+  private final Executor executor;
+
+  /**
+   * Dispatcher running asynchronous steps, {@code null} to run them as regular steps.
+   */
+  private final AsyncTaskDispatcher dispatcher;
+
+  /**
+   * Maximum number of timed-out steps left running in the background.
+   */
+  private final int maxBackgroundSteps;
+
+  /**
+   * Number of timed-out steps currently running in the background.
+   */
+  private final AtomicInteger backgroundSteps = new AtomicInteger();
+
+  /**
+   * Creates a task plan executor running independent steps on the given executor, and asynchronous steps as regular
+   * steps.
+   *
+   * @param executor the executor running independent steps, {@code null} to run all steps sequentially
+   */
+  public TaskPlanExecutor(final Executor executor) {
+    this(executor, null);
+  }
+
+  /**
+   * Creates a task plan executor.
+   *
+   * @param executor the executor running independent steps, {@code null} to run all steps sequentially
+   * @param dispatcher the dispatcher running asynchronous steps, {@code null} to run them as regular steps
+   */
+  public TaskPlanExecutor(final Executor executor, final AsyncTaskDispatcher dispatcher) {
+    this(executor, dispatcher, DEFAULT_MAX_BACKGROUND_STEPS);
+  }
+
+  /**
+   * Creates a task plan executor with a custom bound on the timed-out steps left running in the background.
+   *
+   * @param executor the executor running independent steps, {@code null} to run all steps sequentially
+   * @param dispatcher the dispatcher running asynchronous steps, {@code null} to run them as regular steps
+   * @param maxBackgroundSteps the maximum number of timed-out steps left running in the background
+   */
+  public TaskPlanExecutor(final Executor executor, final AsyncTaskDispatcher dispatcher, final int maxBackgroundSteps) {
+    this.executor = executor;
+    this.dispatcher = dispatcher;
+    this.maxBackgroundSteps = maxBackgroundSteps;
+  }
+
+  /**
+   * Returns an executor running every step on the calling thread, one at a time, in declaration order unless
+   * {@value TaskStep#DEPENDS_ON_OPTION} options require otherwise.
+   *
+   * @return the sequential task plan executor
+   */
+  public static TaskPlanExecutor sequential() {
+    return SEQUENTIAL;
+  }
+
+  /**
+   * Returns the number of steps that exceeded their budget with the {@link TimeoutBehavior#CONTINUE} behaviour and are
+   * still running in the background.
+   *
+   * @return the number of background steps
+   */
+  public int getBackgroundStepCount() {
+    return backgroundSteps.get();
+  }
+
+  /**
+   * Executes the given steps on the entity.
+   *
+   * @param steps the steps of the phase, in declaration order
+   * @param entity the dynamic entity the tasks operate on
+   * @param context the task execution context containing contextual data and state
+   * @throws ApiException if the dependencies of the steps form a cycle
+   */
+  public void execute(final List<TaskStep> steps, final DynamicEntity entity, final TaskExecutionContext context) {
+    execute(TaskGraph.of(steps), entity, context);
+  }
+
+  /**
+   * Executes the steps of the given graph on the entity.
+   *
+   * @param graph the step graph of the phase
+   * @param entity the dynamic entity the tasks operate on
+   * @param context the task execution context containing contextual data and state
+   */
+  public void execute(final TaskGraph graph, final DynamicEntity entity, final TaskExecutionContext context) {
+    if (executor == null) {
+      for (int index : graph.getOrder()) {
+        TaskStep step = graph.getSteps().get(index);
+        if (dispatcher != null && step.isAsync()) {
+          dispatcher.dispatch(step, entity, context);
+        } else {
+          executeStep(step, entity, context);
+        }
+      }
+      return;
+    }
+
+    executeConcurrently(graph, entity, context);
+  }
+
+  /**
+   * Executes the steps of a graph concurrently, starting each step on its own context snapshot as soon as its
+   * predecessors completed, and applying its context writes once it completes.
+   *
+   * @param graph the step graph of the phase
+   * @param entity the dynamic entity the tasks operate on
+   * @param context the shared task execution context
+   */
+  private void executeConcurrently(final TaskGraph graph,
+                                   final DynamicEntity entity,
+                                   final TaskExecutionContext context) {
+    int[] pending = new int[graph.size()];
+    Deque<Integer> ready = new ArrayDeque<>();
+
+    for (int index = 0; index < graph.size(); index++) {
+      pending[index] = graph.countPredecessors(index);
+      if (pending[index] == 0) {
+        ready.add(index);
+      }
+    }
+
+    Map<String, Integer> writers = new HashMap<>();
+    Map<String, Integer> attributeWriters = new HashMap<>();
+    CompletionService<StepRun> completion = new ExecutorCompletionService<>(executor);
+    List<Future<StepRun>> futures = new ArrayList<>();
+    Baseline baseline = null;
+    int completed = 0;
+
+    try {
+      while (completed < graph.size()) {
+        while (!ready.isEmpty()) {
+          int index = ready.poll();
+          TaskStep step = graph.getSteps().get(index);
+
+          if (dispatcher != null && step.isAsync()) {
+            dispatcher.dispatch(step, entity, context);
+            completed++;
+            release(graph, index, pending, ready);
+          } else {
+            if (baseline == null) {
+              baseline = new Baseline(new HashMap<>(context),
+                  entity.getAttributes() == null ? null : new HashMap<>(entity.getAttributes()));
+            }
+            Baseline initial = baseline;
+            TaskExecutionContext snapshot = context.snapshot();
+            DynamicEntity working = entity.copy();
+            futures.add(completion.submit(() -> new StepRun(index, initial, snapshot, working,
+                runIsolated(step, working, snapshot, getBudget(step, snapshot)))));
+          }
+        }
+
+        if (completed < graph.size()) {
+          StepRun run = completion.take().get();
+          if (run.applied()) {
+            merge(run.initial().context(), run.snapshot(), context,
+                key -> claim(graph, writers, key, run.index()));
+            mergeAttributes(run.initial().attributes(), run.working(), entity,
+                key -> claim(graph, attributeWriters, key, run.index()));
+            baseline = null;
+          }
+          completed++;
+          release(graph, run.index(), pending, ready);
+        }
+      }
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw propagate(e.getCause());
+    } catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of("error.task.interrupted"));
+    }
+  }
+
+  /**
+   * Marks a step as completed, queuing the successors it was the last predecessor of.
+   *
+   * @param graph the step graph of the phase
+   * @param index the index of the completed step
+   * @param pending the number of uncompleted predecessors of each step
+   * @param ready the queue of the steps ready to start
+   */
+  private static void release(final TaskGraph graph, final int index, final int[] pending, final Deque<Integer> ready) {
+    for (int successor : graph.getSuccessors(index)) {
+      if (--pending[successor] == 0) {
+        ready.add(successor);
+      }
+    }
+  }
+
+  /**
+   * Decides whether a completed step may write a context key, given the step that last wrote it.
+   *
+   * <p>A step overrides the writes of its ancestors, whose results it has seen, and of the independent steps declared
+   * before it.
+   *
+   * @param graph the step graph of the phase
+   * @param writers the index of the step that last wrote each key
+   * @param key the context key
+   * @param index the index of the completed step
+   * @return {@code true} if the step write wins, in which case it is recorded as the last writer of the key
+   */
+  private static boolean claim(final TaskGraph graph,
+                               final Map<String, Integer> writers,
+                               final String key,
+                               final int index) {
+    Integer writer = writers.get(key);
+
+    if (writer != null && writer > index && !graph.isAncestor(writer, index)) {
+      return false;
+    }
+
+    writers.put(key, index);
+    return true;
+  }
+
+  /**
+   * Executes a single step, enforcing its budget if it has one.
+   *
+   * @param step the step to execute
+   * @param entity the dynamic entity the task operates on
+   * @param context the task execution context the step reads and writes
+   */
+  private void executeStep(final TaskStep step, final DynamicEntity entity, final TaskExecutionContext context) {
+    Optional<Duration> budget = getBudget(step, context);
+
+    if (budget.isEmpty()) {
+      step.execute(entity, context);
+      return;
+    }
+
+    Map<String, Object> initial = new HashMap<>(context);
+    Map<String, Object> initialAttributes = entity.getAttributes() == null ? null : new HashMap<>(entity.getAttributes());
+    TaskExecutionContext snapshot = context.snapshot();
+    DynamicEntity working = entity.copy();
+
+    if (runIsolated(step, working, snapshot, budget)) {
+      merge(initial, snapshot, context, key -> true);
+      mergeAttributes(initialAttributes, working, entity, key -> true);
+    }
+  }
+
+  /**
+   * Executes a step against an entity and a context that are not shared, enforcing its budget if it has one.
+   *
+   * @param step the step to execute
+   * @param entity the copy of the entity the step runs against
+   * @param context the snapshot of the context the step runs against
+   * @param budget the budget of the step, empty if it is unbounded
+   * @return {@code true} if the step completed within its budget and its writes must be applied
+   * @throws ApiException if the step exceeds its budget with the {@link TimeoutBehavior#FAIL} behaviour
+   */
+  private boolean runIsolated(final TaskStep step,
+                              final DynamicEntity entity,
+                              final TaskExecutionContext context,
+                              final Optional<Duration> budget) {
+    if (budget.isEmpty()) {
+      step.execute(entity, context);
+      return true;
+    }
+
+    AtomicBoolean background = new AtomicBoolean();
+    FutureTask<Void> task = new FutureTask<>(() -> step.execute(entity, context), null) {
+      @Override
+      protected void done() {
+        leaveBackground(background);
+      }
+    };
+
+    if (budget.get().isPositive()) {
+      TIMED_STEP_THREADS.newThread(task).start();
+
+      try {
+        task.get(budget.get().toNanos(), TimeUnit.NANOSECONDS);
+        return true;
+      } catch (ExecutionException e) {
+        throw propagate(e.getCause());
+      } catch (InterruptedException e) {
+        task.cancel(true);
+        Thread.currentThread().interrupt();
+        throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of("error.task.interrupted"));
+      } catch (TimeoutException e) {
+        // Handled below according to the timeout behaviour of the step.
+      }
+    }
+
+    switch (step.getTimeoutBehavior()) {
+      case CONTINUE -> {
+        if (backgroundSteps.incrementAndGet() > maxBackgroundSteps) {
+          backgroundSteps.decrementAndGet();
+          task.cancel(true);
+          return false;
+        }
+        background.set(true);
+        if (!budget.get().isPositive()) {
+          TIMED_STEP_THREADS.newThread(task).start();
+        }
+        if (task.isDone()) {
+          leaveBackground(background);
+        }
+      }
+      case SKIP -> task.cancel(true);
+      case FAIL -> {
+        task.cancel(true);
+        throw new ApiException(HttpStatus.GATEWAY_TIMEOUT.value(), I18nMessage.of("error.task.timeout",
+            Map.of("task", String.valueOf(step.configuration().getName()), "timeout", budget.get().toString())));
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Stops counting a step as running in the background, once.
+   *
+   * @param background whether the step is counted as running in the background
+   */
+  private void leaveBackground(final AtomicBoolean background) {
+    if (background.compareAndSet(true, false)) {
+      backgroundSteps.decrementAndGet();
+    }
+  }
+
+  /**
+   * Computes the budget of a step.
+   *
+   * @param step the step
+   * @param context the task execution context holding the lifecycle deadline
+   * @return the shorter of the step timeout and the time left before the deadline, or empty if the step is unbounded
+   */
+  private static Optional<Duration> getBudget(final TaskStep step, final TaskExecutionContext context) {
+    Optional<Duration> timeout = step.getTimeout();
+    Optional<Duration> remaining = context.getRemainingTime();
+
+    if (timeout.isPresent() && remaining.isPresent()) {
+      return Optional.of(timeout.get().compareTo(remaining.get()) <= 0 ? timeout.get() : remaining.get());
+    }
+
+    return timeout.or(() -> remaining);
+  }
+
+  /**
+   * Applies to a shared map the entries a step added, changed or removed in its own copy.
+   *
+   * @param initial the content of the shared map when the step started
+   * @param changed the copy the step ran against
+   * @param target the shared map
+   * @param wins whether the write of the step to a given key must be applied
+   */
+  private static void merge(final Map<String, Object> initial,
+                            final Map<String, Object> changed,
+                            final Map<String, Object> target,
+                            final Predicate<String> wins) {
+    changed.forEach((key, value) -> {
+      if ((!initial.containsKey(key) || !Objects.equals(initial.get(key), value)) && wins.test(key)) {
+        target.put(key, value);
+      }
+    });
+    initial.keySet().stream()
+        .filter(key -> !changed.containsKey(key))
+        .filter(wins)
+        .forEach(target::remove);
+  }
+
+  /**
+   * Applies to an entity the attribute changes a step made to its copy, keeping the attributes map of the entity.
+   *
+   * @param initial the attributes of the entity when the step started, {@code null} if it had none
+   * @param working the copy the step ran against
+   * @param entity the entity of the lifecycle
+   * @param wins whether the write of the step to a given attribute must be applied
+   */
+  private static void mergeAttributes(final Map<String, Object> initial,
+                                      final DynamicEntity working,
+                                      final DynamicEntity entity,
+                                      final Predicate<String> wins) {
+    if (working.getAttributes() == null && entity.getAttributes() == null) {
+      return;
+    }
+
+    if (entity.getAttributes() == null) {
+      entity.setAttributes(new HashMap<>());
+    }
+
+    merge(initial == null ? Map.of() : initial, working.getAttributes() == null ? Map.of() : working.getAttributes(),
+        entity.getAttributes(), wins);
+  }
+
+  /**
+   * Converts the failure of a step into an unchecked exception to rethrow.
+   *
+   * @param cause the failure of the step
+   * @return the exception to throw
+   */
+  private static RuntimeException propagate(final Throwable cause) {
+    if (cause instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    return new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+        I18nMessage.of("error.task.failed", Map.of("cause", String.valueOf(cause))));
+  }
+
+  /**
+   * Content of the shared context and entity attributes when a wave of concurrent steps started, shared by the steps
+   * started before the next merge.
+   *
+   * @param context the content of the shared context
+   * @param attributes the attributes of the entity, {@code null} if it had none
+   */
+  private record Baseline(Map<String, Object> context, Map<String, Object> attributes) {
+  }
+
+  /**
+   * Completed concurrent execution of a step.
+   *
+   * @param index the index of the step in its graph
+   * @param initial the content of the shared context and entity when the step started
+   * @param snapshot the snapshot of the context the step ran against
+   * @param working the copy of the entity the step ran against
+   * @param applied whether the step completed within its budget and its writes must be applied
+   */
+  private record StepRun(int index, Baseline initial, TaskExecutionContext snapshot, DynamicEntity working,
+                         boolean applied) {
+  }
+}
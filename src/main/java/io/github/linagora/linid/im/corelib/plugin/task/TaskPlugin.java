@@ -47,4 +47,36 @@ public interface TaskPlugin extends Plugin<String> {
    * @param context the task execution context containing contextual data and state
    */
   void execute(TaskConfiguration configuration, DynamicEntity entity, TaskExecutionContext context);
+
+  /**
+   * Prepares the state derived from the given configuration that can be reused across executions.
+   *
+   * <p>This hook is called once per configuration load, and the returned opaque state is handed back to
+   * {@link #execute(TaskConfiguration, Object, DynamicEntity, TaskExecutionContext)} on each call. Plugins can use it
+   * to perform expensive setup only once (e.g., parsing options, building clients or lookup tables).
+   *
+   * <p>The default implementation prepares nothing and returns {@code null}.
+   *
+   * @param configuration the task configuration containing task options
+   * @return the prepared state, may be {@code null}
+   */
+  default Object prepare(TaskConfiguration configuration) {
+    return null;
+  }
+
+  /**
+   * Executes the task plugin logic using the state previously returned by {@link #prepare(TaskConfiguration)}.
+   *
+   * <p>The default implementation ignores the state and delegates to
+   * {@link #execute(TaskConfiguration, DynamicEntity, TaskExecutionContext)}.
+   *
+   * @param configuration the task configuration containing task options
+   * @param state the state prepared for this configuration, may be {@code null}
+   * @param entity the dynamic entity the task operates on
+   * @param context the task execution context containing contextual data and state
+   */
+  default void execute(TaskConfiguration configuration, Object state, DynamicEntity entity,
+                       TaskExecutionContext context) {
+    execute(configuration, entity, context);
+  }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.TaskConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import org.springframework.http.HttpStatus;
+import tools.jackson.core.type.TypeReference;
+
+/**
+ * A single pre-resolved step of a {@link TaskExecutionPlan}.
+ *
+ * <p>The configuration is the entity-level task declaration merged with the global task configuration it refers to,
+ * so it can be handed to the plugin as-is. The state returned by {@link TaskPlugin#prepare(TaskConfiguration)} is
+ * computed once and kept alongside it.
+ *
+ * @param plugin the task plugin to execute
+ * @param configuration the merged task configuration passed to the plugin
+ * @param state the state prepared by the plugin for this configuration, may be {@code null}
+ */
+public record TaskStep(TaskPlugin plugin, TaskConfiguration configuration, Object state) {
+
+  /**
+   * Name of the task option allowing a task to run concurrently with the adjacent parallel tasks of its phase.
+   */
+  public static final String PARALLEL_OPTION = "parallel";
+
+  /**
+   * Name of the task option running a task asynchronously, after the request, on snapshots of the entity and context.
+   */
+  public static final String ASYNC_OPTION = "async";
+
+  /**
+   * Name of the task option holding the maximum duration of a task, as an ISO-8601 duration (e.g., {@code PT2S}).
+   */
+  public static final String TIMEOUT_OPTION = "timeout";
+
+  /**
+   * Name of the task option holding the {@link TimeoutBehavior} applied when a task exceeds its budget.
+   */
+  public static final String ON_TIMEOUT_OPTION = "onTimeout";
+
+  /**
+   * Name of the task option listing the names of the tasks of the same phase that must complete before this one.
+   */
+  public static final String DEPENDS_ON_OPTION = "dependsOn";
+
+  /**
+   * Type of the task name list options.
+   */
+  private static final TypeReference<List<String>> NAMES_TYPE = new TypeReference<>() {
+  };
+
+  /**
+   * Type of the duration task options.
+   */
+  private static final TypeReference<Duration> DURATION_TYPE = new TypeReference<>() {
+  };
+
+  /**
+   * Type of the timeout behaviour task option.
+   */
+  private static final TypeReference<TimeoutBehavior> TIMEOUT_BEHAVIOR_TYPE = new TypeReference<>() {
+  };
+
+  /**
+   * Type of the boolean task options.
+   */
+  private static final TypeReference<Boolean> BOOLEAN_TYPE = new TypeReference<>() {
+  };
+
+  /**
+   * Creates a step and prepares its state with {@link TaskPlugin#prepare(TaskConfiguration)}.
+   *
+   * @param plugin the task plugin to execute
+   * @param configuration the merged task configuration passed to the plugin
+   */
+  public TaskStep(final TaskPlugin plugin, final TaskConfiguration configuration) {
+    this(plugin, configuration, plugin.prepare(configuration));
+  }
+
+  /**
+   * Executes this step on the given entity.
+   *
+   * @param entity the dynamic entity the task operates on
+   * @param context the task execution context containing contextual data and state
+   */
+  public void execute(final DynamicEntity entity, final TaskExecutionContext context) {
+    plugin.execute(configuration, state, entity, context);
+  }
+
+  /**
+   * Checks that the engine options of this step, when declared, hold values of the expected type, so that a typo does
+   * not silently fall back to the default behaviour.
+   *
+   * @throws ApiException if an option cannot be read, or the {@value #TIMEOUT_OPTION} option is not strictly positive
+   */
+  void checkOptions() {
+    checkOption(PARALLEL_OPTION, BOOLEAN_TYPE, value -> true);
+    checkOption(ASYNC_OPTION, BOOLEAN_TYPE, value -> true);
+    checkOption(TIMEOUT_OPTION, DURATION_TYPE, Duration::isPositive);
+    checkOption(ON_TIMEOUT_OPTION, TIMEOUT_BEHAVIOR_TYPE, value -> true);
+    checkOption(DEPENDS_ON_OPTION, NAMES_TYPE, names -> !names.contains(null));
+  }
+
+  /**
+   * Checks that an option, when declared, can be read and holds a valid value.
+   *
+   * @param option the name of the option
+   * @param type the type of the option
+   * @param valid the condition the read value must meet
+   * @param <T> the type of the option
+   * @throws ApiException if the option is declared and cannot be read or does not meet the condition
+   */
+  private <T> void checkOption(final String option, final TypeReference<T> type, final Predicate<T> valid) {
+    Object raw = configuration.getOptions().get(option);
+
+    if (raw != null && !configuration.getOption(option, type).filter(valid).isPresent()) {
+      throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(), I18nMessage.of(
+          "error.plugin.default.invalid.option", Map.of("option", option, "value", raw.toString())));
+    }
+  }
+
+  /**
+   * Indicates whether this step may run concurrently with the adjacent parallel steps of its phase.
+   *
+   * @return {@code true} if the task declares the {@value #PARALLEL_OPTION} option set to {@code true}
+   */
+  public boolean isParallel() {
+    return configuration.getOption(PARALLEL_OPTION, BOOLEAN_TYPE).orElse(false);
+  }
+
+  /**
+   * Indicates whether this step runs asynchronously, without blocking the request.
+   *
+   * @return {@code true} if the task declares the {@value #ASYNC_OPTION} option set to {@code true}
+   */
+  public boolean isAsync() {
+    return configuration.getOption(ASYNC_OPTION, BOOLEAN_TYPE).orElse(false);
+  }
+
+  /**
+   * Returns the maximum duration of this step.
+   *
+   * @return the value of the {@value #TIMEOUT_OPTION} option, or empty if the step is not bounded by itself
+   */
+  public Optional<Duration> getTimeout() {
+    return configuration.getOption(TIMEOUT_OPTION, DURATION_TYPE);
+  }
+
+  /**
+   * Returns the behaviour applied when this step exceeds its budget.
+   *
+   * @return the value of the {@value #ON_TIMEOUT_OPTION} option, {@link TimeoutBehavior#FAIL} by default
+   */
+  public TimeoutBehavior getTimeoutBehavior() {
+    return configuration.getOption(ON_TIMEOUT_OPTION, TIMEOUT_BEHAVIOR_TYPE).orElse(TimeoutBehavior.FAIL);
+  }
+
+  /**
+   * Returns the names of the tasks this step explicitly depends on.
+   *
+   * @return the value of the {@value #DEPENDS_ON_OPTION} option, or empty if the step relies on declaration order
+   */
+  public Optional<List<String>> getDependencies() {
+    return configuration.getOption(DEPENDS_ON_OPTION, NAMES_TYPE);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import java.util.Locale;
+
+/**
+ * Behaviour of the task engine when a task exceeds its budget, set with the {@value TaskStep#ON_TIMEOUT_OPTION}
+ * option.
+ *
+ * <p>The budget of a task is the shorter of its {@value TaskStep#TIMEOUT_OPTION} option and the time left before the
+ * {@link TaskExecutionContext#getDeadline() deadline} of the lifecycle.
+ */
+public enum TimeoutBehavior {
+
+  /**
+   * The task is interrupted and the request fails with a {@code 504 Gateway Timeout} error.
+   */
+  FAIL,
+
+  /**
+   * The task is interrupted, its context writes are discarded, and the lifecycle goes on with the next task.
+   */
+  SKIP,
+
+  /**
+   * The task keeps running in the background, its context writes are discarded, and the lifecycle goes on with the
+   * next task. When the task engine already runs its maximum number of background tasks, the task is interrupted as
+   * with {@link #SKIP}.
+   */
+  CONTINUE;
+
+  /**
+   * Resolves a behaviour from its case-insensitive name.
+   *
+   * @param value the behaviour name, {@code null} for the default behaviour
+   * @return the matching behaviour, {@link #FAIL} if the value is {@code null}
+   * @throws IllegalArgumentException if the value matches no behaviour
+   */
+  @JsonCreator
+  public static TimeoutBehavior from(final String value) {
+    return value == null ? FAIL : valueOf(value.trim().toUpperCase(Locale.ROOT));
+  }
+}
@@ -32,6 +32,9 @@ import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
 /**
  * Interface defining a validation engine responsible for validating {@link DynamicEntity} instances
  * during specific processing phases.
+ *
+ * <p>Implementations are expected to compile a {@link ValidationExecutionPlan} once per configuration version and
+ * iterate its steps, instead of resolving validation configurations and plugins on every call.
  */
 public interface ValidationEngine {
 
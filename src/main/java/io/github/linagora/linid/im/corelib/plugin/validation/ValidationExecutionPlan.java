@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.validation;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RootConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ValidationConfiguration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.http.HttpStatus;
+import org.springframework.plugin.core.PluginRegistry;
+
+/**
+ * Compiled, immutable index of the validations to run for each entity and lifecycle phase.
+ *
+ * <p>The plan is built once per configuration version with {@link #compile(RootConfiguration, PluginRegistry)}: named
+ * and inline validations of every attribute are merged with the global validation configuration they refer to, their
+ * {@link ValidationPlugin} is resolved and given a chance to {@link ValidationPlugin#prepare(ValidationConfiguration)
+ * prepare} its state, and the resulting {@link ValidationStep}s are flattened per phase in
+ * declaration order. At runtime, finding the validations of a phase costs a single map lookup, leaving only the plugin
+ * calls on the request path.
+ *
+ * <p>Validations without phases apply to every phase. Instances are immutable and can be shared across request
+ * threads. A new plan must be compiled whenever the configuration changes.
+ */
+public final class ValidationExecutionPlan {
+
+  /**
+   * Plan without any validation.
+   */
+  private static final ValidationExecutionPlan EMPTY = new ValidationExecutionPlan(Map.of());
+
+  /**
+   * Compiled steps indexed by entity name.
+   */
+  private final Map<String, EntitySteps> steps;
+
+  /**
+   * Creates a plan from already compiled entity steps.
+   *
+   * @param steps the compiled steps indexed by entity name
+   */
+  private ValidationExecutionPlan(final Map<String, EntitySteps> steps) {
+    this.steps = steps;
+  }
+
+  /**
+   * Returns a plan without any validation.
+   *
+   * @return the empty plan
+   */
+  public static ValidationExecutionPlan empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Compiles the validation plan of all entities declared in the given configuration.
+   *
+   * <p>A validation referring to a global validation by {@code name} inherits its {@code type}, its {@code phases} when
+   * none are declared at attribute level, and its options, which attribute-level options override.
+   *
+   * @param configuration the root configuration to compile
+   * @param plugins the registry used to resolve validation plugins by type
+   * @return the compiled plan
+   * @throws ApiException if a validation has no type or no plugin supports its type
+   */
+  public static ValidationExecutionPlan compile(final RootConfiguration configuration,
+                                                final PluginRegistry<ValidationPlugin, String> plugins) {
+    Map<String, ValidationConfiguration> globalValidations = new HashMap<>();
+    configuration.getValidations().forEach(validation -> globalValidations.putIfAbsent(validation.getName(), validation));
+
+    Map<String, EntitySteps> steps = new HashMap<>();
+
+    for (EntityConfiguration entity : configuration.getEntities()) {
+      List<ValidationStep> entitySteps = new ArrayList<>();
+
+      for (AttributeConfiguration attribute : entity.getAttributes()) {
+        for (ValidationConfiguration validation : attribute.getValidations()) {
+          ValidationConfiguration merged = merge(validation, globalValidations.get(validation.getName()));
+          entitySteps.add(new ValidationStep(attribute.getName(), resolvePlugin(plugins, merged), merged));
+        }
+      }
+
+      steps.put(entity.getName(), EntitySteps.of(entitySteps));
+    }
+
+    return new ValidationExecutionPlan(Collections.unmodifiableMap(steps));
+  }
+
+  /**
+   * Returns the validation steps to run for the given entity and phase, in declaration order.
+   *
+   * @param entityName the name of the entity
+   * @param phase the lifecycle phase (e.g., "beforeCreate", "beforeUpdate")
+   * @return an immutable list of steps, empty if no validation applies to this phase
+   */
+  public List<ValidationStep> getSteps(final String entityName, final String phase) {
+    EntitySteps entitySteps = steps.get(entityName);
+
+    if (entitySteps == null) {
+      return List.of();
+    }
+
+    return entitySteps.byPhase().getOrDefault(phase, entitySteps.allPhases());
+  }
+
+  /**
+   * Returns all validation steps declared on the given attribute, regardless of their phases.
+   *
+   * @param entityName the name of the entity
+   * @param attributeName the name of the attribute
+   * @return an immutable list of steps, empty if the attribute has no validation
+   */
+  public List<ValidationStep> getAttributeSteps(final String entityName, final String attributeName) {
+    EntitySteps entitySteps = steps.get(entityName);
+
+    if (entitySteps == null) {
+      return List.of();
+    }
+
+    return entitySteps.byAttribute().getOrDefault(attributeName, List.of());
+  }
+
+  /**
+   * Merges an attribute-level validation declaration with the global validation configuration it refers to.
+   *
+   * @param validation the attribute-level validation declaration
+   * @param global the global validation configuration with the same name, may be null
+   * @return a new merged validation configuration
+   */
+  private static ValidationConfiguration merge(final ValidationConfiguration validation,
+                                               final ValidationConfiguration global) {
+    if (global == null) {
+      return validation;
+    }
+
+    ValidationConfiguration merged = new ValidationConfiguration();
+    merged.setName(validation.getName());
+    merged.setType(Optional.ofNullable(validation.getType()).orElse(global.getType()));
+    merged.setPhases(hasPhases(validation) ? validation.getPhases() : global.getPhases());
+    global.getOptions().forEach(merged::addOption);
+    validation.getOptions().forEach(merged::addOption);
+    return merged;
+  }
+
+  /**
+   * Indicates whether the given validation is restricted to specific phases.
+   *
+   * @param validation the validation configuration
+   * @return {@code true} if at least one phase is declared
+   */
+  private static boolean hasPhases(final ValidationConfiguration validation) {
+    return validation.getPhases() != null && !validation.getPhases().isEmpty();
+  }
+
+  /**
+   * Resolves the plugin supporting the type of the given validation.
+   *
+   * @param plugins the validation plugin registry
+   * @param validation the merged validation configuration
+   * @return the matching validation plugin
+   * @throws ApiException if the validation has no type or no plugin supports it
+   */
+  private static ValidationPlugin resolvePlugin(final PluginRegistry<ValidationPlugin, String> plugins,
+                                                final ValidationConfiguration validation) {
+    if (validation.getType() == null) {
+      throw new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+          I18nMessage.of("error.validation.type.missing", Map.of("validation", String.valueOf(validation.getName()))));
+    }
+
+    return plugins.getPluginFor(validation.getType())
+        .orElseThrow(() -> new ApiException(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+            I18nMessage.of("error.validation.plugin.unknown", Map.of("type", validation.getType()))));
+  }
+
+  /**
+   * Compiled validation steps of a single entity.
+   *
+   * @param byPhase steps indexed by each phase explicitly declared on the entity validations
+   * @param allPhases steps applying to every phase, used for phases no validation explicitly declares
+   * @param byAttribute steps indexed by attribute name
+   */
+  private record EntitySteps(Map<String, List<ValidationStep>> byPhase,
+                             List<ValidationStep> allPhases,
+                             Map<String, List<ValidationStep>> byAttribute) {
+
+    /**
+     * Indexes the given steps by phase and by attribute.
+     *
+     * @param steps the steps of the entity in declaration order
+     * @return the indexed steps
+     */
+    static EntitySteps of(final List<ValidationStep> steps) {
+      Set<String> phases = new LinkedHashSet<>();
+      steps.forEach(step -> {
+        if (hasPhases(step.configuration())) {
+          phases.addAll(step.configuration().getPhases());
+        }
+      });
+
+      Map<String, List<ValidationStep>> byPhase = new HashMap<>();
+      phases.forEach(phase -> byPhase.put(phase, steps.stream()
+          .filter(step -> !hasPhases(step.configuration()) || step.configuration().getPhases().contains(phase))
+          .toList()));
+
+      Map<String, List<ValidationStep>> byAttribute = new HashMap<>();
+      steps.forEach(step -> byAttribute.computeIfAbsent(step.attributeName(), key -> new ArrayList<>()).add(step));
+      byAttribute.replaceAll((attribute, attributeSteps) -> List.copyOf(attributeSteps));
+
+      return new EntitySteps(
+          Collections.unmodifiableMap(byPhase),
+          steps.stream().filter(step -> !hasPhases(step.configuration())).toList(),
+          Collections.unmodifiableMap(byAttribute));
+    }
+  }
+}
@@ -29,6 +29,8 @@ package io.github.linagora.linid.im.corelib.plugin.validation;
 import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
 import io.github.linagora.linid.im.corelib.plugin.config.dto.ValidationConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.plugin.core.Plugin;
 
@@ -49,4 +51,82 @@ public interface ValidationPlugin extends Plugin<String> {
    */
   Optional<I18nMessage> validate(ValidationConfiguration configuration, Object value,
       TaskExecutionContext context);
+
+  /**
+   * Prepares the state derived from the given configuration that can be reused across validations.
+   *
+   * <p>This hook is called once per configuration load, and the returned opaque state is handed back to
+   * {@link #validate(ValidationConfiguration, Object, Object, TaskExecutionContext)} on each call. Plugins can use it
+   * to perform expensive setup only once (e.g., compiling a pattern, loading a schema, building lookup tables).
+   *
+   * <p>The default implementation prepares nothing and returns {@code null}.
+   *
+   * @param configuration the validation configuration containing validation rules and options
+   * @return the prepared state, may be {@code null}
+   */
+  default Object prepare(ValidationConfiguration configuration) {
+    return null;
+  }
+
+  /**
+   * Validates the provided value using the state previously returned by {@link #prepare(ValidationConfiguration)}.
+   *
+   * <p>The default implementation ignores the state and delegates to
+   * {@link #validate(ValidationConfiguration, Object, TaskExecutionContext)}.
+   *
+   * @param configuration the validation configuration containing validation rules and options
+   * @param state the state prepared for this configuration, may be {@code null}
+   * @param value the value to be validated
+   * @param context the task execution context providing access to global contextual data
+   * @return an {@link Optional} containing an {@link I18nMessage} describing a validation error if
+   *     validation fails, or an empty {@link Optional} if validation passes
+   */
+  default Optional<I18nMessage> validate(ValidationConfiguration configuration, Object state, Object value,
+                                         TaskExecutionContext context) {
+    return validate(configuration, value, context);
+  }
+
+  /**
+   * Validates a list of values against the given validation configuration.
+   *
+   * <p>The default implementation prepares the configuration once with {@link #prepare(ValidationConfiguration)} and
+   * delegates to {@link #validateAll(ValidationConfiguration, Object, List, TaskExecutionContext)}.
+   *
+   * @param configuration the validation configuration containing validation rules and options
+   * @param values the values to be validated
+   * @param context the task execution context providing access to global contextual data
+   * @return the failures with the index of each rejected value, in ascending index order; empty if all values are valid
+   */
+  default List<ValidationFailure> validateAll(ValidationConfiguration configuration, List<?> values,
+                                              TaskExecutionContext context) {
+    return validateAll(configuration, prepare(configuration), values, context);
+  }
+
+  /**
+   * Validates a list of values using the state previously returned by {@link #prepare(ValidationConfiguration)}.
+   *
+   * <p>The default implementation calls
+   * {@link #validate(ValidationConfiguration, Object, Object, TaskExecutionContext)} for each value. Plugins validating
+   * multi-valued attributes or bulk imports can override it to share expensive work across the whole list.
+   *
+   * @param configuration the validation configuration containing validation rules and options
+   * @param state the state prepared for this configuration, may be {@code null}
+   * @param values the values to be validated
+   * @param context the task execution context providing access to global contextual data
+   * @return the failures with the index of each rejected value, in ascending index order; empty if all values are valid
+   */
+  default List<ValidationFailure> validateAll(ValidationConfiguration configuration, Object state, List<?> values,
+                                              TaskExecutionContext context) {
+    List<ValidationFailure> failures = new ArrayList<>();
+
+    for (int index = 0; index < values.size(); index++) {
+      Optional<I18nMessage> error = validate(configuration, state, values.get(index), context);
+
+      if (error.isPresent()) {
+        failures.add(new ValidationFailure(index, error.get()));
+      }
+    }
+
+    return failures;
+  }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.validation;
+
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ValidationConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A single pre-resolved step of a {@link ValidationExecutionPlan}.
+ *
+ * <p>The configuration is the attribute-level validation declaration merged with the global validation configuration
+ * it refers to, so it can be handed to the plugin as-is. The state returned by
+ * {@link ValidationPlugin#prepare(ValidationConfiguration)} is computed once and kept alongside it.
+ *
+ * @param attributeName the name of the attribute to validate
+ * @param plugin the validation plugin to call
+ * @param configuration the merged validation configuration passed to the plugin
+ * @param state the state prepared by the plugin for this configuration, may be {@code null}
+ */
+public record ValidationStep(String attributeName, ValidationPlugin plugin, ValidationConfiguration configuration,
+                             Object state) {
+
+  /**
+   * Creates a step and prepares its state with {@link ValidationPlugin#prepare(ValidationConfiguration)}.
+   *
+   * @param attributeName the name of the attribute to validate
+   * @param plugin the validation plugin to call
+   * @param configuration the merged validation configuration passed to the plugin
+   */
+  public ValidationStep(final String attributeName, final ValidationPlugin plugin,
+                        final ValidationConfiguration configuration) {
+    this(attributeName, plugin, configuration, plugin.prepare(configuration));
+  }
+
+  /**
+   * Validates the given attribute value with this step.
+   *
+   * @param value the value to be validated
+   * @param context the task execution context providing access to global contextual data
+   * @return an {@link Optional} containing an {@link I18nMessage} describing a validation error if validation fails,
+   *     or an empty {@link Optional} if validation passes
+   */
+  public Optional<I18nMessage> validate(final Object value, final TaskExecutionContext context) {
+    return plugin.validate(configuration, state, value, context);
+  }
+
+  /**
+   * Validates a list of values of the attribute with this step.
+   *
+   * @param values the values to be validated
+   * @param context the task execution context providing access to global contextual data
+   * @return the failures with the index of each rejected value; empty if all values are valid
+   */
+  public List<ValidationFailure> validateAll(final List<?> values, final TaskExecutionContext context) {
+    return plugin.validateAll(configuration, state, values, context);
+  }
+}
@@ -33,6 +33,7 @@
  * <p>It requires various Spring and Jackson modules as dependencies.
  */
 module io.github.linagora.linid.im {
+  exports io.github.linagora.linid.im.corelib.cache;
   exports io.github.linagora.linid.im.corelib.exception;
   exports io.github.linagora.linid.im.corelib.i18n;
   exports io.github.linagora.linid.im.corelib.plugin.authentication;
@@ -0,0 +1,306 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: BoundedCache")
+class BoundedCacheTest {
+
+  @Test
+  @DisplayName("Test get loads missing values once and records hits and misses")
+  void testReadThrough() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10, null);
+    AtomicInteger loads = new AtomicInteger();
+
+    assertEquals("A", cache.get("a", key -> {
+      loads.incrementAndGet();
+      return key.toUpperCase();
+    }));
+    assertEquals("A", cache.get("a", key -> "other"));
+    assertNull(cache.get("b", key -> null));
+    assertNull(cache.get("b"));
+
+    CacheStatistics statistics = cache.statistics();
+    assertEquals(1, loads.get());
+    assertEquals(1, statistics.hitCount());
+    assertEquals(3, statistics.missCount());
+    assertEquals(0.25, statistics.hitRate());
+    assertEquals(1, statistics.size());
+  }
+
+  @Test
+  @DisplayName("Test entries expire after their time to live")
+  void testTtl() {
+    AtomicLong now = new AtomicLong();
+    BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofSeconds(5), 0, value -> 1, now::get);
+
+    cache.put("a", "A");
+    now.addAndGet(Duration.ofSeconds(5).toNanos());
+    assertEquals("A", cache.get("a"));
+    now.incrementAndGet();
+    assertNull(cache.get("a"));
+    assertEquals(1, cache.statistics().evictionCount());
+    assertEquals(0, cache.statistics().size());
+  }
+
+  @Test
+  @DisplayName("Test frequently used entries are kept over one-off lookups")
+  void testAdmission() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10, null);
+    for (int i = 0; i < 5; i++) {
+      for (int hot = 0; hot < 9; hot++) {
+        cache.get("hot-" + hot, key -> "H");
+      }
+    }
+    cache.get("warm", key -> "W");
+
+    for (int i = 0; i < 20; i++) {
+      cache.get("scan-" + i, key -> "S");
+    }
+
+    for (int hot = 0; hot < 9; hot++) {
+      assertEquals("H", cache.get("hot-" + hot));
+    }
+    assertEquals(20, cache.statistics().rejectionCount());
+    assertEquals("S", cache.get("scan-19"));
+    assertEquals(10, cache.statistics().size());
+  }
+
+  @Test
+  @DisplayName("Test a new entry is kept in the admission window and promoted once popular")
+  void testWindow() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10, null);
+    for (int i = 0; i < 3; i++) {
+      for (int hot = 0; hot < 10; hot++) {
+        cache.get("hot-" + hot, key -> "H");
+      }
+    }
+
+    cache.put("new", "N");
+    assertEquals("N", cache.get("new"));
+    for (int i = 0; i < 5; i++) {
+      cache.get("new");
+    }
+    cache.get("scan", key -> "S");
+
+    assertEquals("N", cache.get("new"));
+    assertEquals("S", cache.get("scan"));
+    assertNull(cache.get("hot-0"));
+    assertEquals(10, cache.statistics().size());
+    assertEquals(1, cache.statistics().evictionCount());
+    assertEquals(1, cache.statistics().rejectionCount());
+  }
+
+  @Test
+  @DisplayName("Test lookups of cached entries do not wait for a writer holding the lock")
+  void testLookupWithoutLock() throws Exception {
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger blockedTicks = new AtomicInteger();
+    BoundedCache<String, String> cache = new BoundedCache<>(10, null, 0, value -> 1, () -> {
+      if (blockedTicks.getAndDecrement() > 0) {
+        writing.countDown();
+        await(release);
+      }
+      return 0;
+    });
+    cache.put("a", "A");
+    blockedTicks.set(1);
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+      Future<Boolean> write = executor.submit(() -> cache.put("b", "B"));
+      await(writing);
+
+      Future<Long> lookups = executor.submit(() -> IntStream.range(0, 1000)
+          .mapToObj(i -> cache.get("a"))
+          .filter("A"::equals)
+          .count());
+      assertEquals(1000, lookups.get(5, TimeUnit.SECONDS));
+      assertFalse(write.isDone());
+
+      release.countDown();
+      assertTrue(write.get(5, TimeUnit.SECONDS));
+    }
+
+    assertEquals("B", cache.get("b"));
+    assertEquals(1001, cache.statistics().hitCount());
+  }
+
+  @Test
+  @DisplayName("Test total weight is bounded")
+  void testWeight() {
+    BoundedCache<String, String> cache = new BoundedCache<>(100, null, 10, String::length);
+
+    assertFalse(cache.put("big", "x".repeat(11)));
+    assertTrue(cache.put("a", "x".repeat(6)));
+    cache.get("b");
+    cache.get("b");
+    assertTrue(cache.put("b", "x".repeat(6)));
+
+    assertNull(cache.get("a"));
+    assertEquals(6, cache.statistics().weight());
+    assertEquals(1, cache.statistics().size());
+  }
+
+  @Test
+  @DisplayName("Test invalidation removes entries")
+  void testInvalidate() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10, null);
+    cache.put("a", "A");
+    cache.put("b", "B");
+
+    cache.invalidate("a");
+    assertNull(cache.get("a"));
+    assertEquals("B", cache.get("b"));
+
+    cache.invalidateAll();
+    assertEquals(0, cache.statistics().size());
+    assertEquals(0, cache.statistics().weight());
+  }
+
+  @Test
+  @DisplayName("Test getAll loads all missing keys with a single call and keeps the order of the keys")
+  void testGetAll() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10, null);
+    List<List<String>> batches = new ArrayList<>();
+    cache.put("b", "B");
+
+    Map<String, String> values = cache.getAll(List.of("c", "b", "a", "c", "z"), keys -> {
+      batches.add(keys);
+      return Map.of("a", "A", "c", "C");
+    });
+
+    assertEquals(List.of("c", "b", "a"), List.copyOf(values.keySet()));
+    assertEquals(List.of(List.of("c", "a", "z")), batches);
+    assertEquals("A", cache.get("a"));
+    assertNull(cache.get("z"));
+  }
+
+  @Test
+  @DisplayName("Test a load running while its key is invalidated does not cache its stale value")
+  void testStaleLoad() throws Exception {
+    BoundedCache<String, String> cache = new BoundedCache<>(10, null);
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch invalidated = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+      Future<String> stale = executor.submit(() -> cache.get("a", key -> {
+        loading.countDown();
+        await(invalidated);
+        return "stale";
+      }));
+      Future<String> written = executor.submit(() -> {
+        await(loading);
+        cache.invalidate("a");
+        invalidated.countDown();
+        return null;
+      });
+
+      assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+      written.get(5, TimeUnit.SECONDS);
+    }
+
+    assertNull(cache.get("a"));
+    assertEquals("fresh", cache.get("a", key -> "fresh"));
+    assertEquals("fresh", cache.get("a"));
+  }
+
+  @Test
+  @DisplayName("Test getAsync serves hits immediately and drops loads completing after an invalidation")
+  void testGetAsync() throws Exception {
+    BoundedCache<String, String> cache = new BoundedCache<>(10, null);
+    CompletableFuture<String> load = new CompletableFuture<>();
+    cache.put("a", "A");
+
+    assertEquals("A", cache.getAsync("a", key -> CompletableFuture.failedFuture(new IllegalStateException()))
+        .toCompletableFuture().get());
+
+    CompletionStage<String> stale = cache.getAsync("b", key -> load);
+    cache.invalidate("b");
+    load.complete("stale");
+
+    assertEquals("stale", stale.toCompletableFuture().get());
+    assertNull(cache.get("b"));
+    assertEquals("B", cache.getAsync("b", key -> CompletableFuture.completedFuture("B")).toCompletableFuture().get());
+    assertEquals("B", cache.get("b"));
+  }
+
+  @Test
+  @DisplayName("Test a value put while its key is loading is not overwritten by the load")
+  void testPutDuringLoad() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10, null);
+
+    assertEquals("stale", cache.get("a", key -> {
+      cache.put("a", "written");
+      return "stale";
+    }));
+    assertEquals("written", cache.get("a"));
+  }
+
+  @Test
+  @DisplayName("Test a failing load does not prevent later loads from being cached")
+  void testFailingLoad() {
+    BoundedCache<String, String> cache = new BoundedCache<>(10, null);
+
+    assertThrows(IllegalStateException.class, () -> cache.get("a", key -> {
+      throw new IllegalStateException("backend down");
+    }));
+    assertEquals("A", cache.get("a", key -> "A"));
+    assertEquals("A", cache.get("a"));
+  }
+
+  private static void await(final CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.github.linagora.linid.im.corelib.cache.CacheStatistics;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: CachingJinjaService")
+class CachingJinjaServiceTest {
+
+  private static final String GREETING = "{{ greeting }}";
+  private static final String OTHER = "{{ other }}";
+
+  @Test
+  @DisplayName("Test render compiles each template once and reuses it")
+  void testRenderUsesCache() {
+    RecordingJinjaService delegate = new RecordingJinjaService();
+    CachingJinjaService service = new CachingJinjaService(delegate);
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    assertEquals("plain:" + GREETING, service.render(context, GREETING));
+    assertEquals("entity:" + GREETING, service.render(context, new DynamicEntity(), GREETING));
+    assertEquals("map:" + GREETING, service.render(context, new DynamicEntity(), Map.of("key", "value"), GREETING));
+    assertEquals("plain:" + OTHER, service.render(context, OTHER));
+
+    assertEquals(List.of(GREETING, OTHER), delegate.compiled);
+    CacheStatistics statistics = service.getStatistics();
+    assertEquals(2, statistics.hitCount());
+    assertEquals(2, statistics.missCount());
+    assertEquals(2, statistics.size());
+    assertSame(service.compile(GREETING), service.compile(GREETING));
+    assertSame(delegate, service.getDelegate());
+  }
+
+  @Test
+  @DisplayName("Test invalidateAll drops compiled templates")
+  void testInvalidateAll() {
+    RecordingJinjaService delegate = new RecordingJinjaService();
+    CachingJinjaService service = new CachingJinjaService(delegate, 10);
+
+    service.compile(GREETING);
+    service.invalidateAll();
+    service.compile(GREETING);
+
+    assertEquals(List.of(GREETING, GREETING), delegate.compiled);
+  }
+
+  @Test
+  @DisplayName("Test default compile delegates to the matching render method")
+  void testDefaultCompile() {
+    CompiledTemplate template = new RecordingJinjaService().compileWithoutRecording(GREETING);
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    assertEquals(GREETING, template.getSource());
+    assertEquals("plain:" + GREETING, template.render(context));
+    assertEquals("entity:" + GREETING, template.render(context, new DynamicEntity()));
+    assertEquals("map:" + GREETING, template.render(context, null, Map.of("key", "value")));
+  }
+
+  @Test
+  @DisplayName("Test render into an Appendable goes through the cache")
+  void testRenderToAppendable() {
+    RecordingJinjaService delegate = new RecordingJinjaService();
+    CachingJinjaService service = new CachingJinjaService(delegate);
+    TaskExecutionContext context = new TaskExecutionContext();
+    StringWriter out = new StringWriter();
+
+    service.render(context, GREETING, out);
+    service.render(context, new DynamicEntity(), GREETING, out);
+    service.render(context, new DynamicEntity(), Map.of("key", "value"), GREETING, out);
+
+    assertEquals("plain:" + GREETING + "entity:" + GREETING + "map:" + GREETING, out.toString());
+    assertEquals(List.of(GREETING), delegate.compiled);
+  }
+
+  @Test
+  @DisplayName("Test render into an Appendable wraps sink failures")
+  void testRenderToFailingAppendable() {
+    Appendable failing = new Writer() {
+      @Override
+      public void write(char[] buffer, int offset, int length) throws IOException {
+        throw new IOException("closed");
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    CachingJinjaService service = new CachingJinjaService(new RecordingJinjaService());
+
+    UncheckedIOException exception = assertThrows(UncheckedIOException.class,
+        () -> service.render(new TaskExecutionContext(), GREETING, failing));
+
+    assertEquals("closed", exception.getCause().getMessage());
+  }
+
+  private static class RecordingJinjaService implements JinjaService {
+    private final List<String> compiled = new ArrayList<>();
+
+    @Override
+    public String render(TaskExecutionContext taskContext, String template) {
+      return "plain:" + template;
+    }
+
+    @Override
+    public String render(TaskExecutionContext taskContext, DynamicEntity entity, String template) {
+      return "entity:" + template;
+    }
+
+    @Override
+    public String render(TaskExecutionContext taskContext, DynamicEntity entity, Map<String, Object> map,
+                         String template) {
+      return "map:" + template;
+    }
+
+    @Override
+    public CompiledTemplate compile(String template) {
+      compiled.add(template);
+      return JinjaService.super.compile(template);
+    }
+
+    CompiledTemplate compileWithoutRecording(String template) {
+      return JinjaService.super.compile(template);
+    }
+  }
+}
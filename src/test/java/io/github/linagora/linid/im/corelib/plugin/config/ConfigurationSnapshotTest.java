@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AuthenticationConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.LifecycleExecutionMode;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RootConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RouteConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.TaskConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ValidationConfiguration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: ConfigurationSnapshot")
+class ConfigurationSnapshotTest {
+
+  @Test
+  @DisplayName("Test lookups by name return the first declared configuration")
+  void testLookups() {
+    EntityConfiguration user = new EntityConfiguration();
+    user.setName("user");
+    user.setProvider("ldap");
+    EntityConfiguration duplicate = new EntityConfiguration();
+    duplicate.setName("user");
+    duplicate.setProvider("sql");
+    ProviderConfiguration provider = new ProviderConfiguration();
+    provider.setName("ldap");
+    TaskConfiguration task = new TaskConfiguration();
+    task.setName("audit");
+    ValidationConfiguration validation = new ValidationConfiguration();
+    validation.setName("email");
+    AuthenticationConfiguration authentication = new AuthenticationConfiguration();
+    authentication.setType("oidc");
+    RootConfiguration root = new RootConfiguration();
+    root.setEntities(List.of(user, duplicate));
+    root.setProviders(List.of(provider));
+    root.setTasks(List.of(task));
+    root.setValidations(List.of(validation));
+    root.setRoutes(List.of(new RouteConfiguration()));
+    root.setAuthentication(authentication);
+    root.setExecutionMode(LifecycleExecutionMode.VIRTUAL);
+
+    ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(root);
+
+    assertEquals("ldap", snapshot.getEntityConfiguration("user").orElseThrow().getProvider());
+    assertEquals("ldap", snapshot.getProviderConfiguration("ldap").orElseThrow().getName());
+    assertEquals("audit", snapshot.getTaskConfiguration("audit").orElseThrow().getName());
+    assertEquals("email", snapshot.getValidationConfiguration("email").orElseThrow().getName());
+    assertEquals("oidc", snapshot.getAuthenticationConfiguration().orElseThrow().getType());
+    assertEquals(1, snapshot.getRoutesConfiguration().size());
+    assertEquals(LifecycleExecutionMode.VIRTUAL, snapshot.getExecutionMode());
+    assertTrue(snapshot.getEntityConfiguration("group").isEmpty());
+    assertTrue(snapshot.getProviderConfiguration(null).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test the snapshot collections are unmodifiable and detached from the configuration lists")
+  void testImmutable() {
+    List<ProviderConfiguration> providers = new ArrayList<>();
+    ProviderConfiguration provider = new ProviderConfiguration();
+    provider.setName("ldap");
+    providers.add(provider);
+    RootConfiguration root = new RootConfiguration();
+    root.setProviders(providers);
+
+    ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(root);
+    providers.clear();
+
+    assertTrue(snapshot.getProviderConfiguration("ldap").isPresent());
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.getProviders().clear());
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.getEntities().put("user", null));
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.getRoutesConfiguration().add(null));
+    assertTrue(ConfigurationSnapshot.empty().getTasks().isEmpty());
+    assertTrue(ConfigurationSnapshot.empty().getAuthenticationConfiguration().isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test the published configurations are read-only copies")
+  void testReadOnlyEntries() {
+    ValidationConfiguration validation = new ValidationConfiguration();
+    validation.setName("email");
+    validation.setPhases(new ArrayList<>(List.of("create")));
+    AttributeConfiguration attribute = new AttributeConfiguration();
+    attribute.setName("mail");
+    attribute.setValidations(new ArrayList<>(List.of(validation)));
+    attribute.setInputSettings(new HashMap<>(Map.of("options", new ArrayList<>(List.of("a")))));
+    TaskConfiguration task = new TaskConfiguration();
+    task.setName("audit");
+    task.addOption("targets", new HashMap<>(Map.of("level", "info")));
+    EntityConfiguration user = new EntityConfiguration();
+    user.setName("user");
+    user.setAttributes(new ArrayList<>(List.of(attribute)));
+    user.setTasks(new ArrayList<>(List.of(task)));
+    ProviderConfiguration provider = new ProviderConfiguration();
+    provider.setName("ldap");
+    provider.addOption("url", "ldap://localhost");
+    RootConfiguration root = new RootConfiguration();
+    root.setEntities(List.of(user));
+    root.setProviders(List.of(provider));
+    root.setTasks(List.of(task));
+    root.setRoutes(List.of(new RouteConfiguration()));
+
+    ConfigurationSnapshot snapshot = ConfigurationSnapshot.of(root);
+    user.setProvider("sql");
+    provider.addOption("url", "ldap://remote");
+    attribute.setRequired(true);
+
+    EntityConfiguration published = snapshot.getEntityConfiguration("user").orElseThrow();
+    AttributeConfiguration publishedAttribute = published.getAttribute("mail");
+    ProviderConfiguration publishedProvider = snapshot.getProviderConfiguration("ldap").orElseThrow();
+    TaskConfiguration publishedTask = snapshot.getTaskConfiguration("audit").orElseThrow();
+    assertNotSame(user, published);
+    assertNull(published.getProvider());
+    assertEquals("ldap://localhost", publishedProvider.getOption("url").orElseThrow());
+    assertFalse(publishedAttribute.getRequired());
+    assertSame(publishedAttribute, published.getAttributes().get(0));
+    assertSame(published, published.readOnlyCopy());
+
+    assertThrows(UnsupportedOperationException.class, () -> published.setProvider("sql"));
+    assertThrows(UnsupportedOperationException.class, () -> published.getAttributes().clear());
+    assertThrows(UnsupportedOperationException.class, () -> published.getTasks().get(0).setName("other"));
+    assertThrows(UnsupportedOperationException.class, () -> published.getAccess().put("read", true));
+    assertThrows(UnsupportedOperationException.class, () -> publishedAttribute.setRequired(true));
+    assertThrows(UnsupportedOperationException.class, () -> publishedAttribute.getValidations().get(0).setType("x"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> publishedAttribute.getValidations().get(0).getPhases().add("update"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> ((List<Object>) publishedAttribute.getInputSettings().get("options")).add("b"));
+    assertThrows(UnsupportedOperationException.class, () -> publishedProvider.addOption("url", "ldap://remote"));
+    assertThrows(UnsupportedOperationException.class, () -> publishedProvider.getOptions().remove("url"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> ((Map<String, Object>) publishedTask.getOptions().get("targets")).put("level", "debug"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> snapshot.getRoutesConfiguration().get(0).setType("crud"));
+  }
+}
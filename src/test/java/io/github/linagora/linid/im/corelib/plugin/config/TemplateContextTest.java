@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: TemplateContext")
+class TemplateContextTest {
+
+  @Test
+  @DisplayName("Test the view resolves variables from its sources without copying them")
+  void testView() {
+    TaskExecutionContext context = new TaskExecutionContext();
+    DynamicEntity entity = new DynamicEntity();
+    entity.setAttributes(new HashMap<>(Map.of("uid", "jdoe")));
+    Map<String, Object> variables = new HashMap<>(Map.of("dn", "ou=people"));
+
+    TemplateContext view = TemplateContext.of(context, entity, variables);
+
+    assertSame(context, view.get(TemplateContext.CONTEXT_VARIABLE));
+    assertSame(entity.getAttributes(), view.get(TemplateContext.ENTITY_VARIABLE));
+    assertEquals("ou=people", view.get("dn"));
+    assertNull(view.get("missing"));
+    assertEquals(Map.of("context", context, "entity", entity.getAttributes(), "dn", "ou=people"), view);
+    assertEquals(3, view.size());
+
+    variables.put("added", true);
+    entity.getAttributes().put("mail", "jdoe@example.com");
+    assertEquals(true, view.get("added"));
+    assertEquals("jdoe@example.com", ((Map<?, ?>) view.get("entity")).get("mail"));
+    assertThrows(UnsupportedOperationException.class, () -> view.put("dn", "other"));
+  }
+
+  @Test
+  @DisplayName("Test additional variables shadow built-in ones and missing sources are absent")
+  void testShadowingAndMissingSources() {
+    TemplateContext shadowed = TemplateContext.of(new TaskExecutionContext(), null, Map.of("context", "custom"));
+
+    assertEquals("custom", shadowed.get("context"));
+    assertFalse(shadowed.containsKey("entity"));
+    assertEquals(Map.of("context", "custom"), shadowed);
+
+    TemplateContext empty = TemplateContext.of(null, null, null);
+    assertTrue(empty.isEmpty());
+    assertFalse(empty.containsKey("context"));
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: TemplateFastPath")
+class TemplateFastPathTest {
+
+  @Test
+  @DisplayName("Test literal templates render without the engine")
+  void testLiteral() {
+    List<String> compiled = new ArrayList<>();
+    CompiledTemplate template = TemplateFastPath.optimize("ou=people,dc=example", source -> engine(source, compiled));
+    StringWriter out = new StringWriter();
+
+    assertEquals("ou=people,dc=example", template.render(new TaskExecutionContext()));
+    template.render(new TaskExecutionContext(), null, Map.of(), out);
+    assertEquals("ou=people,dc=example", out.toString());
+    assertEquals("ou=people,dc=example", template.getSource());
+    assertTrue(compiled.isEmpty());
+    assertTrue(TemplateFastPath.isLiteral("a } b { c"));
+    assertFalse(TemplateFastPath.isLiteral("{# comment #}"));
+  }
+
+  @Test
+  @DisplayName("Test attribute-only templates read entity attributes directly")
+  void testAttributeOnly() {
+    List<String> compiled = new ArrayList<>();
+    CompiledTemplate template = TemplateFastPath.optimize("uid={{ entity.uid }},ou={{entity.unit}}{{ entity.missing }}",
+        source -> engine(source, compiled), true);
+    DynamicEntity entity = entity(Map.of("uid", "jdoe", "unit", 42L));
+    StringWriter out = new StringWriter();
+
+    assertEquals("uid=jdoe,ou=42", template.render(new TaskExecutionContext(), entity));
+    template.render(new TaskExecutionContext(), entity, Map.of(), out);
+    assertEquals("uid=jdoe,ou=42", out.toString());
+    assertEquals(1, compiled.size());
+  }
+
+  @Test
+  @DisplayName("Test attribute-only templates go through the engine unless the shortcut is enabled")
+  void testAttributeOnlyDisabled() {
+    List<String> compiled = new ArrayList<>();
+    DynamicEntity entity = entity(Map.of("uid", "jdoe", "enabled", true));
+
+    assertEquals("engine", TemplateFastPath.optimize("{{ entity.uid }}", source -> engine(source, compiled))
+        .render(new TaskExecutionContext(), entity));
+    assertEquals("engine", TemplateFastPath.optimize("{{ entity.enabled }}", source -> engine(source, compiled), false)
+        .render(new TaskExecutionContext(), entity));
+    assertEquals(2, compiled.size());
+  }
+
+  @Test
+  @DisplayName("Test attribute-only templates fall back to the engine when needed")
+  void testAttributeOnlyFallback() {
+    CompiledTemplate template = TemplateFastPath.optimize("{{ entity.roles }}", source -> engine(source, new ArrayList<>()),
+        true);
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    assertEquals("engine", template.render(context, entity(Map.of("roles", List.of("admin")))));
+    assertEquals("engine", template.render(context));
+    assertEquals("engine", template.render(context, entity(Map.of("roles", "admin")), Map.of("entity", Map.of())));
+  }
+
+  @Test
+  @DisplayName("Test other templates are compiled by the engine")
+  void testEngine() {
+    List<String> compiled = new ArrayList<>();
+
+    for (String source : List.of("{{ entity.uid | upper }}", "{% if entity.uid %}x{% endif %}", "{{ context.id }}",
+        "{{ entity.uid }}}}", "{{ entity.uid")) {
+      CompiledTemplate template = TemplateFastPath.optimize(source, value -> engine(value, compiled), true);
+      assertEquals("engine", template.render(new TaskExecutionContext(), entity(Map.of("uid", "jdoe"))));
+    }
+
+    assertEquals(5, compiled.size());
+  }
+
+  @Test
+  @DisplayName("Test optimized templates are cached by CachingJinjaService")
+  void testCachingJinjaService() {
+    List<String> compiled = new ArrayList<>();
+    JinjaService delegate = new JinjaService() {
+      @Override
+      public String render(TaskExecutionContext taskContext, String template) {
+        return "engine";
+      }
+
+      @Override
+      public String render(TaskExecutionContext taskContext, DynamicEntity entity, String template) {
+        return "engine";
+      }
+
+      @Override
+      public String render(TaskExecutionContext taskContext, DynamicEntity entity, Map<String, Object> map,
+                           String template) {
+        return "engine";
+      }
+
+      @Override
+      public CompiledTemplate compile(String template) {
+        return engine(template, compiled);
+      }
+    };
+    CachingJinjaService service = new CachingJinjaService(delegate);
+
+    assertEquals("literal", service.render(new TaskExecutionContext(), "literal"));
+    CompiledTemplate template = service.compile("literal");
+
+    assertSame(template, service.compile("literal"));
+    assertTrue(compiled.isEmpty());
+
+    DynamicEntity entity = entity(Map.of("uid", "jdoe"));
+    assertEquals("engine", service.render(new TaskExecutionContext(), entity, "{{ entity.uid }}"));
+    assertEquals("jdoe", new CachingJinjaService(delegate, 10, true)
+        .render(new TaskExecutionContext(), entity, "{{ entity.uid }}"));
+    assertEquals(List.of("{{ entity.uid }}", "{{ entity.uid }}"), compiled);
+  }
+
+  private static DynamicEntity entity(Map<String, Object> attributes) {
+    DynamicEntity entity = new DynamicEntity();
+    entity.setAttributes(new HashMap<>(attributes));
+    return entity;
+  }
+
+  private static CompiledTemplate engine(String source, List<String> compiled) {
+    compiled.add(source);
+    return new CompiledTemplate() {
+      @Override
+      public String getSource() {
+        return source;
+      }
+
+      @Override
+      public String render(TaskExecutionContext taskContext, DynamicEntity entity, Map<String, Object> map) {
+        return "engine";
+      }
+    };
+  }
+}
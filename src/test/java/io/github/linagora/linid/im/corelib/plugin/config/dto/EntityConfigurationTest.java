@@ -28,8 +28,12 @@ package io.github.linagora.linid.im.corelib.plugin.config.dto;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -97,6 +101,24 @@ class EntityConfigurationTest {
     assertTrue(attrs.contains(attr2));
   }
 
+  @Test
+  @DisplayName("Test the attributes list cannot be changed in place")
+  void testAttributesUnmodifiable() {
+    EntityConfiguration entity = new EntityConfiguration();
+    AttributeConfiguration email = new AttributeConfiguration();
+    email.setName("email");
+    AttributeConfiguration login = new AttributeConfiguration();
+    login.setName("login");
+    List<AttributeConfiguration> attributes = new ArrayList<>(List.of(email));
+
+    entity.setAttributes(attributes);
+    attributes.add(login);
+
+    assertEquals(List.of(email), entity.getAttributes());
+    assertNull(entity.getAttribute("login"));
+    assertThrows(UnsupportedOperationException.class, () -> entity.getAttributes().add(login));
+  }
+
   @Test
   @DisplayName("Test getAttributes returns empty list when null")
   void testAttributesReturnsEmptyListWhenNull() {
@@ -106,6 +128,43 @@ class EntityConfigurationTest {
     assertTrue(attrs.isEmpty());
   }
 
+  @Test
+  @DisplayName("Test getAttributesByName indexes attributes by name")
+  void testAttributesByName() {
+    EntityConfiguration entity = new EntityConfiguration();
+    AttributeConfiguration email = new AttributeConfiguration();
+    email.setName("email");
+    AttributeConfiguration login = new AttributeConfiguration();
+    login.setName("login");
+    AttributeConfiguration duplicate = new AttributeConfiguration();
+    duplicate.setName("email");
+
+    entity.setAttributes(List.of(email, login, duplicate));
+    Map<String, AttributeConfiguration> index = entity.getAttributesByName();
+
+    assertEquals(2, index.size());
+    assertSame(email, index.get("email"));
+    assertSame(login, entity.getAttribute("login"));
+    assertNull(entity.getAttribute("unknown"));
+    assertNull(entity.getAttribute(null));
+    assertThrows(UnsupportedOperationException.class, () -> index.put("other", new AttributeConfiguration()));
+  }
+
+  @Test
+  @DisplayName("Test getAttributesByName is rebuilt when attributes are replaced")
+  void testAttributesByNameReplaced() {
+    EntityConfiguration entity = new EntityConfiguration();
+    assertTrue(entity.getAttributesByName().isEmpty());
+
+    AttributeConfiguration attr = new AttributeConfiguration();
+    attr.setName("cn");
+    entity.setAttributes(List.of(attr));
+    assertSame(attr, entity.getAttribute("cn"));
+
+    entity.setAttributes(null);
+    assertNull(entity.getAttribute("cn"));
+  }
+
   @Test
   @DisplayName("Test tasks getter and setter")
   void testTasks() {
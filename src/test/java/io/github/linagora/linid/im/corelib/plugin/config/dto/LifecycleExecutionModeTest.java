@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.config.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: LifecycleExecutionMode")
+class LifecycleExecutionModeTest {
+
+  private static final int REQUESTS = 10_000;
+
+  private static final int PLATFORM_THREADS = 200;
+
+  @Test
+  @DisplayName("Test platform mode runs lifecycles on the calling thread")
+  void testPlatform() {
+    Thread caller = Thread.currentThread();
+
+    CompletableFuture<Thread> future = LifecycleExecutionMode.PLATFORM.supply(Thread::currentThread);
+
+    assertTrue(future.isDone());
+    assertSame(caller, future.join());
+  }
+
+  @Test
+  @DisplayName("Test virtual mode runs each lifecycle on a virtual thread")
+  void testVirtual() {
+    Thread thread = LifecycleExecutionMode.VIRTUAL.supply(Thread::currentThread).join();
+
+    assertTrue(thread.isVirtual());
+    assertTrue(thread.getName().startsWith("linid-lifecycle-"));
+  }
+
+  @Test
+  @DisplayName("Test mode is resolved from its case-insensitive name")
+  void testFrom() {
+    assertSame(LifecycleExecutionMode.VIRTUAL, LifecycleExecutionMode.from(" virtual "));
+    assertSame(LifecycleExecutionMode.PLATFORM, LifecycleExecutionMode.from(null));
+    assertThrows(IllegalArgumentException.class, () -> LifecycleExecutionMode.from("reactive"));
+  }
+
+  @Test
+  @DisplayName("Test virtual mode starts a new thread for each lifecycle")
+  void testVirtualThreadPerLifecycle() {
+    CompletableFuture<Thread> first = LifecycleExecutionMode.VIRTUAL.supply(Thread::currentThread);
+    CompletableFuture<Thread> second = LifecycleExecutionMode.VIRTUAL.supply(Thread::currentThread);
+
+    assertNotSame(first.join(), second.join());
+    assertNotSame(Thread.currentThread(), first.join());
+  }
+
+  @Test
+  @DisplayName("Test virtual mode keeps 10k slow-backend lifecycles in flight where a platform pool keeps its size")
+  void testLoad() throws Exception {
+    assertEquals(REQUESTS, maxInFlight(LifecycleExecutionMode.VIRTUAL.executor(), REQUESTS));
+
+    ExecutorService platformPool = Executors.newFixedThreadPool(PLATFORM_THREADS);
+    try {
+      assertEquals(PLATFORM_THREADS, maxInFlight(platformPool, PLATFORM_THREADS));
+    } finally {
+      platformPool.shutdown();
+    }
+  }
+
+  /**
+   * Starts {@value #REQUESTS} lifecycles waiting on a backend that only answers once the expected number of lifecycles
+   * are waiting on it, then returns the number of lifecycles that were waiting at that time.
+   */
+  private static int maxInFlight(Executor executor, int expected) throws Exception {
+    CountDownLatch waiting = new CountDownLatch(expected);
+    CountDownLatch backend = new CountDownLatch(1);
+    AtomicInteger inFlight = new AtomicInteger();
+    List<CompletableFuture<Boolean>> lifecycles = new ArrayList<>(REQUESTS);
+
+    for (int i = 0; i < REQUESTS; i++) {
+      lifecycles.add(CompletableFuture.supplyAsync(() -> {
+        inFlight.incrementAndGet();
+        waiting.countDown();
+        try {
+          return backend.await(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        } finally {
+          inFlight.decrementAndGet();
+        }
+      }, executor));
+    }
+
+    assertTrue(waiting.await(1, TimeUnit.MINUTES));
+    int count = inFlight.get();
+    backend.countDown();
+
+    CompletableFuture.allOf(lifecycles.toArray(CompletableFuture[]::new)).join();
+    assertEquals(REQUESTS, lifecycles.stream().filter(CompletableFuture::join).count());
+    return count;
+  }
+}
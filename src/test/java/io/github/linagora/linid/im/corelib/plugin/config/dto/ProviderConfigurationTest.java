@@ -29,11 +29,18 @@ package io.github.linagora.linid.im.corelib.plugin.config.dto;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
 
 @DisplayName("Test class: ProviderConfiguration")
 class ProviderConfigurationTest {
@@ -91,4 +98,78 @@ class ProviderConfigurationTest {
         provider.getOptions().get("key"),
         "Options map should reflect added key-value pair");
   }
+
+  @Test
+  @DisplayName("Verify getOption with TypeReference memoizes converted values")
+  void testGetOptionWithTypeReferenceIsMemoized() {
+    ProviderConfiguration provider = new ProviderConfiguration();
+    provider.addOption("hosts", List.of("ldap1", "ldap2"));
+
+    Optional<List<String>> first = provider.getOption("hosts", new TypeReference<>() {});
+    Optional<List<String>> second = provider.getOption("hosts", new TypeReference<>() {});
+
+    assertTrue(first.isPresent());
+    assertEquals(List.of("ldap1", "ldap2"), first.get());
+    assertSame(first.get(), second.get());
+  }
+
+  @Test
+  @DisplayName("Verify getOption with TypeReference converts again when the option changes")
+  void testGetOptionWithTypeReferenceAfterChange() {
+    ProviderConfiguration provider = new ProviderConfiguration();
+    provider.addOption("hosts", List.of("ldap1"));
+    Optional<List<String>> first = provider.getOption("hosts", new TypeReference<>() {});
+
+    provider.addOption("hosts", List.of("ldap2"));
+    Optional<List<String>> second = provider.getOption("hosts", new TypeReference<>() {});
+
+    assertNotSame(first.get(), second.get());
+    assertEquals(List.of("ldap2"), second.get());
+  }
+
+  @Test
+  @DisplayName("Verify getOption with TypeReference returns empty for missing or incompatible options")
+  void testGetOptionWithTypeReferenceEmpty() {
+    ProviderConfiguration provider = new ProviderConfiguration();
+    provider.addOption("number", 42);
+
+    assertTrue(provider.getOption("missing", new TypeReference<List<String>>() {}).isEmpty());
+    assertTrue(provider.getOption("number", new TypeReference<Map<String, String>>() {}).isEmpty());
+    assertTrue(provider.getOption("number", new TypeReference<Map<String, String>>() {}).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Verify getOption with TypeReference converts again when the option is changed in place")
+  void testGetOptionWithTypeReferenceAfterInPlaceChange() {
+    ProviderConfiguration provider = new ProviderConfiguration();
+    List<String> hosts = new ArrayList<>(List.of("ldap1"));
+    provider.addOption("hosts", hosts);
+    Optional<List<String>> first = provider.getOption("hosts", new TypeReference<>() {});
+
+    hosts.add("ldap2");
+    Optional<List<String>> second = provider.getOption("hosts", new TypeReference<>() {});
+
+    assertEquals(List.of("ldap1"), first.get());
+    assertEquals(List.of("ldap1", "ldap2"), second.get());
+  }
+
+  @Test
+  @DisplayName("Verify getOption with TypeReference never shares a modifiable collection")
+  void testGetOptionWithTypeReferenceIsNotShared() {
+    ProviderConfiguration provider = new ProviderConfiguration();
+    provider.addOption("servers", Map.of("ldap1", List.of("389")));
+
+    Optional<Map<String, List<String>>> shared = provider.getOption("servers", new TypeReference<>() {});
+    Optional<ArrayList<String>> first = provider.getOption("servers", new TypeReference<>() {});
+    provider.addOption("hosts", List.of("ldap1"));
+    Optional<ArrayList<String>> fresh = provider.getOption("hosts", new TypeReference<>() {});
+    Optional<ArrayList<String>> again = provider.getOption("hosts", new TypeReference<>() {});
+
+    assertThrows(UnsupportedOperationException.class, () -> shared.get().put("ldap2", List.of()));
+    assertThrows(UnsupportedOperationException.class, () -> shared.get().get("ldap1").add("636"));
+    assertTrue(first.isEmpty());
+    assertNotSame(fresh.get(), again.get());
+    fresh.get().add("ldap2");
+    assertEquals(List.of("ldap1"), again.get());
+  }
 }
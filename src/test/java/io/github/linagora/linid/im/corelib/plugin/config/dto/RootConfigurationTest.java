@@ -131,4 +131,13 @@ class RootConfigurationTest {
     assertNotNull(config.getValidations());
     assertTrue(config.getValidations().isEmpty());
   }
+
+  @Test
+  @DisplayName("Test execution mode defaults to platform threads")
+  void testExecutionMode() {
+    RootConfiguration config = new RootConfiguration();
+    assertSame(LifecycleExecutionMode.PLATFORM, config.getExecutionMode());
+    config.setExecutionMode(LifecycleExecutionMode.VIRTUAL);
+    assertSame(LifecycleExecutionMode.VIRTUAL, config.getExecutionMode());
+  }
 }
@@ -29,13 +29,16 @@ package io.github.linagora.linid.im.corelib.plugin.config.dto;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
 
 @DisplayName("Test class: TaskConfiguration")
 class TaskConfigurationTest {
@@ -104,4 +107,20 @@ class TaskConfigurationTest {
     assertTrue((Boolean) options.get("retry"));
     assertEquals(5, options.get("maxAttempts"));
   }
+
+  @Test
+  @DisplayName("Test getOption with TypeReference memoizes converted values")
+  void testGetOptionWithTypeReference() {
+    TaskConfiguration configuration = new TaskConfiguration();
+    configuration.addOption("levels", List.of("info", "warn"));
+
+    Optional<List<String>> first = configuration.getOption("levels", new TypeReference<>() {});
+    Optional<List<String>> second = configuration.getOption("levels", new TypeReference<>() {});
+    configuration.addOption("levels", List.of("error"));
+    Optional<List<String>> third = configuration.getOption("levels", new TypeReference<>() {});
+
+    assertEquals(List.of("info", "warn"), first.get());
+    assertSame(first.get(), second.get());
+    assertEquals(List.of("error"), third.get());
+  }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+@DisplayName("Test class: AttributeProjection")
+class AttributeProjectionTest {
+
+  @Test
+  @DisplayName("Test parse reads comma-separated and repeated attributes parameters")
+  void testParse() {
+    MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+    parameters.add("attributes", "uid, mail");
+    parameters.add("attributes", "cn,,uid");
+    parameters.add("name", "doe");
+
+    AttributeProjection projection = AttributeProjection.parse(parameters);
+
+    assertEquals(List.of("uid", "mail", "cn"), List.copyOf(projection.names()));
+    assertTrue(projection.includes("cn"));
+    assertFalse(projection.includes("jpegPhoto"));
+  }
+
+  @Test
+  @DisplayName("Test parse returns all attributes when parameter is missing or empty")
+  void testParseAll() {
+    MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+
+    assertSame(AttributeProjection.all(), AttributeProjection.parse(null));
+    assertSame(AttributeProjection.all(), AttributeProjection.parse(parameters));
+    parameters.add("attributes", " , ");
+    assertTrue(AttributeProjection.parse(parameters).isAll());
+    assertTrue(AttributeProjection.all().includes("anything"));
+    assertTrue(AttributeProjection.of(null).isAll());
+    assertTrue(new AttributeProjection(null).isAll());
+  }
+
+  @Test
+  @DisplayName("Test select returns requested attribute configurations in declaration order")
+  void testSelect() {
+    EntityConfiguration configuration = new EntityConfiguration();
+    configuration.setAttributes(List.of(attribute("uid"), attribute("mail"), attribute("jpegPhoto")));
+
+    List<AttributeConfiguration> selected = AttributeProjection.of(Set.of("mail", "uid", "unknown"))
+        .select(configuration);
+
+    assertEquals(List.of("uid", "mail"), selected.stream().map(AttributeConfiguration::getName).toList());
+    assertEquals(3, AttributeProjection.all().select(configuration).size());
+  }
+
+  @Test
+  @DisplayName("Test apply keeps only requested attributes on a copy")
+  void testApply() {
+    DynamicEntity entity = new DynamicEntity();
+    entity.setConfiguration(new EntityConfiguration());
+    Map<String, Object> attributes = new HashMap<>();
+    attributes.put("uid", "jdoe");
+    attributes.put("jpegPhoto", new byte[] {1});
+    entity.setAttributes(attributes);
+
+    DynamicEntity projected = AttributeProjection.of(List.of("uid")).apply(entity);
+
+    assertEquals(Map.of("uid", "jdoe"), projected.getAttributes());
+    assertSame(entity.getConfiguration(), projected.getConfiguration());
+    assertEquals(2, entity.getAttributes().size());
+    assertSame(entity, AttributeProjection.all().apply(entity));
+    assertNull(AttributeProjection.of(List.of("uid")).apply(null));
+  }
+
+  @Test
+  @DisplayName("Test mapper emits only projected attributes")
+  void testMapper() {
+    DynamicEntityMapper mapper = DynamicEntity::getAttributes;
+    DynamicEntity entity = new DynamicEntity();
+    entity.setAttributes(Map.of("uid", "jdoe", "mail", "jdoe@example.com"));
+
+    assertEquals(Map.of("mail", "jdoe@example.com"), mapper.apply(entity, AttributeProjection.of(List.of("mail"))));
+  }
+
+  private static AttributeConfiguration attribute(String name) {
+    AttributeConfiguration attribute = new AttributeConfiguration();
+    attribute.setName(name);
+    return attribute;
+  }
+}
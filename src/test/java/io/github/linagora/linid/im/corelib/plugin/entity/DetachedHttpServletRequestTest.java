@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+@DisplayName("Test class: DetachedHttpServletRequest")
+class DetachedHttpServletRequestTest {
+
+  @Test
+  @DisplayName("Test the snapshot keeps the request members once the original request is recycled")
+  void testOf() {
+    HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    Principal principal = () -> "jdoe";
+    Mockito.when(request.getMethod()).thenReturn("POST");
+    Mockito.when(request.getRequestURI()).thenReturn("/api/users");
+    Mockito.when(request.getHeaderNames()).thenReturn(Collections.enumeration(List.of("Authorization", "Accept")));
+    Mockito.when(request.getHeaders("Authorization")).thenReturn(Collections.enumeration(List.of("Bearer token")));
+    Mockito.when(request.getHeaders("Accept")).thenReturn(Collections.enumeration(List.of("a", "b")));
+    Mockito.when(request.getParameterMap()).thenReturn(Map.of("page", new String[] {"2"}));
+    Mockito.when(request.getAttributeNames()).thenReturn(Collections.enumeration(List.of("tenant")));
+    Mockito.when(request.getAttribute("tenant")).thenReturn("linagora");
+    Mockito.when(request.getLocale()).thenReturn(Locale.FRENCH);
+    Mockito.when(request.getUserPrincipal()).thenReturn(principal);
+    Mockito.when(request.getRemoteUser()).thenReturn("jdoe");
+
+    HttpServletRequest detached = DetachedHttpServletRequest.of(request);
+    Mockito.reset(request);
+
+    assertInstanceOf(DetachedHttpServletRequest.class, detached);
+    assertEquals("POST", detached.getMethod());
+    assertEquals("/api/users", detached.getRequestURI());
+    assertEquals("Bearer token", detached.getHeader("authorization"));
+    assertEquals(List.of("a", "b"), Collections.list(detached.getHeaders("Accept")));
+    assertNull(detached.getHeader("Cookie"));
+    assertEquals("2", detached.getParameter("page"));
+    assertArrayEquals(new String[] {"2"}, detached.getParameterValues("page"));
+    assertEquals("linagora", detached.getAttribute("tenant"));
+    assertEquals(Locale.FRENCH, detached.getLocale());
+    assertSame(principal, detached.getUserPrincipal());
+    assertEquals("jdoe", detached.getRemoteUser());
+    assertSame(detached, DetachedHttpServletRequest.of(detached));
+    assertNull(DetachedHttpServletRequest.of(null));
+  }
+}
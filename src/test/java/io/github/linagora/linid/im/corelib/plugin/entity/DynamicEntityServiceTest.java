@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.LifecycleExecutionMode;
+import io.github.linagora.linid.im.corelib.plugin.provider.BulkItemResult;
+import io.github.linagora.linid.im.corelib.plugin.provider.CursorPage;
+import io.github.linagora.linid.im.corelib.plugin.provider.CursorPageRequest;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+@DisplayName("Test class: DynamicEntityService")
+class DynamicEntityServiceTest {
+
+  private final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+
+  private final MultiValueMap<String, String> filters = new LinkedMultiValueMap<>();
+
+  @Test
+  @DisplayName("Test projected finds strip the attributes that were not requested")
+  void testProjection() {
+    InMemoryService service = new InMemoryService(3);
+    AttributeProjection projection = AttributeProjection.of(List.of("uid"));
+
+    DynamicEntity found = service.handleFindById(request, "user", "1", projection);
+    Page<DynamicEntity> page = service.handleFindAll(request, "user", filters, PageRequest.of(0, 2), projection);
+
+    assertEquals(Map.of("uid", "1"), found.getAttributes());
+    assertNull(service.handleFindById(request, "user", "42", projection));
+    assertEquals(2, page.getContent().size());
+    assertEquals(3, page.getTotalElements());
+    page.forEach(entity -> assertEquals(Set.of("uid"), entity.getAttributes().keySet()));
+  }
+
+  @Test
+  @DisplayName("Test reserved query parameters are not passed as filters")
+  void testReservedParameters() {
+    InMemoryService service = new InMemoryService(3);
+    MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+    parameters.add("mail", "1@linagora.com");
+    parameters.add(AttributeProjection.PARAMETER, "uid");
+    parameters.add(CursorPageRequest.PARAMETER, "token");
+    parameters.add(DynamicEntityService.TOTAL_PARAMETER, "false");
+    AttributeProjection projection = AttributeProjection.parse(parameters);
+
+    service.handleFindAll(request, "user", parameters, PageRequest.of(0, 2), projection);
+    service.handleCount(request, "user", parameters);
+    service.handleFindSlice(request, "user", parameters, PageRequest.of(0, 2));
+    service.handleScroll(request, "user", parameters, CursorPageRequest.first(2, Sort.unsorted()));
+    service.handleStreamAll(request, "user", parameters, PageRequest.of(0, 2)).findFirst();
+
+    assertEquals(5, service.filters.size());
+    service.filters.forEach(seen -> assertEquals(Set.of("mail"), seen.keySet()));
+    assertEquals(4, parameters.size());
+    assertSame(filters, DynamicEntityService.filtersOf(filters));
+    assertNull(DynamicEntityService.filtersOf(null));
+  }
+
+  @Test
+  @DisplayName("Test count and slice delegate to handleFindAll")
+  void testCountAndSlice() {
+    InMemoryService service = new InMemoryService(5);
+
+    assertEquals(5, service.handleCount(request, "user", filters));
+    assertEquals(List.of(PageRequest.of(0, 1)), service.pageables);
+    assertTrue(service.handleFindSlice(request, "user", filters, PageRequest.of(0, 2)).hasNext());
+  }
+
+  @Test
+  @DisplayName("Test scroll walks every entity through continuation tokens")
+  void testScroll() {
+    InMemoryService service = new InMemoryService(5);
+    List<String> ids = new ArrayList<>();
+    CursorPageRequest pageRequest = CursorPageRequest.first(2, Sort.unsorted());
+    CursorPage<DynamicEntity> page;
+
+    do {
+      page = service.handleScroll(request, "user", filters, pageRequest);
+      page.content().forEach(entity -> ids.add((String) entity.getAttributes().get("uid")));
+      pageRequest = pageRequest.next(page.nextCursor());
+    } while (page.hasNext());
+
+    assertEquals(List.of("1", "2", "3", "4", "5"), ids);
+    assertEquals(3, service.pageables.size());
+  }
+
+  @Test
+  @DisplayName("Test streamAll fetches pages lazily")
+  void testStreamAll() {
+    InMemoryService service = new InMemoryService(5);
+
+    try (Stream<DynamicEntity> stream = service.handleStreamAll(request, "user", filters, PageRequest.of(0, 2))) {
+      assertTrue(service.pageables.isEmpty());
+      assertEquals(List.of("1", "2", "3"), stream.limit(3).map(entity -> entity.getAttributes().get("uid")).toList());
+    }
+
+    assertEquals(List.of(PageRequest.of(0, 2), PageRequest.of(1, 2)), service.pageables);
+  }
+
+  @Test
+  @DisplayName("Test bulk handlers report one result per item and keep going after a failure")
+  void testBulk() {
+    InMemoryService service = new InMemoryService(2);
+    Map<String, Map<String, Object>> bodies = new LinkedHashMap<>();
+    bodies.put("1", Map.of("mail", "one@linagora.com"));
+    bodies.put("42", Map.of("mail", "unknown@linagora.com"));
+
+    List<BulkItemResult<DynamicEntity>> created =
+        service.handleBulkCreate(request, "user", List.of(Map.of("uid", "3"), Map.of(), Map.of("uid", "4")));
+    List<BulkItemResult<DynamicEntity>> updated = service.handleBulkUpdate(request, "user", bodies);
+    List<BulkItemResult<DynamicEntity>> patched = service.handleBulkPatch(request, "user", bodies);
+    List<BulkItemResult<Boolean>> deleted = service.handleBulkDelete(request, "user", List.of("3", "42"));
+
+    assertEquals(List.of(true, false, true), created.stream().map(BulkItemResult::isSuccess).toList());
+    assertEquals(1, created.get(1).index());
+    assertInstanceOf(ApiException.class, created.get(1).error());
+    assertEquals("one@linagora.com", updated.get(0).value().getAttributes().get("mail"));
+    assertFalse(updated.get(1).isSuccess());
+    assertEquals("1", patched.get(0).value().getAttributes().get("uid"));
+    assertFalse(patched.get(1).isSuccess());
+    assertEquals(List.of(true, false), deleted.stream().map(BulkItemResult::value).toList());
+  }
+
+  @Test
+  @DisplayName("Test async handlers run the synchronous handlers on the given executor")
+  void testAsync() throws Exception {
+    InMemoryService service = new InMemoryService(1) {
+      @Override
+      public LifecycleExecutionMode getExecutionMode() {
+        return LifecycleExecutionMode.VIRTUAL;
+      }
+    };
+
+    Executor executor = service.getExecutionMode().executor();
+
+    assertEquals("2", service.handleCreateAsync(request, "user", Map.of("uid", "2"), executor).toCompletableFuture()
+        .get().getAttributes().get("uid"));
+    assertEquals("x", service.handleUpdateAsync(request, "user", "2", Map.of("cn", "x"), executor)
+        .toCompletableFuture().get().getAttributes().get("cn"));
+    assertEquals("y", service.handlePatchAsync(request, "user", "2", Map.of("cn", "y"), executor)
+        .toCompletableFuture().get().getAttributes().get("cn"));
+    assertEquals("1", service.handleFindByIdAsync(request, "user", "1", executor).toCompletableFuture().get()
+        .getAttributes().get("uid"));
+    assertEquals(2, service.handleFindAllAsync(request, "user", filters, PageRequest.of(0, 10), executor)
+        .toCompletableFuture().get().getTotalElements());
+    assertTrue(service.handleDeleteAsync(request, "user", "2", executor).toCompletableFuture().get());
+    assertEquals(6, service.threads.size());
+    assertTrue(service.threads.stream().allMatch(Thread::isVirtual));
+  }
+
+  @Test
+  @DisplayName("Test execution mode defaults to the calling platform thread")
+  void testDefaultExecutionMode() {
+    InMemoryService service = new InMemoryService(1);
+
+    assertSame(LifecycleExecutionMode.PLATFORM, service.getExecutionMode());
+    assertTrue(service.handleDeleteAsync(request, "user", "1", service.getExecutionMode().executor())
+        .toCompletableFuture().isDone());
+    assertTrue(service.threads.isEmpty());
+  }
+
+  /**
+   * Service keeping entities in memory and implementing only the abstract methods of {@link DynamicEntityService}.
+   */
+  private static class InMemoryService implements DynamicEntityService {
+
+    private final Map<String, Map<String, Object>> entities = new TreeMap<>();
+
+    private final List<Pageable> pageables = new ArrayList<>();
+
+    private final List<MultiValueMap<String, String>> filters = new ArrayList<>();
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    InMemoryService(final int size) {
+      for (int i = 1; i <= size; i++) {
+        entities.put(String.valueOf(i), Map.of("uid", String.valueOf(i), "mail", i + "@linagora.com"));
+      }
+    }
+
+    @Override
+    public void validateAttribute(final String entityName, final String attributeName, final Object value) {
+    }
+
+    @Override
+    public DynamicEntity handleCreate(final HttpServletRequest request, final String entity,
+                                      final Map<String, Object> body) {
+      if (!body.containsKey("uid")) {
+        throw new ApiException(400, I18nMessage.of("error.uid.missing"));
+      }
+      return save((String) body.get("uid"), body);
+    }
+
+    @Override
+    public DynamicEntity handleUpdate(final HttpServletRequest request, final String entity, final String id,
+                                      final Map<String, Object> body) {
+      Map<String, Object> attributes = new LinkedHashMap<>(body);
+      attributes.put("uid", find(id).get("uid"));
+      return save(id, attributes);
+    }
+
+    @Override
+    public DynamicEntity handlePatch(final HttpServletRequest request, final String entity, final String id,
+                                     final Map<String, Object> body) {
+      Map<String, Object> attributes = new LinkedHashMap<>(find(id));
+      attributes.putAll(body);
+      return save(id, attributes);
+    }
+
+    @Override
+    public boolean handleDelete(final HttpServletRequest request, final String entity, final String id) {
+      record();
+      return entities.remove(id) != null;
+    }
+
+    @Override
+    public DynamicEntity handleFindById(final HttpServletRequest request, final String entity, final String id) {
+      record();
+      return entities.containsKey(id) ? toEntity(entities.get(id)) : null;
+    }
+
+    @Override
+    public Page<DynamicEntity> handleFindAll(final HttpServletRequest request, final String entity,
+                                             final MultiValueMap<String, String> filters, final Pageable pageable) {
+      record();
+      pageables.add(pageable);
+      this.filters.add(filters);
+      List<DynamicEntity> content = entities.values().stream()
+          .skip(pageable.getOffset())
+          .limit(pageable.getPageSize())
+          .map(InMemoryService::toEntity)
+          .toList();
+      return new PageImpl<>(content, pageable, entities.size());
+    }
+
+    private Map<String, Object> find(final String id) {
+      if (!entities.containsKey(id)) {
+        throw new ApiException(404, I18nMessage.of("error.entity.not.found"));
+      }
+      return entities.get(id);
+    }
+
+    private DynamicEntity save(final String id, final Map<String, Object> attributes) {
+      record();
+      entities.put(id, Map.copyOf(attributes));
+      return toEntity(attributes);
+    }
+
+    private void record() {
+      if (Thread.currentThread().isVirtual()) {
+        threads.add(Thread.currentThread());
+      }
+    }
+
+    private static DynamicEntity toEntity(final Map<String, Object> attributes) {
+      DynamicEntity entity = new DynamicEntity();
+      entity.setAttributes(new LinkedHashMap<>(attributes));
+      return entity;
+    }
+  }
+}
@@ -27,14 +27,19 @@
 package io.github.linagora.linid.im.corelib.plugin.entity;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -108,4 +113,26 @@ class DynamicEntityTest {
 
     assertTrue(result.isEmpty());
   }
+
+  @Test
+  @DisplayName("Test copy deeply copies the attributes and shares the configuration")
+  @SuppressWarnings("unchecked")
+  void testCopy() {
+    DynamicEntity entity = new DynamicEntity();
+    entity.setConfiguration(new EntityConfiguration());
+    Map<String, Object> address = new HashMap<>(Map.of("city", "Paris"));
+    entity.setAttributes(new HashMap<>(Map.of("uid", "jdoe", "address", address,
+        "mails", new ArrayList<>(List.of("a@linagora.com")), "groups", new HashSet<>(Set.of("admins")))));
+
+    DynamicEntity copy = entity.copy();
+    ((Map<String, Object>) copy.getAttributes().get("address")).put("city", "Lyon");
+    ((List<Object>) copy.getAttributes().get("mails")).add("b@linagora.com");
+    ((Set<Object>) copy.getAttributes().get("groups")).clear();
+    copy.getAttributes().put("uid", "other");
+
+    assertSame(entity.getConfiguration(), copy.getConfiguration());
+    assertEquals(Map.of("uid", "jdoe", "address", Map.of("city", "Paris"), "mails", List.of("a@linagora.com"),
+        "groups", Set.of("admins")), entity.getAttributes());
+    assertNull(new DynamicEntity().copy().getAttributes());
+  }
 }
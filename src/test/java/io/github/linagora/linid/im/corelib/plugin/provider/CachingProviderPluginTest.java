@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.cache.CacheStatistics;
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+
+@DisplayName("Test class: CachingProviderPlugin")
+class CachingProviderPluginTest {
+
+  @Test
+  @DisplayName("Test findById is served from the cache when enabled")
+  void testFindByIdCached() {
+    CountingProviderPlugin delegate = new CountingProviderPlugin(3);
+    CachingProviderPlugin plugin = new CachingProviderPlugin(delegate);
+    ProviderConfiguration configuration = configuration(Map.of("maxEntries", 10, "ttl", "PT5M"));
+
+    DynamicEntity first = plugin.findById(new TaskExecutionContext(), configuration, "1", user());
+    DynamicEntity second = plugin.findById(new TaskExecutionContext(), configuration, "1", user());
+
+    assertNotSame(first, second);
+    assertEquals(first.getAttributes(), second.getAttributes());
+    assertEquals(List.of("1"), delegate.lookups);
+
+    CacheStatistics statistics = plugin.getStatistics("directory").orElseThrow();
+    assertEquals(1, statistics.hitCount());
+    assertEquals(1, statistics.missCount());
+    assertTrue(statistics.weight() > 0);
+  }
+
+  @Test
+  @DisplayName("Test callers modifying found entities do not alter the cached ones")
+  void testCachedEntitiesAreCopied() {
+    CountingProviderPlugin delegate = new CountingProviderPlugin(3);
+    CachingProviderPlugin plugin = new CachingProviderPlugin(delegate);
+    ProviderConfiguration configuration = configuration(Map.of());
+
+    plugin.findById(new TaskExecutionContext(), configuration, "1", user()).getAttributes().put("id", "changed");
+    plugin.findAllByIds(new TaskExecutionContext(), configuration, List.of("2"), user()).get("2").getAttributes()
+        .put("id", "changed");
+    plugin.findAllByIds(new TaskExecutionContext(), configuration, List.of("1", "2"), user()).values()
+        .forEach(entity -> entity.getAttributes().put("id", "changed"));
+
+    assertEquals("1", plugin.findById(new TaskExecutionContext(), configuration, "1", user()).getAttributes().get("id"));
+    assertEquals("2", plugin.findAllByIds(new TaskExecutionContext(), configuration, List.of("2"), user()).get("2")
+        .getAttributes().get("id"));
+    assertEquals(List.of("1", "2"), delegate.lookups);
+  }
+
+  @Test
+  @DisplayName("Test configurations without cache option are not cached")
+  void testCacheDisabled() {
+    CountingProviderPlugin delegate = new CountingProviderPlugin(3);
+    CachingProviderPlugin plugin = new CachingProviderPlugin(delegate);
+    ProviderConfiguration configuration = new ProviderConfiguration();
+    configuration.setName("directory");
+
+    plugin.findById(new TaskExecutionContext(), configuration, "1", user());
+    plugin.findById(new TaskExecutionContext(), configuration, "1", user());
+
+    assertEquals(List.of("1", "1"), delegate.lookups);
+    assertTrue(plugin.getStatistics("directory").isEmpty());
+    assertTrue(plugin.supports("memory"));
+  }
+
+  @Test
+  @DisplayName("Test writes through the decorator invalidate cached entities")
+  void testInvalidation() {
+    CountingProviderPlugin delegate = new CountingProviderPlugin(3);
+    CachingProviderPlugin plugin = new CachingProviderPlugin(delegate);
+    ProviderConfiguration configuration = configuration(Map.of());
+
+    DynamicEntity cached = plugin.findById(new TaskExecutionContext(), configuration, "1", user());
+    plugin.patch(new TaskExecutionContext(), configuration, "1", user());
+    DynamicEntity reloaded = plugin.findById(new TaskExecutionContext(), configuration, "1", user());
+    plugin.deleteAll(new TaskExecutionContext(), configuration, List.of("1"), user());
+    plugin.findById(new TaskExecutionContext(), configuration, "1", user());
+
+    assertNotSame(cached, reloaded);
+    assertEquals(List.of("1", "1", "1"), delegate.lookups);
+  }
+
+  @Test
+  @DisplayName("Test entities are cached per entity name")
+  void testEntityScope() {
+    CountingProviderPlugin delegate = new CountingProviderPlugin(3);
+    CachingProviderPlugin plugin = new CachingProviderPlugin(delegate);
+    ProviderConfiguration configuration = configuration(Map.of());
+
+    plugin.findById(new TaskExecutionContext(), configuration, "1", user());
+    plugin.findById(new TaskExecutionContext(), configuration, "1", new DynamicEntity());
+
+    assertEquals(List.of("1", "1"), delegate.lookups);
+  }
+
+  @Test
+  @DisplayName("Test findAllByIds only fetches missing entities")
+  void testFindAllByIds() {
+    CountingProviderPlugin delegate = new CountingProviderPlugin(4);
+    CachingProviderPlugin plugin = new CachingProviderPlugin(delegate);
+    ProviderConfiguration configuration = configuration(Map.of());
+
+    plugin.findById(new TaskExecutionContext(), configuration, "2", user());
+    Map<String, DynamicEntity> entities = plugin.findAllByIds(new TaskExecutionContext(), configuration,
+        List.of("3", "2", "9", "0"), user());
+
+    assertEquals(List.of("3", "2", "0"), List.copyOf(entities.keySet()));
+    assertEquals(List.of("2", "3", "9", "0"), delegate.lookups);
+  }
+
+  @Test
+  @DisplayName("Test settings changes rebuild the cache")
+  void testSettingsChange() {
+    CountingProviderPlugin delegate = new CountingProviderPlugin(3);
+    CachingProviderPlugin plugin = new CachingProviderPlugin(delegate);
+
+    plugin.findById(new TaskExecutionContext(), configuration(Map.of("maxEntries", 10)), "1", user());
+    plugin.findById(new TaskExecutionContext(), configuration(Map.of("maxEntries", 20)), "1", user());
+    plugin.findById(new TaskExecutionContext(), configuration(Map.of("maxEntries", 20)), "1", user());
+
+    assertEquals(List.of("1", "1"), delegate.lookups);
+  }
+
+  @Test
+  @DisplayName("Test cache settings are read from the provider options")
+  void testSettings() {
+    ProviderCacheSettings settings = configuration(Map.of("ttl", "PT5M", "maxWeight", 2048))
+        .getOption(ProviderCacheSettings.OPTION, new TypeReference<ProviderCacheSettings>() {
+        })
+        .orElseThrow();
+
+    assertEquals(Duration.ofMinutes(5), settings.ttl());
+    assertEquals(ProviderCacheSettings.DEFAULT_MAX_ENTRIES, settings.effectiveMaxEntries());
+    assertEquals(2048, settings.effectiveMaxWeight());
+  }
+
+  @Test
+  @DisplayName("Test asynchronous calls go to the delegate, reads being served from the cache on hits")
+  void testAsync() throws Exception {
+    CountingProviderPlugin delegate = new CountingProviderPlugin(3);
+    CachingProviderPlugin plugin = new CachingProviderPlugin(delegate);
+    ProviderConfiguration configuration = configuration(Map.of());
+    Executor executor = Runnable::run;
+
+    DynamicEntity found = plugin.findByIdAsync(new TaskExecutionContext(), configuration, "1", user(), executor)
+        .toCompletableFuture().get();
+    found.getAttributes().put("id", "changed");
+    DynamicEntity hit = plugin.findByIdAsync(new TaskExecutionContext(), configuration, "1", user(), executor)
+        .toCompletableFuture().get();
+    plugin.patchAsync(new TaskExecutionContext(), configuration, "1", user(), executor).toCompletableFuture().get();
+    plugin.findByIdAsync(new TaskExecutionContext(), configuration, "1", user(), executor).toCompletableFuture().get();
+
+    assertEquals("1", hit.getAttributes().get("id"));
+    assertEquals(List.of("findByIdAsync", "patchAsync", "findByIdAsync"), delegate.asyncCalls);
+    assertEquals(List.of("1", "1"), delegate.lookups);
+  }
+
+  @Test
+  @DisplayName("Test invalid cache settings are rejected when the configuration is read")
+  void testInvalidSettings() {
+    CachingProviderPlugin plugin = new CachingProviderPlugin(new CountingProviderPlugin(3));
+
+    for (Map<String, Object> cache : List.<Map<String, Object>>of(Map.of("maxEntries", 0), Map.of("maxWeight", -1),
+        Map.of("ttl", "PT-1S"), Map.of("ttl", "PT0S"), Map.of("maxEntries", "many"))) {
+      ApiException exception = assertThrows(ApiException.class,
+          () -> plugin.findById(new TaskExecutionContext(), configuration(cache), "1", user()));
+
+      assertEquals(500, exception.getStatusCode());
+      assertEquals("error.plugin.default.invalid.option", exception.getError().key());
+      assertEquals("cache", exception.getError().context().get("option"));
+    }
+  }
+
+  private static ProviderConfiguration configuration(Map<String, Object> cache) {
+    ProviderConfiguration configuration = new ProviderConfiguration();
+    configuration.setName("directory");
+    configuration.addOption(ProviderCacheSettings.OPTION, cache);
+    return configuration;
+  }
+
+  private static DynamicEntity user() {
+    EntityConfiguration configuration = new EntityConfiguration();
+    configuration.setName("users");
+    DynamicEntity entity = new DynamicEntity();
+    entity.setConfiguration(configuration);
+    return entity;
+  }
+
+  static class CountingProviderPlugin extends ProviderPluginTest.InMemoryProviderPlugin {
+    final List<String> lookups = new ArrayList<>();
+    final List<String> asyncCalls = new ArrayList<>();
+
+    CountingProviderPlugin(int size) {
+      super(size);
+    }
+
+    @Override
+    public DynamicEntity findById(TaskExecutionContext context, ProviderConfiguration configuration, String id,
+                                  DynamicEntity dynamicEntity) {
+      lookups.add(id);
+      DynamicEntity entity = super.findById(context, configuration, id, dynamicEntity);
+      return entity == null ? null : copy(entity);
+    }
+
+    @Override
+    public CompletionStage<DynamicEntity> findByIdAsync(TaskExecutionContext context,
+                                                        ProviderConfiguration configuration, String id,
+                                                        DynamicEntity dynamicEntity, Executor executor) {
+      asyncCalls.add("findByIdAsync");
+      return super.findByIdAsync(context, configuration, id, dynamicEntity, executor);
+    }
+
+    @Override
+    public CompletionStage<DynamicEntity> patchAsync(TaskExecutionContext context, ProviderConfiguration configuration,
+                                                     String id, DynamicEntity dynamicEntity, Executor executor) {
+      asyncCalls.add("patchAsync");
+      return super.patchAsync(context, configuration, id, dynamicEntity, executor);
+    }
+
+    private static DynamicEntity copy(DynamicEntity entity) {
+      DynamicEntity copy = new DynamicEntity();
+      copy.setAttributes(entity.getAttributes());
+      return copy;
+    }
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Test class: EntityLoader")
+class EntityLoaderTest {
+
+  @Test
+  @DisplayName("Test pending ids are fetched in a single deduplicated batch")
+  void testCoalescing() {
+    BatchingProviderPlugin plugin = new BatchingProviderPlugin(5);
+    EntityLoader loader = EntityLoader.of(new TaskExecutionContext(), plugin, configuration("p"), new DynamicEntity());
+
+    loader.load("1");
+    loader.load("3");
+    loader.load("1");
+
+    assertEquals("3", loader.get("3").getAttributes().get("id"));
+    assertEquals("1", loader.get("1").getAttributes().get("id"));
+    assertEquals(List.of(List.of("1", "3")), plugin.batches);
+  }
+
+  @Test
+  @DisplayName("Test results and misses are cached for the context lifetime")
+  void testCache() {
+    BatchingProviderPlugin plugin = new BatchingProviderPlugin(2);
+    TaskExecutionContext context = new TaskExecutionContext();
+    EntityLoader loader = EntityLoader.of(context, plugin, configuration("p"), new DynamicEntity());
+
+    Map<String, DynamicEntity> entities = loader.getAll(List.of("0", "9", "0"));
+
+    assertEquals(List.of("0"), List.copyOf(entities.keySet()));
+    assertNull(loader.get("9"));
+    assertSame(entities.get("0"), EntityLoader.of(context, plugin, configuration("p"), new DynamicEntity()).get("0"));
+    assertEquals(1, plugin.batches.size());
+
+    loader.clear("0");
+    loader.get("0");
+    assertEquals(List.of("0"), plugin.batches.get(1));
+  }
+
+  @Test
+  @DisplayName("Test loaders are isolated per context and provider configuration")
+  void testScope() {
+    BatchingProviderPlugin plugin = new BatchingProviderPlugin(2);
+    TaskExecutionContext context = new TaskExecutionContext();
+    EntityLoader loader = EntityLoader.of(context, plugin, configuration("p"), new DynamicEntity());
+
+    assertNotSame(loader, EntityLoader.of(context, plugin, configuration("q"), new DynamicEntity()));
+    assertNotSame(loader, EntityLoader.of(new TaskExecutionContext(), plugin, configuration("p"), new DynamicEntity()));
+
+    DynamicEntity primed = new DynamicEntity();
+    loader.prime("1", primed);
+    assertSame(primed, loader.get("1"));
+    assertEquals(0, plugin.batches.size());
+  }
+
+  @Test
+  @DisplayName("Test concurrent lookups share one loader that stays out of the context entries")
+  void testAttachment() throws Exception {
+    BatchingProviderPlugin plugin = new BatchingProviderPlugin(2);
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      List<Future<EntityLoader>> loaders = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        loaders.add(executor.submit(() -> EntityLoader.of(context, plugin, configuration("p"), new DynamicEntity())));
+      }
+      for (Future<EntityLoader> loader : loaders) {
+        assertSame(loaders.get(0).get(), loader.get());
+      }
+    }
+
+    assertTrue(context.isEmpty());
+    assertSame(EntityLoader.of(context, plugin, configuration("p"), new DynamicEntity()),
+        EntityLoader.of(context.snapshot(), plugin, configuration("p"), new DynamicEntity()));
+  }
+
+  @Test
+  @DisplayName("Test the provider is called without blocking the other users of the loader")
+  void testDispatchOutsideLock() throws Exception {
+    CountDownLatch fetching = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    BatchingProviderPlugin plugin = new BatchingProviderPlugin(3, ids -> {
+      fetching.countDown();
+      await(release);
+    });
+    EntityLoader loader = EntityLoader.of(new TaskExecutionContext(), plugin, configuration("p"), new DynamicEntity());
+    DynamicEntity primed = new DynamicEntity();
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+      Future<DynamicEntity> first = executor.submit(() -> loader.get("1"));
+      assertTrue(fetching.await(10, TimeUnit.SECONDS));
+      Future<DynamicEntity> second = executor.submit(() -> loader.get("1"));
+
+      loader.load("2");
+      loader.prime("0", primed);
+      assertSame(primed, loader.get("0"));
+      assertFalse(first.isDone());
+
+      release.countDown();
+      assertEquals("1", first.get().getAttributes().get("id"));
+      assertSame(first.get(), second.get());
+    }
+
+    assertEquals(List.of("1"), plugin.batches.getFirst());
+    assertEquals(1, plugin.batches.stream().filter(batch -> batch.contains("1")).count());
+  }
+
+  @Test
+  @DisplayName("Test IDs registered during the coalescing window join the batch of the waiting reader")
+  void testWindow() throws Exception {
+    BatchingProviderPlugin plugin = new BatchingProviderPlugin(3);
+    EntityLoader loader = EntityLoader.of(new TaskExecutionContext(), plugin, configuration("p"), new DynamicEntity(),
+        Duration.ofMinutes(1));
+    loader.load("1");
+
+    try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+      Future<DynamicEntity> reader = executor.submit(() -> loader.get("1"));
+      loader.load("2");
+      loader.dispatch();
+
+      assertEquals("1", reader.get(10, TimeUnit.SECONDS).getAttributes().get("id"));
+    }
+
+    assertEquals(List.of(List.of("1", "2")), plugin.batches);
+    assertEquals("2", loader.get("2").getAttributes().get("id"));
+  }
+
+  @Test
+  @DisplayName("Test a failed batch is reported to its readers and fetched again on the next access")
+  void testFailure() {
+    AtomicBoolean failing = new AtomicBoolean(true);
+    BatchingProviderPlugin plugin = new BatchingProviderPlugin(2, ids -> {
+      if (failing.getAndSet(false)) {
+        throw new ApiException(503, I18nMessage.of("error.backend"));
+      }
+    });
+    EntityLoader loader = EntityLoader.of(new TaskExecutionContext(), plugin, configuration("p"), new DynamicEntity());
+
+    ApiException exception = assertThrows(ApiException.class, () -> loader.get("1"));
+
+    assertEquals(503, exception.getStatusCode());
+    assertEquals("1", loader.get("1").getAttributes().get("id"));
+    assertEquals(2, plugin.batches.size());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  private static ProviderConfiguration configuration(String name) {
+    ProviderConfiguration configuration = new ProviderConfiguration();
+    configuration.setName(name);
+    return configuration;
+  }
+
+  static class BatchingProviderPlugin extends ProviderPluginTest.InMemoryProviderPlugin {
+    final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    final Consumer<Collection<String>> backend;
+
+    BatchingProviderPlugin(int size) {
+      this(size, ids -> {
+      });
+    }
+
+    BatchingProviderPlugin(int size, Consumer<Collection<String>> backend) {
+      super(size);
+      this.backend = backend;
+    }
+
+    @Override
+    public Map<String, DynamicEntity> findAllByIds(TaskExecutionContext context, ProviderConfiguration configuration,
+                                                   Collection<String> ids, DynamicEntity dynamicEntity) {
+      batches.add(List.copyOf(ids));
+      backend.accept(ids);
+      return super.findAllByIds(context, configuration, ids, dynamicEntity);
+    }
+  }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.provider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ProviderConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.AttributeProjection;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+@DisplayName("Test class: ProviderPlugin")
+class ProviderPluginTest {
+
+  @Test
+  @DisplayName("Test streamAll walks all pages lazily")
+  void testStreamAll() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(5);
+
+    try (Stream<DynamicEntity> stream = plugin.streamAll(new TaskExecutionContext(), new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), PageRequest.of(0, 2), new DynamicEntity())) {
+      List<Object> ids = stream.limit(3).map(entity -> entity.getAttributes().get("id")).toList();
+
+      assertEquals(List.of("0", "1", "2"), ids);
+      assertEquals(List.of(0, 1), plugin.fetchedPages);
+    }
+  }
+
+  @Test
+  @DisplayName("Test projected findAll does not pass the projection parameter as a filter")
+  void testFindAllProjection() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(3);
+    MultiValueMap<String, String> filters = new LinkedMultiValueMap<>();
+    filters.add("id", "1");
+    filters.add(AttributeProjection.PARAMETER, "id");
+
+    Page<DynamicEntity> page = plugin.findAll(new TaskExecutionContext(), new ProviderConfiguration(), filters,
+        PageRequest.of(0, 2), AttributeProjection.parse(filters), new DynamicEntity());
+
+    assertEquals(2, page.getContent().size());
+    assertEquals(List.of(Map.of("id", List.of("1"))), plugin.filters);
+  }
+
+  @Test
+  @DisplayName("Test streamAll returns every entity when fully consumed")
+  void testStreamAllFullyConsumed() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(5);
+
+    try (Stream<DynamicEntity> stream = plugin.streamAll(new TaskExecutionContext(), new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), PageRequest.of(0, 2), new DynamicEntity())) {
+      assertEquals(5, stream.count());
+      assertEquals(List.of(0, 1, 2), plugin.fetchedPages);
+    }
+  }
+
+  @Test
+  @DisplayName("Test streamAll on an empty result fetches a single page")
+  void testStreamAllEmpty() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(0);
+
+    try (Stream<DynamicEntity> stream = plugin.streamAll(new TaskExecutionContext(), new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), PageRequest.of(0, 2), new DynamicEntity())) {
+      assertEquals(0, stream.count());
+      assertEquals(List.of(0), plugin.fetchedPages);
+    }
+  }
+
+  @Test
+  @DisplayName("Test streamAll stops on an empty page claiming to have a successor")
+  void testStreamAllInconsistentPage() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(0) {
+      @Override
+      public Page<DynamicEntity> findAll(TaskExecutionContext context, ProviderConfiguration configuration,
+                                         MultiValueMap<String, String> filters, Pageable pageable,
+                                         DynamicEntity dynamicEntity) {
+        fetchedPages.add(pageable.getPageNumber());
+      this.filters.add(filters);
+        return new PageImpl<>(List.of(), pageable, 100);
+      }
+    };
+
+    try (Stream<DynamicEntity> stream = plugin.streamAll(new TaskExecutionContext(), new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), PageRequest.of(0, 2), new DynamicEntity())) {
+      assertEquals(0, stream.count());
+      assertEquals(List.of(0), plugin.fetchedPages);
+    }
+  }
+
+  @Test
+  @DisplayName("Test createAll collects a result or an error per entity")
+  void testCreateAll() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(0);
+    DynamicEntity valid = entity("a");
+    DynamicEntity invalid = entity(null);
+
+    List<BulkItemResult<DynamicEntity>> results = plugin.createAll(new TaskExecutionContext(),
+        new ProviderConfiguration(), List.of(valid, invalid, entity("b")));
+
+    assertEquals(3, results.size());
+    assertTrue(results.get(0).isSuccess());
+    assertSame(valid, results.get(0).value());
+    assertFalse(results.get(1).isSuccess());
+    assertEquals(1, results.get(1).index());
+    assertNull(results.get(1).value());
+    assertEquals("error.id.missing", ((ApiException) results.get(1).error()).getError().key());
+    assertTrue(results.get(2).isSuccess());
+    assertEquals(2, plugin.entities.size());
+  }
+
+  @Test
+  @DisplayName("Test updateAll, patchAll and deleteAll loop over their items in order")
+  void testUpdatePatchDeleteAll() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(3);
+    Map<String, DynamicEntity> changes = new LinkedHashMap<>();
+    changes.put("2", entity("2"));
+    changes.put("0", entity("0"));
+
+    List<BulkItemResult<DynamicEntity>> updated = plugin.updateAll(new TaskExecutionContext(),
+        new ProviderConfiguration(), changes);
+    List<BulkItemResult<DynamicEntity>> patched = plugin.patchAll(new TaskExecutionContext(),
+        new ProviderConfiguration(), changes);
+    List<BulkItemResult<Boolean>> deleted = plugin.deleteAll(new TaskExecutionContext(),
+        new ProviderConfiguration(), List.of("1", "7"), new DynamicEntity());
+
+    assertSame(changes.get("2"), updated.get(0).value());
+    assertSame(changes.get("0"), patched.get(1).value());
+    assertEquals(List.of(true, false), deleted.stream().map(BulkItemResult::value).toList());
+    assertEquals(2, plugin.entities.size());
+  }
+
+  @Test
+  @DisplayName("Test scroll walks all pages with continuation tokens")
+  void testScroll() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(5);
+    List<Object> ids = new ArrayList<>();
+    CursorPageRequest request = CursorPageRequest.first(2, Sort.unsorted());
+    CursorPage<DynamicEntity> page;
+
+    do {
+      page = plugin.scroll(new TaskExecutionContext(), new ProviderConfiguration(), new LinkedMultiValueMap<>(),
+          request, new DynamicEntity());
+      page.content().forEach(entity -> ids.add(entity.getAttributes().get("id")));
+      request = request.next(page.nextCursor());
+    } while (page.hasNext());
+
+    assertEquals(List.of("0", "1", "2", "3", "4"), ids);
+    assertEquals(List.of(0, 1, 2), plugin.fetchedPages);
+    assertFalse(request.hasCursor());
+  }
+
+  @Test
+  @DisplayName("Test scroll rejects cursors it did not issue")
+  void testScrollInvalidCursor() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(5);
+
+    for (String cursor : List.of("not base64!", "Zm9v", PageIndexCursor.encode(-1))) {
+      ApiException exception = assertThrows(ApiException.class, () -> plugin.scroll(new TaskExecutionContext(),
+          new ProviderConfiguration(), new LinkedMultiValueMap<>(), new CursorPageRequest(cursor, 2, null),
+          new DynamicEntity()));
+
+      assertEquals(400, exception.getStatusCode());
+      assertEquals("error.cursor.invalid", exception.getError().key());
+    }
+
+    ApiException exception = assertThrows(ApiException.class, () -> CursorPageRequest.first(0, Sort.unsorted()));
+    assertEquals("error.cursor.size.invalid", exception.getError().key());
+  }
+
+  @Test
+  @DisplayName("Test count falls back to the total of a single-element page")
+  void testCount() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(7);
+
+    long count = plugin.count(new TaskExecutionContext(), new ProviderConfiguration(), new LinkedMultiValueMap<>(),
+        new DynamicEntity());
+
+    assertEquals(7, count);
+    assertEquals(List.of(0), plugin.fetchedPages);
+  }
+
+  @Test
+  @DisplayName("Test findSlice falls back to findAll without exposing the total")
+  void testFindSlice() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(5);
+
+    Slice<DynamicEntity> first = plugin.findSlice(new TaskExecutionContext(), new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), PageRequest.of(0, 3), new DynamicEntity());
+    Slice<DynamicEntity> last = plugin.findSlice(new TaskExecutionContext(), new ProviderConfiguration(),
+        new LinkedMultiValueMap<>(), first.nextPageable(), new DynamicEntity());
+
+    assertFalse(first instanceof Page);
+    assertEquals(3, first.getNumberOfElements());
+    assertTrue(first.hasNext());
+    assertEquals(2, last.getNumberOfElements());
+    assertFalse(last.hasNext());
+  }
+
+  @Test
+  @DisplayName("Test findAllByIds loops over distinct ids and skips misses")
+  void testFindAllByIds() {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(3);
+
+    Map<String, DynamicEntity> entities = plugin.findAllByIds(new TaskExecutionContext(), new ProviderConfiguration(),
+        List.of("2", "5", "0", "2"), new DynamicEntity());
+
+    assertEquals(List.of("2", "0"), List.copyOf(entities.keySet()));
+  }
+
+  @Test
+  @DisplayName("Test async variants run the sync operations on the given executor")
+  void testAsync() throws Exception {
+    InMemoryProviderPlugin plugin = new InMemoryProviderPlugin(3);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    TaskExecutionContext context = new TaskExecutionContext();
+    ProviderConfiguration configuration = new ProviderConfiguration();
+
+    try {
+      DynamicEntity found = plugin.findByIdAsync(context, configuration, "1", new DynamicEntity(), executor)
+          .toCompletableFuture().get();
+      Page<DynamicEntity> page = plugin.findAllAsync(context, configuration, new LinkedMultiValueMap<>(),
+          PageRequest.of(0, 2), new DynamicEntity(), executor).toCompletableFuture().get();
+      boolean deleted = plugin.deleteAsync(context, configuration, "1", new DynamicEntity(), executor)
+          .toCompletableFuture().get();
+      DynamicEntity created = plugin.createAsync(context, configuration, entity("9"), executor)
+          .toCompletableFuture().get();
+      Thread worker = executor.submit(Thread::currentThread).get();
+
+      assertEquals("1", found.getAttributes().get("id"));
+      assertEquals(3, page.getTotalElements());
+      assertTrue(deleted);
+      assertEquals("9", created.getAttributes().get("id"));
+      assertNotSame(Thread.currentThread(), worker);
+
+      ExecutionException exception = assertThrows(ExecutionException.class,
+          () -> plugin.createAsync(context, configuration, entity(null), executor).toCompletableFuture().get());
+      assertTrue(exception.getCause() instanceof ApiException);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static DynamicEntity entity(String id) {
+    DynamicEntity entity = new DynamicEntity();
+    Map<String, Object> attributes = new HashMap<>();
+    attributes.put("id", id);
+    entity.setAttributes(attributes);
+    return entity;
+  }
+
+  static class InMemoryProviderPlugin implements ProviderPlugin {
+    final List<DynamicEntity> entities = new ArrayList<>();
+    final List<Integer> fetchedPages = new ArrayList<>();
+    final List<MultiValueMap<String, String>> filters = new ArrayList<>();
+
+    InMemoryProviderPlugin(int size) {
+      for (int index = 0; index < size; index++) {
+        entities.add(entity(String.valueOf(index)));
+      }
+    }
+
+    @Override
+    public boolean supports(@NonNull String type) {
+      return "memory".equals(type);
+    }
+
+    @Override
+    public DynamicEntity create(TaskExecutionContext context, ProviderConfiguration configuration,
+                                DynamicEntity dynamicEntity) {
+      if (dynamicEntity.getAttributes().get("id") == null) {
+        throw new ApiException(400, I18nMessage.of("error.id.missing"));
+      }
+      entities.add(dynamicEntity);
+      return dynamicEntity;
+    }
+
+    @Override
+    public DynamicEntity update(TaskExecutionContext context, ProviderConfiguration configuration, String id,
+                                DynamicEntity dynamicEntity) {
+      return dynamicEntity;
+    }
+
+    @Override
+    public DynamicEntity patch(TaskExecutionContext context, ProviderConfiguration configuration, String id,
+                               DynamicEntity dynamicEntity) {
+      return dynamicEntity;
+    }
+
+    @Override
+    public boolean delete(TaskExecutionContext context, ProviderConfiguration configuration, String id,
+                          DynamicEntity dynamicEntity) {
+      return entities.removeIf(entity -> id.equals(entity.getAttributes().get("id")));
+    }
+
+    @Override
+    public DynamicEntity findById(TaskExecutionContext context, ProviderConfiguration configuration, String id,
+                                  DynamicEntity dynamicEntity) {
+      return entities.stream()
+          .filter(entity -> id.equals(entity.getAttributes().get("id")))
+          .findFirst()
+          .orElse(null);
+    }
+
+    @Override
+    public Page<DynamicEntity> findAll(TaskExecutionContext context, ProviderConfiguration configuration,
+                                       MultiValueMap<String, String> filters, Pageable pageable,
+                                       DynamicEntity dynamicEntity) {
+      fetchedPages.add(pageable.getPageNumber());
+      this.filters.add(filters);
+      int from = (int) Math.min(pageable.getOffset(), entities.size());
+      int to = Math.min(from + pageable.getPageSize(), entities.size());
+      return new PageImpl<>(new ArrayList<>(entities.subList(from, to)), pageable, entities.size());
+    }
+  }
+}
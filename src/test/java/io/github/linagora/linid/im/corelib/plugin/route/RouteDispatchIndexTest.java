@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.route;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RootConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RouteConfiguration;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.plugin.core.PluginRegistry;
+
+@DisplayName("Test class: RouteDispatchIndex")
+class RouteDispatchIndexTest {
+
+  @Test
+  @DisplayName("Test resolve finds the plugin and extracts path variables")
+  void testResolve() {
+    RouteDescription list = new RouteDescription("GET", "/api/{entity}", null, List.of("entity"));
+    RouteDescription read = new RouteDescription("GET", "/api/{entity}/{id}", null, List.of("entity", "id"));
+    RouteDescription export = new RouteDescription("GET", "/api/users/export", "users", List.of());
+    FixedRoutePlugin crud = new FixedRoutePlugin("crud", List.of(list, read), false);
+    FixedRoutePlugin exporter = new FixedRoutePlugin("export", List.of(export), false);
+    RouteDispatchIndex index = RouteDispatchIndex.compile(root(route("crud"), route("export")),
+        PluginRegistry.of(crud, exporter));
+
+    RouteMatch match = index.resolve("get", "/api/users/42").orElseThrow();
+    assertSame(crud, match.plugin());
+    assertSame(read, match.route());
+    assertEquals(Map.of("entity", "users", "id", "42"), match.variables());
+
+    RouteMatch literal = index.resolve("GET", "/api/users/export").orElseThrow();
+    assertSame(exporter, literal.plugin());
+    assertEquals(Map.of(), literal.variables());
+
+    assertEquals(Map.of("entity", "groups"), index.resolve("GET", "/api/groups").orElseThrow().variables());
+    assertTrue(index.resolve("POST", "/api/users").isEmpty());
+    assertTrue(index.resolve("GET", "/api/users/42/members").isEmpty());
+    assertEquals(0, crud.matchCalls.get() + exporter.matchCalls.get());
+  }
+
+  @Test
+  @DisplayName("Test resolve falls back to match for dynamic plugins and plugins without routes")
+  void testDynamicFallback() {
+    RouteDescription health = new RouteDescription("GET", "/health", null, List.of());
+    FixedRoutePlugin dynamic = new FixedRoutePlugin("dynamic", List.of(health), true);
+    FixedRoutePlugin undescribed = new FixedRoutePlugin("legacy", List.of(), false);
+    RouteDispatchIndex index = RouteDispatchIndex.compile(root(route("dynamic"), route("legacy")),
+        PluginRegistry.of(dynamic, undescribed));
+
+    RouteMatch indexed = index.resolve("GET", "/health").orElseThrow();
+    assertSame(health, indexed.route());
+    assertEquals(0, dynamic.matchCalls.get());
+
+    RouteMatch matched = index.resolve("GET", "/legacy/export").orElseThrow();
+    assertSame(undescribed, matched.plugin());
+    assertNull(matched.route());
+    assertEquals(1, dynamic.matchCalls.get());
+    assertTrue(index.resolve("GET", "/unknown").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test resolve keeps declaration order between dynamic and described routes")
+  void testDeclarationOrder() {
+    RouteDescription export = new RouteDescription("GET", "/legacy/export", null, List.of());
+    FixedRoutePlugin legacy = new FixedRoutePlugin("legacy", List.of(), false);
+    FixedRoutePlugin exporter = new FixedRoutePlugin("export", List.of(export), false);
+
+    RouteDispatchIndex dynamicFirst = RouteDispatchIndex.compile(root(route("legacy"), route("export")),
+        PluginRegistry.of(legacy, exporter));
+    assertSame(legacy, dynamicFirst.resolve("GET", "/legacy/export").orElseThrow().plugin());
+    assertEquals(1, legacy.matchCalls.get());
+
+    RouteDispatchIndex describedFirst = RouteDispatchIndex.compile(root(route("export"), route("legacy")),
+        PluginRegistry.of(legacy, exporter));
+    assertSame(export, describedFirst.resolve("GET", "/legacy/export").orElseThrow().route());
+    assertEquals(1, legacy.matchCalls.get());
+  }
+
+  @Test
+  @DisplayName("Test resolve prefers literal segments without losing routes reached through variables")
+  void testPrecedence() {
+    RouteDescription members = new RouteDescription("GET", "/api/{entity}/members", null, List.of("entity"));
+    RouteDescription export = new RouteDescription("GET", "/api/users/export", null, List.of());
+    RouteDescription read = new RouteDescription("GET", "/api/users/{id}", null, List.of("id"));
+    FixedRoutePlugin crud = new FixedRoutePlugin("crud", List.of(members, export, read), false);
+    RouteDispatchIndex index = RouteDispatchIndex.compile(root(route("crud")), PluginRegistry.of(crud));
+
+    assertSame(export, index.resolve("GET", "/api/users/export").orElseThrow().route());
+    assertSame(read, index.resolve("GET", "/api/users/members").orElseThrow().route());
+    RouteMatch match = index.resolve("GET", "/api/groups/members").orElseThrow();
+    assertSame(members, match.route());
+    assertEquals(Map.of("entity", "groups"), match.variables());
+  }
+
+  @Test
+  @DisplayName("Test resolve decodes path segments and keeps empty ones")
+  void testResolvePathSegments() {
+    RouteDescription read = new RouteDescription("GET", "/api/{entity}/{id}", null, List.of("entity", "id"));
+    RouteDescription list = new RouteDescription("GET", "/api/{entity}/", null, List.of("entity"));
+    FixedRoutePlugin crud = new FixedRoutePlugin("crud", List.of(read, list), false);
+    RouteDispatchIndex index = RouteDispatchIndex.compile(root(route("crud")), PluginRegistry.of(crud));
+
+    assertEquals(Map.of("entity", "users", "id", "jean dupont/1"),
+        index.resolve("GET", "/api/users/jean%20dupont%2F1").orElseThrow().variables());
+    assertSame(list, index.resolve("GET", "/api/users/").orElseThrow().route());
+    assertTrue(index.resolve("GET", "/api/users").isEmpty());
+    assertTrue(index.resolve("GET", "/api//42").isEmpty());
+    assertTrue(index.resolve("GET", "/api/users//").isEmpty());
+    assertTrue(index.resolve("GET", "//api/users/42").isEmpty());
+
+    ApiException exception = assertThrows(ApiException.class, () -> index.resolve("GET", "/api/users/%zz"));
+    assertEquals("error.route.path.invalid", exception.getError().key());
+    assertEquals(400, exception.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("Test resolve falls back to match for plugins keeping the default dynamic routes")
+  void testDefaultDynamicRoutes() {
+    RouteDescription health = new RouteDescription("GET", "/health", null, List.of());
+    FixedRoutePlugin plugin = new FixedRoutePlugin("legacy", List.of(health), null);
+    RouteDispatchIndex index = RouteDispatchIndex.compile(root(route("legacy")), PluginRegistry.of(plugin));
+
+    assertSame(health, index.resolve("GET", "/health").orElseThrow().route());
+    assertEquals(0, plugin.matchCalls.get());
+
+    RouteMatch matched = index.resolve("GET", "/legacy/export").orElseThrow();
+    assertSame(plugin, matched.plugin());
+    assertNull(matched.route());
+    assertEquals(1, plugin.matchCalls.get());
+  }
+
+  @Test
+  @DisplayName("Test compile fails on unknown route type")
+  void testCompileInvalid() {
+    ApiException exception = assertThrows(ApiException.class, () -> RouteDispatchIndex.compile(
+        root(route("unknown")), PluginRegistry.of(new FixedRoutePlugin("crud", List.of(), false))));
+
+    assertEquals("error.route.plugin.unknown", exception.getError().key());
+    assertEquals(500, exception.getStatusCode());
+  }
+
+  private static RouteConfiguration route(String type) {
+    RouteConfiguration route = new RouteConfiguration();
+    route.setType(type);
+    return route;
+  }
+
+  private static RootConfiguration root(RouteConfiguration... routes) {
+    RootConfiguration root = new RootConfiguration();
+    root.setRoutes(List.of(routes));
+    root.setEntities(List.of());
+    return root;
+  }
+
+  private static class FixedRoutePlugin implements RoutePlugin {
+    private final String type;
+    private final List<RouteDescription> routes;
+    private final Boolean dynamic;
+    private final AtomicInteger matchCalls = new AtomicInteger();
+
+    FixedRoutePlugin(String type, List<RouteDescription> routes, Boolean dynamic) {
+      this.type = type;
+      this.routes = routes;
+      this.dynamic = dynamic;
+    }
+
+    @Override
+    public boolean supports(@NonNull String delimiter) {
+      return type.equals(delimiter);
+    }
+
+    @Override
+    public List<RouteDescription> getRoutes(RouteConfiguration configuration, List<EntityConfiguration> entities) {
+      return routes;
+    }
+
+    @Override
+    public boolean match(RouteConfiguration configuration, String url, String method) {
+      matchCalls.incrementAndGet();
+      return url.startsWith("/" + type + "/");
+    }
+
+    @Override
+    public boolean hasDynamicRoutes(RouteConfiguration configuration) {
+      return dynamic == null ? RoutePlugin.super.hasDynamicRoutes(configuration) : dynamic;
+    }
+
+    @Override
+    public ResponseEntity<?> execute(RouteConfiguration configuration, HttpServletRequest request) {
+      return ResponseEntity.ok().build();
+    }
+  }
+}
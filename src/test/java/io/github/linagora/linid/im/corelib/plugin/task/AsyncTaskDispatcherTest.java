@@ -0,0 +1,329 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.plugin.config.dto.TaskConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import io.github.linagora.linid.im.corelib.plugin.task.AsyncTaskDispatcher.OverflowPolicy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.lang.NonNull;
+
+@DisplayName("Test class: AsyncTaskDispatcher")
+class AsyncTaskDispatcherTest {
+
+  @Test
+  @DisplayName("Test tasks run on workers against snapshots of the entity and context")
+  @SuppressWarnings("unchecked")
+  void testSnapshots() throws Exception {
+    Map<String, Object> seen = new ConcurrentHashMap<>();
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(1);
+    DynamicEntity entity = entity("jdoe");
+    List<String> groups = new ArrayList<>(List.of("users"));
+    entity.getAttributes().put("groups", groups);
+    TaskExecutionContext context = new TaskExecutionContext();
+    context.put("requestId", "r1");
+
+    try (AsyncTaskDispatcher dispatcher = new AsyncTaskDispatcher(10, 1, OverflowPolicy.DROP)) {
+      assertTrue(dispatcher.dispatch(step("notify", (task, ctx) -> {
+        await(release);
+        seen.put("uid", task.getAttributes().get("uid"));
+        seen.put("groups", List.copyOf((List<?>) task.getAttributes().get("groups")));
+        ((List<Object>) task.getAttributes().get("groups")).add("written");
+        seen.put("requestId", ctx.get("requestId"));
+        seen.put("thread", Thread.currentThread());
+        ctx.put("written", true);
+        done.countDown();
+      }), entity, context));
+
+      entity.getAttributes().put("uid", "changed");
+      groups.add("changed");
+      context.put("requestId", "r2");
+      release.countDown();
+      assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    assertEquals("jdoe", seen.get("uid"));
+    assertEquals(List.of("users"), seen.get("groups"));
+    assertEquals(List.of("users", "changed"), groups);
+    assertEquals("r1", seen.get("requestId"));
+    assertNotSame(Thread.currentThread(), seen.get("thread"));
+    assertNull(context.get("written"));
+  }
+
+  @Test
+  @DisplayName("Test drop policy discards tasks when the queue is full")
+  void testDrop() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    try (AsyncTaskDispatcher dispatcher = new AsyncTaskDispatcher(1, 1, OverflowPolicy.DROP)) {
+      dispatcher.dispatch(blocking(started, release), entity("a"), new TaskExecutionContext());
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+
+      assertTrue(dispatcher.dispatch(step("queued", (task, ctx) -> { }), entity("b"), new TaskExecutionContext()));
+      assertFalse(dispatcher.dispatch(step("dropped", (task, ctx) -> { }), entity("c"), new TaskExecutionContext()));
+
+      AsyncTaskStatistics statistics = dispatcher.getStatistics();
+      assertEquals(1, statistics.queueDepth());
+      assertEquals(1, statistics.capacity());
+      assertEquals(1, statistics.dropped());
+      assertEquals(2, statistics.submitted());
+      release.countDown();
+    }
+  }
+
+  @Test
+  @DisplayName("Test caller-runs policy runs tasks on the submitting thread when the queue is full")
+  void testCallerRuns() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Map<String, Thread> threads = new HashMap<>();
+
+    try (AsyncTaskDispatcher dispatcher = new AsyncTaskDispatcher(1, 1, OverflowPolicy.CALLER_RUNS)) {
+      dispatcher.dispatch(blocking(started, release), entity("a"), new TaskExecutionContext());
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      dispatcher.dispatch(step("queued", (task, ctx) -> { }), entity("b"), new TaskExecutionContext());
+
+      assertTrue(dispatcher.dispatch(step("caller", (task, ctx) -> threads.put("caller", Thread.currentThread())),
+          entity("c"), new TaskExecutionContext()));
+
+      assertSame(Thread.currentThread(), threads.get("caller"));
+      assertEquals(1, dispatcher.getStatistics().callerRuns());
+      release.countDown();
+    }
+  }
+
+  @Test
+  @DisplayName("Test block policy waits for a free slot")
+  void testBlock() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch dispatched = new CountDownLatch(1);
+
+    try (AsyncTaskDispatcher dispatcher = new AsyncTaskDispatcher(1, 1, OverflowPolicy.BLOCK)) {
+      dispatcher.dispatch(blocking(started, release), entity("a"), new TaskExecutionContext());
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      dispatcher.dispatch(step("queued", (task, ctx) -> { }), entity("b"), new TaskExecutionContext());
+
+      Thread producer = Thread.ofPlatform().start(() -> {
+        dispatcher.dispatch(step("blocked", (task, ctx) -> { }), entity("c"), new TaskExecutionContext());
+        dispatched.countDown();
+      });
+
+      assertFalse(dispatched.await(100, TimeUnit.MILLISECONDS));
+      release.countDown();
+      assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+      producer.join();
+    }
+  }
+
+  @Test
+  @DisplayName("Test failures, completions and lag are recorded and close drains the queue")
+  void testStatistics() throws Exception {
+    Map<String, Throwable> failures = new ConcurrentHashMap<>();
+    AsyncTaskDispatcher dispatcher = new AsyncTaskDispatcher(10, 1, OverflowPolicy.BLOCK,
+        Thread.ofVirtual().factory(), (step, exception) -> failures.put(step.configuration().getName(), exception));
+
+    dispatcher.dispatch(step("slow", (task, ctx) -> sleep(50)), entity("a"), new TaskExecutionContext());
+    dispatcher.dispatch(step("failing", (task, ctx) -> {
+      throw new IllegalStateException("boom");
+    }), entity("b"), new TaskExecutionContext());
+    dispatcher.close();
+
+    AsyncTaskStatistics statistics = dispatcher.getStatistics();
+    assertEquals(2, statistics.submitted());
+    assertEquals(1, statistics.completed());
+    assertEquals(1, statistics.failed());
+    assertEquals(0, statistics.queueDepth());
+    assertTrue(statistics.maxLag().toMillis() >= 40);
+    assertEquals("boom", failures.get("failing").getMessage());
+    assertFalse(dispatcher.dispatch(step("late", (task, ctx) -> { }), entity("c"), new TaskExecutionContext()));
+  }
+
+  @Test
+  @DisplayName("Test errors count as failures and neither they nor a throwing handler stop the worker")
+  void testErrors() {
+    Map<String, Throwable> failures = new ConcurrentHashMap<>();
+    AsyncTaskDispatcher dispatcher = new AsyncTaskDispatcher(10, 1, OverflowPolicy.BLOCK,
+        Thread.ofPlatform().uncaughtExceptionHandler((thread, exception) -> failures.put("handler", exception))
+            .factory(),
+        (step, exception) -> {
+          failures.put(step.configuration().getName(), exception);
+          throw new IllegalStateException("handler");
+        });
+
+    dispatcher.dispatch(step("error", (task, ctx) -> {
+      throw new AssertionError("error");
+    }), entity("a"), new TaskExecutionContext());
+    dispatcher.dispatch(step("after", (task, ctx) -> { }), entity("b"), new TaskExecutionContext());
+    dispatcher.close();
+
+    AsyncTaskStatistics statistics = dispatcher.getStatistics();
+    assertEquals(1, statistics.failed());
+    assertEquals(1, statistics.completed());
+    assertEquals("error", failures.get("error").getMessage());
+    assertEquals("handler", failures.get("handler").getMessage());
+  }
+
+  @Test
+  @DisplayName("Test close stops waiting and keeps the interrupt status when interrupted")
+  void testInterruptedClose() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AsyncTaskDispatcher dispatcher = new AsyncTaskDispatcher(1, 1, OverflowPolicy.DROP);
+    dispatcher.dispatch(blocking(started, release), entity("a"), new TaskExecutionContext());
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    Thread.currentThread().interrupt();
+    dispatcher.close();
+
+    assertTrue(Thread.interrupted());
+    release.countDown();
+    dispatcher.close();
+    assertEquals(1, dispatcher.getStatistics().completed());
+  }
+
+  @Test
+  @DisplayName("Test every task accepted while closing concurrently is run")
+  void testConcurrentClose() throws Exception {
+    for (int round = 0; round < 20; round++) {
+      AsyncTaskDispatcher dispatcher = new AsyncTaskDispatcher(4, 2, OverflowPolicy.BLOCK);
+      AtomicInteger accepted = new AtomicInteger();
+      AtomicInteger ran = new AtomicInteger();
+      List<Thread> producers = new ArrayList<>();
+
+      for (int index = 0; index < 4; index++) {
+        producers.add(Thread.ofPlatform().start(() -> {
+          for (int task = 0; task < 50; task++) {
+            if (dispatcher.dispatch(step("count", (entity, ctx) -> ran.incrementAndGet()), entity("a"),
+                new TaskExecutionContext())) {
+              accepted.incrementAndGet();
+            }
+          }
+        }));
+      }
+      dispatcher.close();
+      for (Thread producer : producers) {
+        producer.join();
+      }
+
+      assertEquals(accepted.get(), ran.get());
+      assertEquals(0, dispatcher.getStatistics().queueDepth());
+      assertEquals(200, accepted.get() + dispatcher.getStatistics().dropped());
+    }
+  }
+
+  @Test
+  @DisplayName("Test plan executor hands async steps to the dispatcher without waiting")
+  void testPlanExecutor() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    try (AsyncTaskDispatcher dispatcher = new AsyncTaskDispatcher(10, 1, OverflowPolicy.DROP)) {
+      TaskStep async = step("audit", (task, ctx) -> await(release));
+      async.configuration().addOption(TaskStep.ASYNC_OPTION, true);
+
+      new TaskPlanExecutor(null, dispatcher).execute(List.of(
+          step("before", (task, ctx) -> ctx.put("before", true)),
+          async,
+          step("after", (task, ctx) -> ctx.put("after", true))), entity("a"), context);
+
+      assertEquals(Boolean.TRUE, context.get("after"));
+      assertEquals(1, dispatcher.getStatistics().submitted());
+      release.countDown();
+    }
+  }
+
+  private static TaskStep blocking(CountDownLatch started, CountDownLatch release) {
+    return step("blocking", (task, ctx) -> {
+      started.countDown();
+      await(release);
+    });
+  }
+
+  private static TaskStep step(String name, BiConsumer<DynamicEntity, TaskExecutionContext> action) {
+    TaskConfiguration configuration = new TaskConfiguration();
+    configuration.setName(name);
+    configuration.setType("function");
+    return new TaskStep(new FunctionTaskPlugin(action), configuration);
+  }
+
+  private static DynamicEntity entity(String uid) {
+    DynamicEntity entity = new DynamicEntity();
+    Map<String, Object> attributes = new HashMap<>();
+    attributes.put("uid", uid);
+    entity.setAttributes(attributes);
+    return entity;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private record FunctionTaskPlugin(BiConsumer<DynamicEntity, TaskExecutionContext> action) implements TaskPlugin {
+
+    @Override
+    public boolean supports(@NonNull String type) {
+      return "function".equals(type);
+    }
+
+    @Override
+    public void execute(TaskConfiguration configuration, DynamicEntity entity, TaskExecutionContext context) {
+      action.accept(entity, context);
+    }
+  }
+}
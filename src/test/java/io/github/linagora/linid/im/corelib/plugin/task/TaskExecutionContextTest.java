@@ -28,7 +28,14 @@ package io.github.linagora.linid.im.corelib.plugin.task;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -63,4 +70,39 @@ class TaskExecutionContextTest {
     Object result = context.get("missingKey", Object.class);
     assertNull(result);
   }
+
+  @Test
+  @DisplayName("Should share attachments with snapshots and create them once")
+  void testComputeAttachmentIfAbsent() {
+    TaskExecutionContext context = new TaskExecutionContext();
+    List<String> created = new ArrayList<>();
+
+    StringBuilder helper = context.computeAttachmentIfAbsent("helper", StringBuilder.class, () -> {
+      created.add("helper");
+      return new StringBuilder();
+    });
+
+    assertSame(helper, context.snapshot().computeAttachmentIfAbsent("helper", StringBuilder.class, StringBuilder::new));
+    assertEquals(List.of("helper"), created);
+  }
+
+  @Test
+  @DisplayName("Should keep entries and accept attachments after deserialization")
+  void testDeserialization() throws Exception {
+    TaskExecutionContext context = new TaskExecutionContext();
+    context.put("key1", "value1");
+    context.computeAttachmentIfAbsent("helper", StringBuilder.class, StringBuilder::new).append("original");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(context);
+    }
+    TaskExecutionContext restored;
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      restored = (TaskExecutionContext) in.readObject();
+    }
+
+    assertEquals("value1", restored.get("key1", String.class));
+    assertEquals("", restored.computeAttachmentIfAbsent("helper", StringBuilder.class, StringBuilder::new).toString());
+  }
 }
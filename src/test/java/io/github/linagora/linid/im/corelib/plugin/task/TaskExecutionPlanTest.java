@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RootConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.TaskConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.lang.NonNull;
+import org.springframework.plugin.core.PluginRegistry;
+
+@DisplayName("Test class: TaskExecutionPlan")
+class TaskExecutionPlanTest {
+
+  @Test
+  @DisplayName("Test compile groups merged tasks by entity and phase")
+  void testCompile() {
+    RecordingTaskPlugin plugin = new RecordingTaskPlugin("s3");
+    TaskConfiguration global = task("saveDocument", "s3", List.of("afterCreate"));
+    global.addOption("url", "global");
+    global.addOption("bucket", "docs");
+
+    TaskConfiguration reference = task("saveDocument", null, List.of());
+    reference.addOption("url", "local");
+    TaskConfiguration inline = task("audit", "s3", List.of("beforeCreate", "afterCreate"));
+
+    TaskExecutionPlan plan = TaskExecutionPlan.compile(root(List.of(global), entity("user", reference, inline)),
+        PluginRegistry.of(plugin));
+
+    List<TaskStep> afterCreate = plan.getSteps("user", "afterCreate");
+    assertEquals(2, afterCreate.size());
+    assertSame(plugin, afterCreate.get(0).plugin());
+    assertEquals("s3", afterCreate.get(0).configuration().getType());
+    assertEquals(List.of("afterCreate"), afterCreate.get(0).configuration().getPhases());
+    assertEquals(Map.of("url", "local", "bucket", "docs"), afterCreate.get(0).configuration().getOptions());
+    assertSame(inline, afterCreate.get(1).configuration());
+    assertEquals(1, plan.getSteps("user", "beforeCreate").size());
+  }
+
+  @Test
+  @DisplayName("Test getSteps returns an empty list for unknown entities or phases")
+  void testGetStepsEmpty() {
+    TaskExecutionPlan plan = TaskExecutionPlan.compile(
+        root(List.of(), entity("user", task("audit", "s3", List.of("afterCreate")))),
+        PluginRegistry.of(new RecordingTaskPlugin("s3")));
+
+    assertTrue(plan.getSteps("user", "beforeDelete").isEmpty());
+    assertTrue(plan.getSteps("group", "afterCreate").isEmpty());
+    assertTrue(TaskExecutionPlan.empty().getSteps("user", "afterCreate").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test compile fails on unknown task type or missing type")
+  void testCompileInvalid() {
+    PluginRegistry<TaskPlugin, String> plugins = PluginRegistry.of(new RecordingTaskPlugin("s3"));
+
+    ApiException unknown = assertThrows(ApiException.class, () -> TaskExecutionPlan.compile(
+        root(List.of(), entity("user", task("audit", "webhook", List.of("afterCreate")))), plugins));
+    assertEquals("error.task.plugin.unknown", unknown.getError().key());
+    assertEquals(500, unknown.getStatusCode());
+
+    ApiException missing = assertThrows(ApiException.class, () -> TaskExecutionPlan.compile(
+        root(List.of(), entity("user", task("undeclared", null, List.of("afterCreate")))), plugins));
+    assertEquals("error.task.type.missing", missing.getError().key());
+  }
+
+  @Test
+  @DisplayName("Test compile fails on engine options that cannot be read")
+  void testCompileInvalidOptions() {
+    PluginRegistry<TaskPlugin, String> plugins = PluginRegistry.of(new RecordingTaskPlugin("s3"));
+
+    for (Map.Entry<String, Object> option : List.<Map.Entry<String, Object>>of(
+        Map.entry(TaskStep.TIMEOUT_OPTION, "2 seconds"), Map.entry(TaskStep.TIMEOUT_OPTION, "PT0S"),
+        Map.entry(TaskStep.ON_TIMEOUT_OPTION, "CONTINU"), Map.entry(TaskStep.DEPENDS_ON_OPTION, "audit"),
+        Map.entry(TaskStep.PARALLEL_OPTION, "sometimes"))) {
+      TaskConfiguration task = task("audit", "s3", List.of("afterCreate"));
+      task.addOption(option.getKey(), option.getValue());
+
+      ApiException exception = assertThrows(ApiException.class, () -> TaskExecutionPlan.compile(
+          root(List.of(), entity("user", task)), plugins));
+
+      assertEquals("error.plugin.default.invalid.option", exception.getError().key());
+      assertEquals(option.getKey(), exception.getError().context().get("option"));
+      assertEquals(500, exception.getStatusCode());
+    }
+  }
+
+  @Test
+  @DisplayName("Test compile fails on unknown or cyclic task dependencies")
+  void testCompileInvalidDependencies() {
+    PluginRegistry<TaskPlugin, String> plugins = PluginRegistry.of(new RecordingTaskPlugin("s3"));
+    TaskConfiguration unknownDependency = task("audit", "s3", List.of("afterCreate"));
+    unknownDependency.addOption(TaskStep.DEPENDS_ON_OPTION, List.of("missing"));
+
+    ApiException unknown = assertThrows(ApiException.class, () -> TaskExecutionPlan.compile(
+        root(List.of(), entity("user", unknownDependency)), plugins));
+    assertEquals("error.task.dependency.unknown", unknown.getError().key());
+    assertEquals(Map.of("task", "audit", "dependency", "missing"), unknown.getError().context());
+
+    TaskConfiguration first = task("first", "s3", List.of("afterCreate"));
+    first.addOption(TaskStep.DEPENDS_ON_OPTION, List.of("second"));
+    TaskConfiguration second = task("second", "s3", List.of("afterCreate"));
+    second.addOption(TaskStep.DEPENDS_ON_OPTION, List.of("first"));
+
+    ApiException cycle = assertThrows(ApiException.class, () -> TaskExecutionPlan.compile(
+        root(List.of(), entity("user", first, second)), plugins));
+    assertEquals("error.task.dependency.cycle", cycle.getError().key());
+    assertEquals(500, cycle.getStatusCode());
+  }
+
+  @Test
+  @DisplayName("Test compile fails on dependencies on tasks running in a later phase")
+  void testCompileLaterPhaseDependency() {
+    PluginRegistry<TaskPlugin, String> plugins = PluginRegistry.of(new RecordingTaskPlugin("s3"));
+    TaskConfiguration validate = task("validate", "s3", List.of("beforeCreate"));
+    validate.addOption(TaskStep.DEPENDS_ON_OPTION, List.of("notify"));
+    TaskConfiguration notify = task("notify", "s3", List.of("afterCreate"));
+
+    ApiException exception = assertThrows(ApiException.class, () -> TaskExecutionPlan.compile(
+        root(List.of(), entity("user", validate, notify)), plugins));
+
+    assertEquals(500, exception.getStatusCode());
+    assertEquals("error.task.dependency.phase", exception.getError().key());
+    assertEquals(Map.of("task", "validate", "dependency", "notify", "phase", "beforeCreate"),
+        exception.getError().context());
+  }
+
+  @Test
+  @DisplayName("Test compile fails on dependencies on tasks absent from one of the phases of the dependent")
+  void testCompileAbsentPhaseDependency() {
+    PluginRegistry<TaskPlugin, String> plugins = PluginRegistry.of(new RecordingTaskPlugin("s3"));
+    TaskConfiguration load = task("load", "s3", List.of("afterCreate"));
+    TaskConfiguration report = task("report", "s3", List.of("afterCreate", "afterUpdate"));
+    report.addOption(TaskStep.DEPENDS_ON_OPTION, List.of("load"));
+    TaskConfiguration unscheduled = task("unscheduled", "s3", null);
+    TaskConfiguration audit = task("audit", "s3", List.of("afterDelete"));
+    audit.addOption(TaskStep.DEPENDS_ON_OPTION, List.of("unscheduled"));
+
+    ApiException absent = assertThrows(ApiException.class, () -> TaskExecutionPlan.compile(
+        root(List.of(), entity("user", load, report)), plugins));
+    ApiException neverRuns = assertThrows(ApiException.class, () -> TaskExecutionPlan.compile(
+        root(List.of(), entity("user", unscheduled, audit)), plugins));
+
+    assertEquals("error.task.dependency.phase", absent.getError().key());
+    assertEquals("afterUpdate", absent.getError().context().get("phase"));
+    assertEquals("error.task.dependency.phase", neverRuns.getError().key());
+    assertEquals("unscheduled", neverRuns.getError().context().get("dependency"));
+  }
+
+  @Test
+  @DisplayName("Test compile accepts dependencies on tasks of the same phase or of the preceding one")
+  void testCompileEarlierPhaseDependency() {
+    PluginRegistry<TaskPlugin, String> plugins = PluginRegistry.of(new RecordingTaskPlugin("s3"));
+    TaskConfiguration load = task("load", "s3", List.of("beforeCreate", "afterUpdate"));
+    TaskConfiguration report = task("report", "s3", List.of("afterCreate", "afterUpdate"));
+    report.addOption(TaskStep.DEPENDS_ON_OPTION, List.of("load"));
+
+    TaskExecutionPlan plan = TaskExecutionPlan.compile(root(List.of(), entity("user", load, report)), plugins);
+
+    assertEquals(List.of(), plan.getGraph("user", "afterCreate").getPredecessors(0));
+    assertEquals(List.of(0), plan.getGraph("user", "afterUpdate").getPredecessors(1));
+  }
+
+  @Test
+  @DisplayName("Test TaskEngine runs plan steps after the tasks they depend on")
+  void testTaskEngineExecuteDependencies() {
+    RecordingTaskPlugin plugin = new RecordingTaskPlugin("s3");
+    TaskConfiguration report = task("report", "s3", List.of("afterCreate"));
+    report.addOption(TaskStep.DEPENDS_ON_OPTION, List.of("load"));
+    TaskConfiguration load = task("load", "s3", List.of("afterCreate"));
+    load.addOption(TaskStep.DEPENDS_ON_OPTION, List.of());
+    EntityConfiguration entityConfiguration = entity("user", report, load);
+    TaskExecutionPlan plan = TaskExecutionPlan.compile(root(List.of(), entityConfiguration), PluginRegistry.of(plugin));
+    DynamicEntity dynamicEntity = new DynamicEntity();
+    dynamicEntity.setConfiguration(entityConfiguration);
+    TaskEngine engine = (entity, context, phase) -> {
+    };
+
+    engine.execute(plan, dynamicEntity, new TaskExecutionContext(), "afterCreate");
+
+    assertEquals(List.of("load", "report"), plugin.executed);
+    assertEquals(List.of(1), plan.getGraph("user", "afterCreate").getPredecessors(0));
+  }
+
+  @Test
+  @DisplayName("Test TaskEngine executes plan steps in declaration order")
+  void testTaskEngineExecutePlan() {
+    RecordingTaskPlugin plugin = new RecordingTaskPlugin("s3");
+    EntityConfiguration entityConfiguration = entity("user",
+        task("first", "s3", List.of("afterCreate")), task("second", "s3", List.of("afterCreate")));
+    TaskExecutionPlan plan = TaskExecutionPlan.compile(root(List.of(), entityConfiguration), PluginRegistry.of(plugin));
+    TaskEngine engine = (dynamicEntity, context, phase) -> {
+    };
+    DynamicEntity dynamicEntity = new DynamicEntity();
+    dynamicEntity.setConfiguration(entityConfiguration);
+
+    engine.execute(plan, dynamicEntity, new TaskExecutionContext(), "afterCreate");
+    engine.execute(plan, dynamicEntity, new TaskExecutionContext(), "beforeCreate");
+
+    assertEquals(List.of("first", "second"), plugin.executed);
+  }
+
+  @Test
+  @DisplayName("Test compile prepares each step once and hands the state back on execution")
+  void testPreparedState() {
+    List<Object> states = new ArrayList<>();
+    TaskPlugin plugin = new RecordingTaskPlugin("s3") {
+      @Override
+      public Object prepare(TaskConfiguration configuration) {
+        return "prepared-" + configuration.getName();
+      }
+
+      @Override
+      public void execute(TaskConfiguration configuration, Object state, DynamicEntity entity,
+                          TaskExecutionContext context) {
+        states.add(state);
+      }
+    };
+    EntityConfiguration entityConfiguration = entity("user", task("audit", "s3", List.of("afterCreate", "afterUpdate")));
+    TaskExecutionPlan plan = TaskExecutionPlan.compile(root(List.of(), entityConfiguration), PluginRegistry.of(plugin));
+    DynamicEntity dynamicEntity = new DynamicEntity();
+    dynamicEntity.setConfiguration(entityConfiguration);
+
+    TaskStep step = plan.getSteps("user", "afterCreate").get(0);
+    assertEquals("prepared-audit", step.state());
+    assertSame(step, plan.getSteps("user", "afterUpdate").get(0));
+
+    TaskEngine engine = (entity, context, phase) -> {
+    };
+    engine.execute(plan, dynamicEntity, new TaskExecutionContext(), "afterCreate");
+    assertEquals(List.of("prepared-audit"), states);
+  }
+
+  private static TaskConfiguration task(String name, String type, List<String> phases) {
+    TaskConfiguration task = new TaskConfiguration();
+    task.setName(name);
+    task.setType(type);
+    task.setPhases(phases);
+    return task;
+  }
+
+  private static EntityConfiguration entity(String name, TaskConfiguration... tasks) {
+    EntityConfiguration entity = new EntityConfiguration();
+    entity.setName(name);
+    entity.setTasks(List.of(tasks));
+    return entity;
+  }
+
+  private static RootConfiguration root(List<TaskConfiguration> tasks, EntityConfiguration... entities) {
+    RootConfiguration root = new RootConfiguration();
+    root.setTasks(tasks);
+    root.setEntities(List.of(entities));
+    return root;
+  }
+
+  private static class RecordingTaskPlugin implements TaskPlugin {
+    private final String type;
+    private final List<String> executed = new ArrayList<>();
+
+    RecordingTaskPlugin(String type) {
+      this.type = type;
+    }
+
+    @Override
+    public boolean supports(@NonNull String delimiter) {
+      return type.equals(delimiter);
+    }
+
+    @Override
+    public void execute(TaskConfiguration configuration, DynamicEntity entity, TaskExecutionContext context) {
+      executed.add(configuration.getName());
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.TaskConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.lang.NonNull;
+
+@DisplayName("Test class: TaskGraph")
+class TaskGraphTest {
+
+  @Test
+  @DisplayName("Test of derives predecessors from declaration order without dependsOn")
+  void testDefaultPredecessors() {
+    TaskGraph graph = TaskGraph.of(List.of(
+        step("first", Map.of()),
+        step("second", Map.of(TaskStep.PARALLEL_OPTION, true)),
+        step("third", Map.of(TaskStep.PARALLEL_OPTION, true)),
+        step("notify", Map.of(TaskStep.ASYNC_OPTION, true)),
+        step("barrier", Map.of())));
+
+    assertEquals(List.of(), graph.getPredecessors(0));
+    assertEquals(List.of(0), graph.getPredecessors(1));
+    assertEquals(List.of(0), graph.getPredecessors(2));
+    assertEquals(List.of(0, 1, 2), graph.getPredecessors(3));
+    assertEquals(List.of(0, 1, 2), graph.getPredecessors(4));
+    assertEquals(List.of(0, 1, 2, 3, 4), IntStream.of(graph.getOrder()).boxed().toList());
+  }
+
+  @Test
+  @DisplayName("Test of uses dependsOn edges and orders steps topologically")
+  void testExplicitDependencies() {
+    TaskGraph graph = TaskGraph.of(List.of(
+        step("report", Map.of(TaskStep.DEPENDS_ON_OPTION, List.of("load", "external"))),
+        step("load", Map.of(TaskStep.DEPENDS_ON_OPTION, List.of())),
+        step("audit", Map.of())));
+
+    assertEquals(List.of(1), graph.getPredecessors(0));
+    assertEquals(List.of(), graph.getPredecessors(1));
+    assertEquals(List.of(0, 1), graph.getPredecessors(2));
+    assertEquals(List.of(1, 0, 2), IntStream.of(graph.getOrder()).boxed().toList());
+    assertTrue(graph.isAncestor(1, 2));
+    assertFalse(graph.isAncestor(2, 1));
+    assertEquals(0, TaskGraph.empty().size());
+  }
+
+  @Test
+  @DisplayName("Test of fails on dependency cycles")
+  void testCycle() {
+    List<TaskStep> steps = List.of(
+        step("first", Map.of(TaskStep.DEPENDS_ON_OPTION, List.of("second"))),
+        step("second", Map.of(TaskStep.DEPENDS_ON_OPTION, List.of("first"))));
+
+    ApiException exception = assertThrows(ApiException.class, () -> TaskGraph.of(steps));
+
+    assertEquals(500, exception.getStatusCode());
+    assertEquals("error.task.dependency.cycle", exception.getError().key());
+    assertEquals(Map.of("tasks", "first, second"), exception.getError().context());
+  }
+
+  private static TaskStep step(String name, Map<String, Object> options) {
+    TaskConfiguration configuration = new TaskConfiguration();
+    configuration.setName(name);
+    configuration.setType("noop");
+    options.forEach(configuration::addOption);
+    return new TaskStep(new NoopTaskPlugin(), configuration);
+  }
+
+  private static class NoopTaskPlugin implements TaskPlugin {
+
+    @Override
+    public boolean supports(@NonNull String type) {
+      return "noop".equals(type);
+    }
+
+    @Override
+    public void execute(TaskConfiguration configuration, DynamicEntity entity, TaskExecutionContext context) {
+    }
+  }
+}
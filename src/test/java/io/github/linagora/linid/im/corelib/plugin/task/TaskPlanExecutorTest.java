@@ -0,0 +1,491 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.TaskConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.entity.DynamicEntity;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.lang.NonNull;
+
+@DisplayName("Test class: TaskPlanExecutor")
+class TaskPlanExecutorTest {
+
+  private ExecutorService pool;
+
+  @BeforeEach
+  void setUp() {
+    pool = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Test adjacent parallel steps run concurrently")
+  void testConcurrent() {
+    CountDownLatch started = new CountDownLatch(3);
+    BiConsumer<TaskConfiguration, TaskExecutionContext> awaitOthers = (configuration, context) -> {
+      started.countDown();
+      try {
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    };
+    List<TaskStep> steps = List.of(step("s3", true, awaitOthers), step("audit", true, awaitOthers),
+        step("webhook", true, awaitOthers));
+
+    new TaskPlanExecutor(pool).execute(steps, new DynamicEntity(), new TaskExecutionContext());
+
+    assertEquals(0, started.getCount());
+  }
+
+  @Test
+  @DisplayName("Test context writes are merged in declaration order")
+  void testMerge() {
+    CountDownLatch secondDone = new CountDownLatch(1);
+    TaskExecutionContext context = new TaskExecutionContext();
+    context.put("shared", "initial");
+    context.put("removed", true);
+    List<TaskStep> steps = List.of(
+        step("first", true, (configuration, ctx) -> {
+          await(secondDone);
+          ctx.put("shared", "first");
+          ctx.put("first", 1);
+          ctx.remove("removed");
+        }),
+        step("second", true, (configuration, ctx) -> {
+          ctx.put("shared", "second");
+          ctx.put("second", 2);
+          secondDone.countDown();
+        }),
+        step("third", true, (configuration, ctx) -> ctx.put("untouched", ctx.get("shared"))),
+        step("barrier", false, (configuration, ctx) -> ctx.put("after", ctx.get("shared"))));
+
+    new TaskPlanExecutor(pool).execute(steps, new DynamicEntity(), context);
+
+    assertEquals("second", context.get("shared"));
+    assertEquals(1, context.get("first"));
+    assertEquals(2, context.get("second"));
+    assertEquals("initial", context.get("untouched"));
+    assertEquals("second", context.get("after"));
+    assertFalse(context.containsKey("removed"));
+  }
+
+  @Test
+  @DisplayName("Test concurrent steps run on copies of the entity whose changes are merged in declaration order")
+  void testEntityMerge() {
+    CountDownLatch started = new CountDownLatch(2);
+    BiConsumer<DynamicEntity, TaskExecutionContext> awaitOther = (entity, ctx) -> {
+      started.countDown();
+      try {
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+    };
+    TaskStep first = entityStep("first", (entity, ctx) -> {
+      entity.getAttributes().put("mail", "first@linagora.com");
+      entity.getAttributes().put("cn", "First");
+      awaitOther.accept(entity, ctx);
+      ctx.put("firstSaw", entity.getAttributes().get("title"));
+    });
+    TaskStep second = entityStep("second", (entity, ctx) -> {
+      entity.getAttributes().put("title", "Engineer");
+      entity.getAttributes().put("cn", "Second");
+      entity.getAttributes().remove("uid");
+      awaitOther.accept(entity, ctx);
+    });
+    for (TaskStep step : List.of(first, second)) {
+      step.configuration().addOption(TaskStep.PARALLEL_OPTION, true);
+    }
+    DynamicEntity entity = new DynamicEntity();
+    Map<String, Object> attributes = new HashMap<>(Map.of("uid", "jdoe", "cn", "John Doe"));
+    entity.setAttributes(attributes);
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    new TaskPlanExecutor(pool).execute(List.of(first, second), entity, context);
+
+    assertSame(attributes, entity.getAttributes());
+    assertEquals(Map.of("mail", "first@linagora.com", "cn", "Second", "title", "Engineer"), entity.getAttributes());
+    assertTrue(context.containsKey("firstSaw"));
+    assertNull(context.get("firstSaw"));
+  }
+
+  @Test
+  @DisplayName("Test a failing parallel step cancels the others and discards their writes")
+  void testFailFast() throws Exception {
+    CountDownLatch slowStarted = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    TaskExecutionContext context = new TaskExecutionContext();
+    List<TaskStep> steps = List.of(
+        step("slow", true, (configuration, ctx) -> {
+          ctx.put("slow", true);
+          slowStarted.countDown();
+          blockUntilInterrupted(interrupted);
+        }),
+        step("failing", true, (configuration, ctx) -> {
+          await(slowStarted);
+          throw new IllegalStateException("boom");
+        }),
+        step("never", false, (configuration, ctx) -> ctx.put("never", true)));
+
+    IllegalStateException exception = assertThrows(IllegalStateException.class,
+        () -> new TaskPlanExecutor(pool).execute(steps, new DynamicEntity(), context));
+
+    assertEquals("boom", exception.getMessage());
+    assertTrue(context.isEmpty());
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @DisplayName("Test sequential executor ignores the parallel option")
+  void testSequential() {
+    Thread caller = Thread.currentThread();
+    List<TaskStep> steps = List.of(
+        step("a", true, (configuration, ctx) -> ctx.put("a", Thread.currentThread())),
+        step("b", true, (configuration, ctx) -> ctx.put("b", ctx.get("a"))));
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    TaskPlanExecutor.sequential().execute(steps, new DynamicEntity(), context);
+
+    assertSame(caller, context.get("a"));
+    assertSame(caller, context.get("b"));
+  }
+
+  @Test
+  @DisplayName("Test parallel option is read from the task configuration")
+  void testParallelOption() {
+    assertTrue(step("a", true, (configuration, ctx) -> { }).isParallel());
+    assertFalse(step("b", false, (configuration, ctx) -> { }).isParallel());
+  }
+
+  @Test
+  @DisplayName("Test steps completing within their timeout apply their writes")
+  void testTimeoutMet() {
+    TaskStep step = step("fast", false, (configuration, ctx) -> ctx.put("fast", Thread.currentThread()));
+    step.configuration().addOption(TaskStep.TIMEOUT_OPTION, "PT5S");
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    TaskPlanExecutor.sequential().execute(List.of(step), new DynamicEntity(), context);
+
+    assertTrue(((Thread) context.get("fast")).isVirtual());
+    assertEquals(Duration.ofSeconds(5), step.getTimeout().orElseThrow());
+    assertSame(TimeoutBehavior.FAIL, step.getTimeoutBehavior());
+  }
+
+  @Test
+  @DisplayName("Test fail behaviour interrupts the step and fails with a gateway timeout")
+  void testTimeoutFail() throws Exception {
+    CountDownLatch interrupted = new CountDownLatch(1);
+    TaskStep step = step("hung", false, (configuration, ctx) -> blockUntilInterrupted(interrupted));
+    step.configuration().addOption(TaskStep.TIMEOUT_OPTION, "PT0.1S");
+
+    ApiException exception = assertThrows(ApiException.class,
+        () -> TaskPlanExecutor.sequential().execute(List.of(step), new DynamicEntity(), new TaskExecutionContext()));
+
+    assertEquals(504, exception.getStatusCode());
+    assertEquals("error.task.timeout", exception.getError().key());
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @DisplayName("Test skip and continue behaviours discard writes and go on with the next step")
+  void testTimeoutSkipAndContinue() throws Exception {
+    CountDownLatch interrupted = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(1);
+    TaskStep skipped = step("skipped", false, (configuration, ctx) -> {
+      ctx.put("skipped", true);
+      blockUntilInterrupted(interrupted);
+    });
+    skipped.configuration().addOption(TaskStep.TIMEOUT_OPTION, "PT0.05S");
+    skipped.configuration().addOption(TaskStep.ON_TIMEOUT_OPTION, "skip");
+    TaskStep continued = step("continued", false, (configuration, ctx) -> {
+      await(release);
+      ctx.put("continued", true);
+      finished.countDown();
+    });
+    continued.configuration().addOption(TaskStep.TIMEOUT_OPTION, "PT0.05S");
+    continued.configuration().addOption(TaskStep.ON_TIMEOUT_OPTION, "continue");
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    TaskPlanExecutor.sequential().execute(List.of(skipped, continued,
+        step("next", false, (configuration, ctx) -> ctx.put("next", true))), new DynamicEntity(), context);
+
+    assertEquals(Boolean.TRUE, context.get("next"));
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    release.countDown();
+    assertTrue(finished.await(5, TimeUnit.SECONDS));
+    assertFalse(context.containsKey("skipped"));
+    assertFalse(context.containsKey("continued"));
+  }
+
+  @Test
+  @DisplayName("Test continue behaviour keeps a bounded number of steps running in the background")
+  void testBackgroundStepsBounded() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    List<Thread> threads = new CopyOnWriteArrayList<>();
+    BiConsumer<TaskConfiguration, TaskExecutionContext> blocked = (configuration, ctx) -> {
+      threads.add(Thread.currentThread());
+      try {
+        assertTrue(release.await(10, TimeUnit.SECONDS));
+      } catch (InterruptedException e) {
+        interrupted.countDown();
+      }
+    };
+    TaskStep first = step("first", false, blocked);
+    TaskStep second = step("second", false, blocked);
+    for (TaskStep step : List.of(first, second)) {
+      step.configuration().addOption(TaskStep.TIMEOUT_OPTION, "PT0.01S");
+      step.configuration().addOption(TaskStep.ON_TIMEOUT_OPTION, "continue");
+    }
+    TaskPlanExecutor executor = new TaskPlanExecutor(null, null, 1);
+
+    executor.execute(List.of(first, second), new DynamicEntity(), new TaskExecutionContext());
+
+    assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    assertEquals(1, executor.getBackgroundStepCount());
+
+    release.countDown();
+    for (Thread thread : threads) {
+      assertTrue(thread.join(Duration.ofSeconds(5)));
+    }
+    assertEquals(0, executor.getBackgroundStepCount());
+  }
+
+  @Test
+  @DisplayName("Test timed steps change the entity only when they complete in time")
+  void testTimeoutEntityCopy() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(1);
+    TaskStep fast = entityStep("fast", (entity, ctx) -> {
+      entity.getAttributes().put("mail", "jdoe@linagora.com");
+      entity.getAttributes().remove("cn");
+    });
+    fast.configuration().addOption(TaskStep.TIMEOUT_OPTION, "PT5S");
+    TaskStep late = entityStep("late", (entity, ctx) -> {
+      entity.getAttributes().put("uid", "changed");
+      await(release);
+      entity.getAttributes().put("mail", "late@linagora.com");
+      finished.countDown();
+    });
+    late.configuration().addOption(TaskStep.TIMEOUT_OPTION, "PT0.05S");
+    late.configuration().addOption(TaskStep.ON_TIMEOUT_OPTION, "continue");
+    DynamicEntity entity = new DynamicEntity();
+    Map<String, Object> attributes = new HashMap<>(Map.of("uid", "jdoe", "cn", "John Doe"));
+    entity.setAttributes(attributes);
+
+    TaskPlanExecutor.sequential().execute(List.of(fast, late), entity, new TaskExecutionContext());
+
+    release.countDown();
+    assertTrue(finished.await(5, TimeUnit.SECONDS));
+    assertSame(attributes, entity.getAttributes());
+    assertEquals(Map.of("uid", "jdoe", "mail", "jdoe@linagora.com"), entity.getAttributes());
+  }
+
+  @Test
+  @DisplayName("Test lifecycle deadline bounds steps without timeout")
+  void testDeadline() {
+    Map<String, Boolean> executed = new ConcurrentHashMap<>();
+    TaskStep step = step("late", false, (configuration, ctx) -> executed.put("late", true));
+    step.configuration().addOption(TaskStep.ON_TIMEOUT_OPTION, "SKIP");
+    TaskExecutionContext context = new TaskExecutionContext();
+    context.setDeadline(Instant.now().minusSeconds(1));
+
+    TaskPlanExecutor.sequential().execute(List.of(step), new DynamicEntity(), context);
+
+    assertTrue(executed.isEmpty());
+    assertTrue(context.getRemainingTime().orElseThrow().isNegative());
+    assertEquals(context.getDeadline(), context.snapshot().getDeadline());
+  }
+
+  @Test
+  @DisplayName("Test steps start once their dependencies completed, independent ones concurrently")
+  void testDependencies() {
+    ExecutorService workStealing = Executors.newWorkStealingPool(4);
+    CountDownLatch branches = new CountDownLatch(2);
+    List<String> order = new CopyOnWriteArrayList<>();
+    BiConsumer<TaskConfiguration, TaskExecutionContext> branch = (configuration, context) -> {
+      order.add(configuration.getName());
+      context.put(configuration.getName(), context.get("root"));
+      branches.countDown();
+      try {
+        assertTrue(branches.await(5, TimeUnit.SECONDS));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+    List<TaskStep> steps = List.of(
+        dependent("join", List.of("left", "right"), (configuration, context) -> {
+          order.add("join");
+          context.put("join", context.get("left") + "+" + context.get("right"));
+        }),
+        dependent("left", List.of("root"), branch),
+        dependent("right", List.of("root"), branch),
+        dependent("root", List.of(), (configuration, context) -> {
+          order.add("root");
+          context.put("root", "value");
+        }));
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    try {
+      new TaskPlanExecutor(workStealing).execute(steps, new DynamicEntity(), context);
+    } finally {
+      workStealing.shutdownNow();
+    }
+
+    assertEquals("root", order.getFirst());
+    assertEquals("join", order.getLast());
+    assertEquals("value+value", context.get("join"));
+
+    order.clear();
+    TaskPlanExecutor.sequential().execute(List.of(
+        dependent("second", List.of("first"), (configuration, ctx) -> order.add("second")),
+        dependent("first", List.of(), (configuration, ctx) -> order.add("first"))), new DynamicEntity(), context);
+    assertEquals(List.of("first", "second"), order);
+  }
+
+  @Test
+  @DisplayName("Test independent steps writing the same key resolve by declaration order, dependents win")
+  void testDependencyMerge() {
+    CountDownLatch fastDone = new CountDownLatch(1);
+    List<TaskStep> steps = List.of(
+        dependent("slow", List.of(), (configuration, context) -> {
+          await(fastDone);
+          context.put("independent", "slow");
+        }),
+        dependent("fast", List.of(), (configuration, context) -> {
+          context.put("independent", "fast");
+          context.put("chained", "fast");
+          fastDone.countDown();
+        }),
+        step("barrier", false, (configuration, context) -> context.put("chained", "barrier")),
+        dependent("consumer", List.of("barrier"), (configuration, context) -> context.put("chained", "consumer")));
+    TaskExecutionContext context = new TaskExecutionContext();
+
+    new TaskPlanExecutor(pool).execute(steps, new DynamicEntity(), context);
+
+    assertEquals("fast", context.get("independent"));
+    assertEquals("consumer", context.get("chained"));
+  }
+
+  private static TaskStep step(String name, boolean parallel,
+                               BiConsumer<TaskConfiguration, TaskExecutionContext> action) {
+    TaskConfiguration configuration = new TaskConfiguration();
+    configuration.setName(name);
+    configuration.setType("function");
+    if (parallel) {
+      configuration.addOption(TaskStep.PARALLEL_OPTION, true);
+    }
+    return new TaskStep(new FunctionTaskPlugin(action), configuration);
+  }
+
+  private static TaskStep entityStep(String name, BiConsumer<DynamicEntity, TaskExecutionContext> action) {
+    TaskConfiguration configuration = new TaskConfiguration();
+    configuration.setName(name);
+    configuration.setType("entity");
+    return new TaskStep(new EntityTaskPlugin(action), configuration);
+  }
+
+  private static TaskStep dependent(String name, List<String> dependencies,
+                                    BiConsumer<TaskConfiguration, TaskExecutionContext> action) {
+    TaskStep step = step(name, false, action);
+    step.configuration().addOption(TaskStep.DEPENDS_ON_OPTION, dependencies);
+    return step;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(5, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void blockUntilInterrupted(CountDownLatch interrupted) {
+    try {
+      new CountDownLatch(1).await();
+    } catch (InterruptedException e) {
+      interrupted.countDown();
+    }
+  }
+
+  private record FunctionTaskPlugin(BiConsumer<TaskConfiguration, TaskExecutionContext> action)
+      implements TaskPlugin {
+
+    @Override
+    public boolean supports(@NonNull String type) {
+      return "function".equals(type);
+    }
+
+    @Override
+    public void execute(TaskConfiguration configuration, DynamicEntity entity, TaskExecutionContext context) {
+      action.accept(configuration, context);
+    }
+  }
+
+  private record EntityTaskPlugin(BiConsumer<DynamicEntity, TaskExecutionContext> action) implements TaskPlugin {
+
+    @Override
+    public boolean supports(@NonNull String type) {
+      return "entity".equals(type);
+    }
+
+    @Override
+    public void execute(TaskConfiguration configuration, DynamicEntity entity, TaskExecutionContext context) {
+      action.accept(entity, context);
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2020-2026 Linagora
+ *
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU Affero General
+ * Public License as published by the Free Software Foundation, either version 3 of the License, or (at your option)
+ * any later version, provided you comply with the Additional Terms applicable for LinID Identity Manager software by
+ * LINAGORA pursuant to Section 7 of the GNU Affero General Public License, subsections (b), (c), and (e), pursuant to
+ * which these Appropriate Legal Notices must notably (i) retain the display of the "LinID™" trademark/logo at the top
+ * of the interface window, the display of the “You are using the Open Source and free version of LinID™, powered by
+ * Linagora © 2009–2013. Contribute to LinID R&D by subscribing to an Enterprise offer!” infobox and in the e-mails
+ * sent with the Program, notice appended to any type of outbound messages (e.g. e-mail and meeting requests) as well
+ * as in the LinID Identity Manager user interface, (ii) retain all hypertext links between LinID Identity Manager
+ * and https://linid.org/, as well as between LINAGORA and LINAGORA.com, and (iii) refrain from infringing LINAGORA
+ * intellectual property rights over its trademarks and commercial brands. Other Additional Terms apply, see
+ * <http://www.linagora.com/licenses/> for more details.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Affero General Public License and its applicable Additional Terms for
+ * LinID Identity Manager along with this program. If not, see <http://www.gnu.org/licenses/> for the GNU Affero
+ * General Public License version 3 and <http://www.linagora.com/licenses/> for the Additional Terms applicable to the
+ * LinID Identity Manager software.
+ */
+
+package io.github.linagora.linid.im.corelib.plugin.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.github.linagora.linid.im.corelib.exception.ApiException;
+import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.AttributeConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.EntityConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.RootConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.config.dto.ValidationConfiguration;
+import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.lang.NonNull;
+import org.springframework.plugin.core.PluginRegistry;
+
+@DisplayName("Test class: ValidationExecutionPlan")
+class ValidationExecutionPlanTest {
+
+  @Test
+  @DisplayName("Test compile flattens named and inline validations per phase")
+  void testCompile() {
+    ValidationPlugin plugin = new RegexValidationPlugin();
+    ValidationConfiguration global = validation("regex1", "regex", List.of("beforeCreate"));
+    global.addOption("pattern", ".+");
+    global.addOption("ignoreCase", true);
+
+    ValidationConfiguration named = validation("regex1", null, List.of());
+    named.addOption("pattern", "^\\d$");
+    ValidationConfiguration inline = validation(null, "regex", List.of("beforeUpdate"));
+    ValidationConfiguration always = validation(null, "regex", List.of());
+
+    RootConfiguration root = root(List.of(global),
+        entity("user", attribute("id", named, inline), attribute("mail", always)));
+    ValidationExecutionPlan plan = ValidationExecutionPlan.compile(root, PluginRegistry.of(plugin));
+
+    List<ValidationStep> beforeCreate = plan.getSteps("user", "beforeCreate");
+    assertEquals(2, beforeCreate.size());
+    assertEquals("id", beforeCreate.get(0).attributeName());
+    assertSame(plugin, beforeCreate.get(0).plugin());
+    assertEquals("regex", beforeCreate.get(0).configuration().getType());
+    assertEquals(List.of("beforeCreate"), beforeCreate.get(0).configuration().getPhases());
+    assertEquals(Map.of("pattern", "^\\d$", "ignoreCase", true), beforeCreate.get(0).configuration().getOptions());
+    assertEquals("mail", beforeCreate.get(1).attributeName());
+
+    List<ValidationStep> beforeUpdate = plan.getSteps("user", "beforeUpdate");
+    assertEquals(2, beforeUpdate.size());
+    assertSame(inline, beforeUpdate.get(0).configuration());
+    assertSame(always, beforeUpdate.get(1).configuration());
+
+    assertEquals(List.of(always), plan.getSteps("user", "beforePatch").stream()
+        .map(ValidationStep::configuration).toList());
+    assertEquals(2, plan.getAttributeSteps("user", "id").size());
+  }
+
+  @Test
+  @DisplayName("Test getSteps returns an empty list for unknown entities")
+  void testGetStepsEmpty() {
+    ValidationExecutionPlan plan = ValidationExecutionPlan.compile(
+        root(List.of(), entity("user", attribute("id"))), PluginRegistry.of(new RegexValidationPlugin()));
+
+    assertTrue(plan.getSteps("user", "beforeCreate").isEmpty());
+    assertTrue(plan.getSteps("group", "beforeCreate").isEmpty());
+    assertTrue(plan.getAttributeSteps("group", "id").isEmpty());
+    assertTrue(ValidationExecutionPlan.empty().getSteps("user", "beforeCreate").isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test compile fails on unknown validation type or missing type")
+  void testCompileInvalid() {
+    PluginRegistry<ValidationPlugin, String> plugins = PluginRegistry.of(new RegexValidationPlugin());
+
+    ApiException unknown = assertThrows(ApiException.class, () -> ValidationExecutionPlan.compile(
+        root(List.of(), entity("user", attribute("id", validation(null, "email", List.of())))), plugins));
+    assertEquals("error.validation.plugin.unknown", unknown.getError().key());
+
+    ApiException missing = assertThrows(ApiException.class, () -> ValidationExecutionPlan.compile(
+        root(List.of(), entity("user", attribute("id", validation("undeclared", null, List.of())))), plugins));
+    assertEquals("error.validation.type.missing", missing.getError().key());
+  }
+
+  @Test
+  @DisplayName("Test ValidationStep delegates to its plugin")
+  void testStepValidate() {
+    ValidationStep step = new ValidationStep("id", new RegexValidationPlugin(), validation(null, "regex", List.of()));
+
+    assertTrue(step.validate("value", new TaskExecutionContext()).isEmpty());
+    assertEquals("error.regex", step.validate(null, new TaskExecutionContext()).get().key());
+  }
+
+  private static ValidationConfiguration validation(String name, String type, List<String> phases) {
+    ValidationConfiguration validation = new ValidationConfiguration();
+    validation.setName(name);
+    validation.setType(type);
+    validation.setPhases(phases);
+    return validation;
+  }
+
+  private static AttributeConfiguration attribute(String name, ValidationConfiguration... validations) {
+    AttributeConfiguration attribute = new AttributeConfiguration();
+    attribute.setName(name);
+    attribute.setValidations(List.of(validations));
+    return attribute;
+  }
+
+  private static EntityConfiguration entity(String name, AttributeConfiguration... attributes) {
+    EntityConfiguration entity = new EntityConfiguration();
+    entity.setName(name);
+    entity.setAttributes(List.of(attributes));
+    return entity;
+  }
+
+  private static RootConfiguration root(List<ValidationConfiguration> validations, EntityConfiguration... entities) {
+    RootConfiguration root = new RootConfiguration();
+    root.setValidations(validations);
+    root.setEntities(List.of(entities));
+    return root;
+  }
+
+  private static class RegexValidationPlugin implements ValidationPlugin {
+    @Override
+    public boolean supports(@NonNull String type) {
+      return "regex".equals(type);
+    }
+
+    @Override
+    public Optional<I18nMessage> validate(ValidationConfiguration configuration, Object value,
+                                          TaskExecutionContext context) {
+      return value == null ? Optional.of(I18nMessage.of("error.regex")) : Optional.empty();
+    }
+  }
+}
@@ -27,12 +27,17 @@
 package io.github.linagora.linid.im.corelib.plugin.validation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import io.github.linagora.linid.im.corelib.i18n.I18nMessage;
 import io.github.linagora.linid.im.corelib.plugin.config.dto.ValidationConfiguration;
 import io.github.linagora.linid.im.corelib.plugin.task.TaskExecutionContext;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.lang.NonNull;
@@ -88,4 +93,99 @@ class ValidationPluginTest {
     assertTrue(result.isPresent());
     assertEquals("error.code", result.get().key());
   }
+
+  @Test
+  @DisplayName("Test validateAll returns only failures with their indices")
+  void testValidateAll() {
+    ValidationPlugin plugin =
+        new ValidationPlugin() {
+          @Override
+          public boolean supports(@NonNull String s) {
+            return false;
+          }
+
+          @Override
+          public Optional<I18nMessage> validate(
+              ValidationConfiguration configuration, Object value,
+              TaskExecutionContext context) {
+            return value == null ? Optional.of(I18nMessage.of("error.null")) : Optional.empty();
+          }
+        };
+
+    ValidationConfiguration config = new ValidationConfiguration();
+    TaskExecutionContext context = new TaskExecutionContext();
+    List<ValidationFailure> failures = plugin.validateAll(config, Arrays.asList("a", null, "b", null), context);
+
+    assertEquals(2, failures.size());
+    assertEquals(1, failures.get(0).index());
+    assertEquals("error.null", failures.get(0).message().key());
+    assertEquals(3, failures.get(1).index());
+    assertTrue(plugin.validateAll(config, List.of("a", "b"), context).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Test validateAll prepares the configuration once and reuses the state")
+  void testValidateAllWithPreparedState() {
+    AtomicInteger preparations = new AtomicInteger();
+    ValidationPlugin plugin =
+        new ValidationPlugin() {
+          @Override
+          public boolean supports(@NonNull String s) {
+            return false;
+          }
+
+          @Override
+          public Object prepare(ValidationConfiguration configuration) {
+            preparations.incrementAndGet();
+            return Pattern.compile(configuration.getOption("pattern").orElseThrow());
+          }
+
+          @Override
+          public Optional<I18nMessage> validate(
+              ValidationConfiguration configuration, Object state, Object value,
+              TaskExecutionContext context) {
+            return ((Pattern) state).matcher(String.valueOf(value)).matches()
+                ? Optional.empty()
+                : Optional.of(I18nMessage.of("error.pattern"));
+          }
+
+          @Override
+          public Optional<I18nMessage> validate(
+              ValidationConfiguration configuration, Object value,
+              TaskExecutionContext context) {
+            return validate(configuration, prepare(configuration), value, context);
+          }
+        };
+
+    ValidationConfiguration config = new ValidationConfiguration();
+    config.addOption("pattern", "\\d+");
+    List<ValidationFailure> failures =
+        plugin.validateAll(config, List.of("1", "a", "22", "b"), new TaskExecutionContext());
+
+    assertEquals(1, preparations.get());
+    assertEquals(List.of(1, 3), failures.stream().map(ValidationFailure::index).toList());
+  }
+
+  @Test
+  @DisplayName("Test default prepare returns null and prepared validate delegates to validate")
+  void testDefaultPrepare() {
+    ValidationPlugin plugin =
+        new ValidationPlugin() {
+          @Override
+          public boolean supports(@NonNull String s) {
+            return false;
+          }
+
+          @Override
+          public Optional<I18nMessage> validate(
+              ValidationConfiguration configuration, Object value,
+              TaskExecutionContext context) {
+            return Optional.of(I18nMessage.of("error.code"));
+          }
+        };
+
+    ValidationConfiguration config = new ValidationConfiguration();
+    assertNull(plugin.prepare(config));
+    assertEquals("error.code", plugin.validate(config, null, "value", new TaskExecutionContext()).get().key());
+  }
 }